@@ -238,17 +238,43 @@ public enum Phrase {
             System.getProperty("user.dir"), "../application/src/main/resources/phrases/"
     );
 
+    // The audio files depend on PHRASE_FILES_DIRECTORY, which isn't initialized yet when the constants are created.
+    static {
+        for (Phrase phrase : Phrase.values()) {
+            phrase.phraseAudioFile = new File(
+                    String.format("%s/%s.wav", PHRASE_FILES_DIRECTORY.toString(), phrase.phraseHashValue)
+            );
+        }
+    }
+
     /**
      * The Phrase's String value, which is the phrase that needs to be fetched via the Google Cloud API.
      */
     private final String phraseValue;
 
+    /**
+     * A SHA-256 hash of the phraseValue, which names the Phrase's audio file (computed once per Phrase).
+     */
+    private final String phraseHashValue;
+
+    /**
+     * The Phrase's audio file as a resource ("phrases/<SHA_256_value>.wav").
+     */
+    private final String phraseAudioResourceName;
+
+    /**
+     * The Phrase's audio file under PHRASE_FILES_DIRECTORY (set once, right after all Phrases are created).
+     */
+    private File phraseAudioFile;
+
     /**
      * Creates a new Phrase
      * When no phrase value is passed, just set the phrase value to the name of the enumeration member.
      */
     Phrase() {
         this.phraseValue = this.name();
+        this.phraseHashValue = getSha256HashValue(this.phraseValue);
+        this.phraseAudioResourceName = String.format("phrases/%s.wav", this.phraseHashValue);
     }
 
     /**
@@ -258,6 +284,8 @@ public enum Phrase {
      */
     Phrase(@NotNull String phraseValue) {
         this.phraseValue = phraseValue;
+        this.phraseHashValue = getSha256HashValue(this.phraseValue);
+        this.phraseAudioResourceName = String.format("phrases/%s.wav", this.phraseHashValue);
     }
 
     /**
@@ -475,14 +503,15 @@ public enum Phrase {
     }
 
     /**
-     * Helper method to retrieve a SHA-256 hash of the current phraseValue.
+     * Helper method to calculate a SHA-256 hash of a phrase value.
      *
-     * @return A SHA-256 hash of the current phraseValue (empty string if exception thrown).
+     * @param phraseValue The phrase value to hash.
+     * @return A SHA-256 hash of the phrase value (empty string if exception thrown).
      */
-    private String getPhaseHashValue() {
+    private static String getSha256HashValue(@NotNull String phraseValue) {
         try {
             MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
-            messageDigest.update(this.phraseValue.getBytes(StandardCharsets.UTF_8));
+            messageDigest.update(phraseValue.getBytes(StandardCharsets.UTF_8));
             return String.format("%064x", new BigInteger(1, messageDigest.digest()));
         } catch (NoSuchAlgorithmException e) {
             e.printStackTrace();
@@ -490,15 +519,22 @@ public enum Phrase {
         }
     }
 
+    /**
+     * Getter for the phraseHashValue instance variable
+     *
+     * @return A SHA-256 hash of the current phraseValue (empty string if it couldn't be calculated).
+     */
+    String getPhaseHashValue() {
+        return this.phraseHashValue;
+    }
+
     /**
      * Used for calling into Google Cloud Text-to-Speech & generating the audio files.
      *
      * @return The {@link File} associated with the current Phrase.
      */
     public File getPhraseAudioFile() {
-        return new File(
-                String.format("%s/%s.wav", PHRASE_FILES_DIRECTORY.toString(), this.getPhaseHashValue())
-        );
+        return this.phraseAudioFile;
     }
 
     /**
@@ -508,9 +544,8 @@ public enum Phrase {
      */
     public Optional<InputStream> getPhraseInputStream() {
         // Audio file is a resource, which is under "phrases/<SHA_256_value>.wav"
-        final String audioFileName = String.format("phrases/%s.wav", this.getPhaseHashValue());
         return Optional.ofNullable(
-                ClassLoader.getSystemClassLoader().getResourceAsStream(audioFileName)
+                ClassLoader.getSystemClassLoader().getResourceAsStream(this.phraseAudioResourceName)
         );
     }
 }
@@ -0,0 +1,271 @@
+package phrase;
+
+import org.jetbrains.annotations.NotNull;
+import util.PcmUtil;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The audio of all Phrases in a single file, compressed with μ-law (see {@link PcmUtil#toMuLaw}).
+ * The pack is written by the audio builder (from the audio files, every time it runs) & read by the game, which
+ * decodes a Phrase only when it's needed.
+ * <p>
+ * File layout (big-endian):
+ * <ul>
+ * <li>the magic number "PPK1", the sample rate (int) & the number of entries (int)</li>
+ * <li>the entries: the SHA-256 hash of the phrase value (32 bytes), the offset of the audio in the file (int)
+ * & the length of the audio (int, one byte per sample)</li>
+ * <li>the μ-law audio of every entry</li>
+ * </ul>
+ */
+public class PhrasePack {
+    /**
+     * The name of the pack as a resource (next to the "phrases" folder). The pack is the only phrase audio in the JAR
+     * file: the application's build leaves the audio files in the "phrases" folder out.
+     */
+    public static final String PHRASE_PACK_RESOURCE_NAME = "phrases.pack";
+
+    /**
+     * Where the audio builder writes the pack ("resources/phrases.pack" under the root of the project).
+     */
+    public static final Path PHRASE_PACK_FILE = Paths.get(
+            System.getProperty("user.dir"), "../application/src/main/resources/", PHRASE_PACK_RESOURCE_NAME
+    );
+
+    /**
+     * The first four bytes of every phrase pack ("PPK1").
+     */
+    private static final int MAGIC_NUMBER = 0x50504B31;
+
+    /**
+     * The size of the header in bytes (magic number, sample rate & number of entries).
+     */
+    private static final int HEADER_SIZE = 4 + 4 + 4;
+
+    /**
+     * The number of bytes in a SHA-256 hash.
+     */
+    private static final int HASH_SIZE = 32;
+
+    /**
+     * The size of an entry in bytes (hash, offset & length).
+     */
+    private static final int ENTRY_SIZE = HASH_SIZE + 4 + 4;
+
+    /**
+     * The contents of the pack (memory-mapped if the pack is a file, otherwise read into memory).
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * A Map between the hash of a phrase value & the position of its entry in the buffer.
+     */
+    private final Map<String, Integer> hashToEntryPosition;
+
+    /**
+     * Creates a new PhrasePack.
+     *
+     * @param buffer              The contents of the pack.
+     * @param hashToEntryPosition A Map between the hash of a phrase value & the position of its entry in the buffer.
+     */
+    private PhrasePack(@NotNull ByteBuffer buffer, @NotNull Map<String, Integer> hashToEntryPosition) {
+        this.buffer = buffer;
+        this.hashToEntryPosition = hashToEntryPosition;
+    }
+
+    /**
+     * Opens the pack that is on the classpath. If it is a file (e.g. when running from the IDE), it's memory-mapped;
+     * if it is inside the JAR file, it's read into memory with a single resource lookup.
+     *
+     * @return The opened PhrasePack, or empty() if there is no (valid) pack on the classpath.
+     */
+    public static Optional<PhrasePack> open() {
+        URL packUrl = ClassLoader.getSystemClassLoader().getResource(PHRASE_PACK_RESOURCE_NAME);
+        if (packUrl == null) {
+            return Optional.empty();
+        }
+
+        try {
+            if ("file".equals(packUrl.getProtocol())) {
+                return open(new File(packUrl.toURI()));
+            }
+
+            ByteArrayOutputStream packOutputStream = new ByteArrayOutputStream();
+            try (InputStream packInputStream = packUrl.openStream()) {
+                byte[] bytes = new byte[8192];
+                int numberOfBytesRead;
+                while ((numberOfBytesRead = packInputStream.read(bytes)) != -1) {
+                    packOutputStream.write(bytes, 0, numberOfBytesRead);
+                }
+            }
+            return open(ByteBuffer.wrap(packOutputStream.toByteArray()), packUrl.toString());
+        } catch (IOException | URISyntaxException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Memory-maps a pack file & reads its index.
+     *
+     * @param packFile The pack file to open.
+     * @return The opened PhrasePack, or empty() if the file doesn't exist or isn't a valid pack.
+     */
+    public static Optional<PhrasePack> open(@NotNull File packFile) {
+        if (!packFile.isFile()) {
+            return Optional.empty();
+        }
+
+        // The mapping stays valid after the channel is closed.
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(packFile, "r");
+             FileChannel fileChannel = randomAccessFile.getChannel()) {
+            return open(fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size()), packFile.toString());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Checks the header of a pack & reads its index.
+     *
+     * @param buffer     The contents of the pack.
+     * @param packSource Where the pack was read from (for the error message).
+     * @return The opened PhrasePack, or empty() if the contents aren't a valid pack.
+     */
+    private static Optional<PhrasePack> open(@NotNull ByteBuffer buffer, @NotNull String packSource) {
+        final int capacity = buffer.capacity();
+        int numberOfEntries = (capacity >= HEADER_SIZE) ? buffer.getInt(8) : -1;
+
+        if (capacity < HEADER_SIZE
+                || buffer.getInt(0) != MAGIC_NUMBER
+                || numberOfEntries < 0
+                || (long) HEADER_SIZE + (long) numberOfEntries * ENTRY_SIZE > capacity) {
+            System.err.println("Not a valid phrase pack: " + packSource);
+            return Optional.empty();
+        }
+
+        Map<String, Integer> hashToEntryPosition = new HashMap<>();
+        for (int entry = 0; entry < numberOfEntries; entry++) {
+            int entryPosition = HEADER_SIZE + entry * ENTRY_SIZE;
+            long offset = buffer.getInt(entryPosition + HASH_SIZE);
+            long length = buffer.getInt(entryPosition + HASH_SIZE + 4);
+            if (offset < 0 || length < 0 || offset + length > capacity) {
+                System.err.println("Not a valid phrase pack: " + packSource);
+                return Optional.empty();
+            }
+
+            StringBuilder hashBuilder = new StringBuilder();
+            for (int i = 0; i < HASH_SIZE; i++) {
+                hashBuilder.append(String.format("%02x", buffer.get(entryPosition + i)));
+            }
+            hashToEntryPosition.put(hashBuilder.toString(), entryPosition);
+        }
+
+        return Optional.of(new PhrasePack(buffer, hashToEntryPosition));
+    }
+
+    /**
+     * Writes a pack file.
+     *
+     * @param packFile    The pack file to write.
+     * @param sampleRate  The sample rate of all of the audio.
+     * @param phraseToPcm A Map between a Phrase & its audio (16-bit little-endian mono PCM, see {@link PcmUtil}).
+     * @throws IOException If the file couldn't be written.
+     */
+    public static void write(
+            @NotNull File packFile, int sampleRate, @NotNull Map<Phrase, byte[]> phraseToPcm
+    ) throws IOException {
+        // Phrases with the same phrase value have the same hash (& the same audio), so they share an entry.
+        Map<String, byte[]> hashToMuLaw = new LinkedHashMap<>();
+        for (Map.Entry<Phrase, byte[]> phraseEntry : phraseToPcm.entrySet()) {
+            hashToMuLaw.computeIfAbsent(
+                    phraseEntry.getKey().getPhaseHashValue(), hash -> PcmUtil.toMuLaw(phraseEntry.getValue())
+            );
+        }
+
+        int dataSize = 0;
+        for (byte[] muLaw : hashToMuLaw.values()) {
+            dataSize += muLaw.length;
+        }
+
+        final int indexSize = HEADER_SIZE + hashToMuLaw.size() * ENTRY_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(indexSize + dataSize);
+        buffer.putInt(MAGIC_NUMBER).putInt(sampleRate).putInt(hashToMuLaw.size());
+
+        int offset = indexSize;
+        for (Map.Entry<String, byte[]> hashEntry : hashToMuLaw.entrySet()) {
+            String hash = hashEntry.getKey();
+            for (int i = 0; i < HASH_SIZE; i++) {
+                buffer.put((byte) Integer.parseInt(hash.substring(2 * i, 2 * i + 2), 16));
+            }
+
+            byte[] muLaw = hashEntry.getValue();
+            buffer.putInt(offset).putInt(muLaw.length);
+
+            // The audio goes after the index (absolute puts, so the index position stays where it is).
+            for (int i = 0; i < muLaw.length; i++) {
+                buffer.put(offset + i, muLaw[i]);
+            }
+            offset += muLaw.length;
+        }
+
+        buffer.rewind();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(packFile, "rw");
+             FileChannel fileChannel = randomAccessFile.getChannel()) {
+            fileChannel.truncate(0);
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Getter for the sample rate of all of the audio in the pack.
+     *
+     * @return The sample rate (samples per second).
+     */
+    public int getSampleRate() {
+        return this.buffer.getInt(4);
+    }
+
+    /**
+     * Gets the number of Phrases in the pack.
+     *
+     * @return The number of entries in the pack.
+     */
+    public int getNumberOfPhrases() {
+        return this.hashToEntryPosition.size();
+    }
+
+    /**
+     * Decodes the audio of a Phrase.
+     *
+     * @param phrase The Phrase to decode the audio of.
+     * @return The audio (16-bit little-endian mono PCM), or empty() if the Phrase isn't in the pack.
+     */
+    public Optional<byte[]> getPhrasePcm(@NotNull Phrase phrase) {
+        Integer entryPosition = this.hashToEntryPosition.get(phrase.getPhaseHashValue());
+        if (entryPosition == null) {
+            return Optional.empty();
+        }
+
+        // A duplicate has its own position, so the shared buffer is never modified.
+        ByteBuffer audioBuffer = this.buffer.duplicate();
+        audioBuffer.position(this.buffer.getInt(entryPosition + HASH_SIZE));
+
+        byte[] muLaw = new byte[this.buffer.getInt(entryPosition + HASH_SIZE + 4)];
+        audioBuffer.get(muLaw);
+        return Optional.of(PcmUtil.fromMuLaw(muLaw));
+    }
+}
@@ -0,0 +1,243 @@
+package util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Helpers for the audio of the Phrases: signed 16-bit little-endian mono PCM (the format that
+ * Google Cloud Text-to-Speech's LINEAR16 encoding produces).
+ */
+public class PcmUtil {
+    /**
+     * The number of bytes in a single sample.
+     */
+    public static final int BYTES_PER_SAMPLE = 2;
+
+    /**
+     * Samples quieter than this (about -40 dBFS) are considered silence.
+     */
+    public static final int SILENCE_THRESHOLD = 328;
+
+    /**
+     * The silence that is kept before the sound of a Phrase when it is trimmed (5 ms).
+     */
+    public static final int LEADING_PADDING_MILLIS = 5;
+
+    /**
+     * The silence that is kept after the sound of a Phrase when it is trimmed (40 ms). This is also
+     * the pause between two Phrases that are spoken in a row.
+     */
+    public static final int TRAILING_PADDING_MILLIS = 40;
+
+    /**
+     * The loudness that all Phrases are normalized to (the RMS of the samples that aren't silent, in dBFS).
+     */
+    public static final double TARGET_LOUDNESS_DBFS = -17.0;
+
+    /**
+     * The loudest sample that normalization may produce (in dBFS), so that loud Phrases are never clipped.
+     */
+    public static final double MAX_PEAK_DBFS = -1.0;
+
+    /**
+     * The largest possible sample value (0 dBFS).
+     */
+    private static final double FULL_SCALE = 32768.0;
+
+    /* The bias & the largest magnitude of the G.711 μ-law encoding. */
+    private static final int MU_LAW_BIAS = 0x84;
+    private static final int MU_LAW_CLIP = 32635;
+
+    /**
+     * The decoded sample of every μ-law byte (decoding is a table lookup).
+     */
+    private static final short[] MU_LAW_TO_SAMPLE = new short[256];
+
+    static {
+        for (int muLaw = 0; muLaw < 256; muLaw++) {
+            int complement = ~muLaw & 0xFF;
+            int exponent = (complement >> 4) & 0x07, mantissa = complement & 0x0F;
+            int magnitude = (((mantissa << 3) + MU_LAW_BIAS) << exponent) - MU_LAW_BIAS;
+            MU_LAW_TO_SAMPLE[muLaw] = (short) (((complement & 0x80) != 0) ? -magnitude : magnitude);
+        }
+    }
+
+    /**
+     * Reads a single sample.
+     *
+     * @param pcm         The audio to read from.
+     * @param sampleIndex The index of the sample (not of its first byte).
+     * @return The sample, between -32768 & 32767.
+     */
+    public static int getSample(@NotNull byte[] pcm, int sampleIndex) {
+        int byteIndex = sampleIndex * BYTES_PER_SAMPLE;
+        return (short) ((pcm[byteIndex] & 0xFF) | (pcm[byteIndex + 1] << 8));
+    }
+
+    /**
+     * Writes a single sample (clipped to the range of a 16-bit sample).
+     *
+     * @param pcm         The audio to write to.
+     * @param sampleIndex The index of the sample (not of its first byte).
+     * @param sample      The value of the sample.
+     */
+    public static void setSample(@NotNull byte[] pcm, int sampleIndex, int sample) {
+        int clippedSample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample));
+        int byteIndex = sampleIndex * BYTES_PER_SAMPLE;
+        pcm[byteIndex] = (byte) clippedSample;
+        pcm[byteIndex + 1] = (byte) (clippedSample >> 8);
+    }
+
+    /**
+     * Removes the silence around a Phrase, keeping the default padding (LEADING_PADDING_MILLIS
+     * & TRAILING_PADDING_MILLIS). The audio builder & the game trim the Phrases the same way.
+     *
+     * @param pcm        The audio to trim.
+     * @param sampleRate The sample rate of the audio (samples per second).
+     * @return The trimmed audio (a copy), or an empty array if the audio is completely silent.
+     */
+    public static byte[] trimSilence(@NotNull byte[] pcm, float sampleRate) {
+        return trimSilence(
+                pcm,
+                Math.round(sampleRate * LEADING_PADDING_MILLIS / 1000),
+                Math.round(sampleRate * TRAILING_PADDING_MILLIS / 1000)
+        );
+    }
+
+    /**
+     * Removes the silence at the start & at the end of the audio, but keeps a few samples of padding
+     * around the sound (so that the start of a word & the decay of its last syllable aren't cut off).
+     *
+     * @param pcm                    The audio to trim.
+     * @param leadingPaddingSamples  The number of silent samples to keep before the sound.
+     * @param trailingPaddingSamples The number of silent samples to keep after the sound.
+     * @return The trimmed audio (a copy), or an empty array if the audio is completely silent.
+     */
+    public static byte[] trimSilence(@NotNull byte[] pcm, int leadingPaddingSamples, int trailingPaddingSamples) {
+        final int numberOfSamples = pcm.length / BYTES_PER_SAMPLE;
+
+        int firstLoudSample = 0;
+        while (firstLoudSample < numberOfSamples && Math.abs(getSample(pcm, firstLoudSample)) < SILENCE_THRESHOLD) {
+            firstLoudSample++;
+        }
+        if (firstLoudSample == numberOfSamples) {
+            return new byte[0];
+        }
+
+        int lastLoudSample = numberOfSamples - 1;
+        while (Math.abs(getSample(pcm, lastLoudSample)) < SILENCE_THRESHOLD) {
+            lastLoudSample--;
+        }
+
+        int fromSample = Math.max(0, firstLoudSample - leadingPaddingSamples);
+        int toSample = Math.min(numberOfSamples, lastLoudSample + 1 + trailingPaddingSamples);
+        return Arrays.copyOfRange(pcm, fromSample * BYTES_PER_SAMPLE, toSample * BYTES_PER_SAMPLE);
+    }
+
+    /**
+     * Calculates the gain that brings the audio to the TARGET_LOUDNESS_DBFS, limited so that
+     * no sample gets louder than MAX_PEAK_DBFS. Silent samples are ignored.
+     *
+     * @param pcm The audio to measure.
+     * @return The factor to multiply every sample with (1.0 if the audio is completely silent).
+     */
+    public static double getNormalizationGain(@NotNull byte[] pcm) {
+        final int numberOfSamples = pcm.length / BYTES_PER_SAMPLE;
+
+        double sumOfSquares = 0;
+        int numberOfLoudSamples = 0, peak = 0;
+        for (int sampleIndex = 0; sampleIndex < numberOfSamples; sampleIndex++) {
+            int sample = Math.abs(getSample(pcm, sampleIndex));
+            if (sample >= SILENCE_THRESHOLD) {
+                sumOfSquares += (double) sample * sample;
+                numberOfLoudSamples++;
+                peak = Math.max(peak, sample);
+            }
+        }
+        if (numberOfLoudSamples == 0) {
+            return 1.0;
+        }
+
+        double rms = Math.sqrt(sumOfSquares / numberOfLoudSamples);
+        double loudnessGain = FULL_SCALE * Math.pow(10, TARGET_LOUDNESS_DBFS / 20) / rms;
+        double peakGain = FULL_SCALE * Math.pow(10, MAX_PEAK_DBFS / 20) / peak;
+        return Math.min(loudnessGain, peakGain);
+    }
+
+    /**
+     * Multiplies every sample with the same gain.
+     *
+     * @param pcm  The audio to amplify.
+     * @param gain The factor to multiply every sample with.
+     * @return The amplified audio (a copy).
+     */
+    public static byte[] applyGain(@NotNull byte[] pcm, double gain) {
+        byte[] amplifiedPcm = new byte[pcm.length];
+        for (int sampleIndex = 0; sampleIndex < pcm.length / BYTES_PER_SAMPLE; sampleIndex++) {
+            setSample(amplifiedPcm, sampleIndex, (int) Math.round(getSample(pcm, sampleIndex) * gain));
+        }
+        return amplifiedPcm;
+    }
+
+    /**
+     * Compresses audio to G.711 μ-law: a single byte per sample, with a logarithmic scale that keeps
+     * quiet speech accurate.
+     *
+     * @param pcm The audio to compress.
+     * @return The μ-law bytes (one per sample).
+     */
+    public static byte[] toMuLaw(@NotNull byte[] pcm) {
+        byte[] muLaw = new byte[pcm.length / BYTES_PER_SAMPLE];
+        for (int sampleIndex = 0; sampleIndex < muLaw.length; sampleIndex++) {
+            int sample = getSample(pcm, sampleIndex);
+            int sign = (sample < 0) ? 0x80 : 0;
+            int magnitude = Math.min(Math.abs(sample), MU_LAW_CLIP) + MU_LAW_BIAS;
+
+            int exponent = 7;
+            for (int mask = 0x4000; (magnitude & mask) == 0 && exponent > 0; mask >>= 1) {
+                exponent--;
+            }
+            int mantissa = (magnitude >> (exponent + 3)) & 0x0F;
+
+            muLaw[sampleIndex] = (byte) ~(sign | (exponent << 4) | mantissa);
+        }
+        return muLaw;
+    }
+
+    /**
+     * Decompresses G.711 μ-law bytes back to audio.
+     *
+     * @param muLaw The μ-law bytes (one per sample).
+     * @return The decoded audio.
+     */
+    public static byte[] fromMuLaw(@NotNull byte[] muLaw) {
+        byte[] pcm = new byte[muLaw.length * BYTES_PER_SAMPLE];
+        for (int sampleIndex = 0; sampleIndex < muLaw.length; sampleIndex++) {
+            setSample(pcm, sampleIndex, MU_LAW_TO_SAMPLE[muLaw[sampleIndex] & 0xFF]);
+        }
+        return pcm;
+    }
+
+    /**
+     * Splices several pieces of audio into one contiguous buffer.
+     *
+     * @param pcmPieces The pieces of audio, in the order they should be played.
+     * @return The audio of all pieces, back to back.
+     */
+    public static byte[] concatenate(@NotNull List<byte[]> pcmPieces) {
+        int totalLength = 0;
+        for (byte[] pcm : pcmPieces) {
+            totalLength += pcm.length;
+        }
+
+        byte[] concatenatedPcm = new byte[totalLength];
+        int position = 0;
+        for (byte[] pcm : pcmPieces) {
+            System.arraycopy(pcm, 0, concatenatedPcm, position, pcm.length);
+            position += pcm.length;
+        }
+        return concatenatedPcm;
+    }
+}
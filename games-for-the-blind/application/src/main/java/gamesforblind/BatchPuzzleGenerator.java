@@ -0,0 +1,144 @@
+package gamesforblind;
+
+import gamesforblind.enums.SudokuDifficulty;
+import gamesforblind.enums.SudokuType;
+import gamesforblind.sudoku.OriginalSudokuGrid;
+import gamesforblind.sudoku.PuzzleBank;
+import gamesforblind.sudoku.generator.Generator;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Generates a batch of Sudoku puzzles without opening the GUI (used to build puzzle libraries offline).
+ * The puzzles are generated in parallel on all cores. Every puzzle has its own {@link Generator} with its
+ * own {@link Random}, seeded from the batch's seed & the puzzle's index, so a batch can be reproduced by passing the
+ * same seed again.
+ * <p>
+ * Each line of the output file holds one puzzle: the digits of the puzzle in row-major order (0 for an empty
+ * square), a space & the digits of its solution (e.g. "0204300140030340 1234341241232341" for a 4x4).
+ * If the output file ends with ".bank", a binary {@link PuzzleBank} is written instead.
+ * The puzzles either have a fixed number of empty squares ("-e") or a difficulty ("-d"). A puzzle that doesn't reach
+ * the difficulty is left out of the output file.
+ */
+public class BatchPuzzleGenerator {
+    private final SudokuType sudokuType;
+    private final ProgramArgs programArgs;
+
+    /**
+     * Creates a new BatchPuzzleGenerator.
+     *
+     * @param programArgs The program arguments that were passed (must be in batch generation mode).
+     */
+    public BatchPuzzleGenerator(@NotNull ProgramArgs programArgs) {
+        this.sudokuType = Objects.requireNonNull(programArgs.getBatchSudokuType());
+        this.programArgs = programArgs;
+    }
+
+    /**
+     * Derives the seed of a puzzle from the seed of the batch with a splitmix64 step over seed + puzzleIndex (the first
+     * value of a {@link SplittableRandom}). Randoms with adjacent seeds give correlated first values, so the raw
+     * seed + puzzleIndex isn't used.
+     *
+     * @param batchSeed   The seed of the batch.
+     * @param puzzleIndex The index of the puzzle in the batch.
+     * @return The seed of the puzzle's {@link Random}.
+     */
+    private static long getPuzzleSeed(long batchSeed, long puzzleIndex) {
+        return new SplittableRandom(batchSeed + puzzleIndex).nextLong();
+    }
+
+    /**
+     * Converts a puzzle to a single line of the output file.
+     *
+     * @param puzzle The puzzle to convert (along with its solution).
+     * @return The digits of the puzzle, a space & the digits of its solution.
+     */
+    private static String toLine(@NotNull OriginalSudokuGrid puzzle) {
+        StringBuilder lineBuilder = new StringBuilder();
+        appendDigits(lineBuilder, puzzle.getGrid());
+        lineBuilder.append(' ');
+        appendDigits(lineBuilder, Objects.requireNonNull(puzzle.getSolution()));
+        return lineBuilder.toString();
+    }
+
+    /**
+     * Appends the values of a board in row-major order.
+     *
+     * @param lineBuilder Where the digits are appended.
+     * @param board       The 2D array of ints representing the board.
+     */
+    private static void appendDigits(@NotNull StringBuilder lineBuilder, @NotNull int[][] board) {
+        for (int[] row : board) {
+            for (int value : row) {
+                lineBuilder.append((char) ('0' + value));
+            }
+        }
+    }
+
+    /**
+     * Generates the requested number of puzzles & writes them to the output file.
+     *
+     * @return true if the puzzles were written successfully (otherwise, false).
+     */
+    public boolean generatePuzzles() {
+        final int numberOfEmptyCells = this.programArgs.getBatchNumberOfEmptyCells();
+        final SudokuDifficulty sudokuDifficulty = this.programArgs.getBatchSudokuDifficulty();
+        final long seed = this.programArgs.getBatchSeed();
+
+        long startingNanos = System.nanoTime();
+        List<OriginalSudokuGrid> puzzles = LongStream.range(0, this.programArgs.getBatchPuzzleCount())
+                .parallel()
+                .mapToObj(i -> new Generator(this.sudokuType, new Random(getPuzzleSeed(seed, i))))
+                .map(generator -> sudokuDifficulty != null
+                        ? generator.generateWithDifficulty(sudokuDifficulty, sudokuDifficulty)
+                        : Optional.of(generator.generateWithUniqueSolution(numberOfEmptyCells)))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList());
+
+        // Puzzles that didn't reach the difficulty are left out (rather than written with the wrong difficulty).
+        int numberOfMissingPuzzles = this.programArgs.getBatchPuzzleCount() - puzzles.size();
+        if (numberOfMissingPuzzles != 0) {
+            System.err.printf(
+                    "%d puzzle(s) didn't reach the %s difficulty & were left out!%n",
+                    numberOfMissingPuzzles,
+                    sudokuDifficulty
+            );
+        }
+
+        File outputFile = Objects.requireNonNull(this.programArgs.getBatchOutputFile());
+        try {
+            if (outputFile.getName().endsWith(".bank")) {
+                PuzzleBank.write(outputFile, this.sudokuType, puzzles);
+            } else {
+                List<String> lines = puzzles.stream().map(BatchPuzzleGenerator::toLine).collect(Collectors.toList());
+                Files.write(outputFile.toPath(), lines, StandardCharsets.US_ASCII);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        System.out.printf(
+                "Generated %d %dx%d puzzles (seed %d) in %d ms: %s%n",
+                puzzles.size(),
+                this.sudokuType.getSudokuBoardSize(),
+                this.sudokuType.getSudokuBoardSize(),
+                seed,
+                (System.nanoTime() - startingNanos) / 1_000_000,
+                outputFile
+        );
+        return true;
+    }
+}
@@ -28,6 +28,18 @@ public class Constants {
             Paths.get(System.getProperty("user.dir"), "logs/").toString()
     );
 
+    /**
+     * The file extension of binary log files (XML log files are converted to & from it, see LogConverter).
+     */
+    public static final String BINARY_LOG_FILE_EXTENSION = "binlog";
+
+    /**
+     * The puzzle bank directory ("puzzles" under the root project directory), see {@link gamesforblind.sudoku.PuzzleBank}.
+     */
+    public static final File PUZZLE_BANK_DIRECTORY = new File(
+            Paths.get(System.getProperty("user.dir"), "puzzles/").toString()
+    );
+
     // region Loader Button Text Values
 
     /* The various button text values that are used throughout the loader GUI. */
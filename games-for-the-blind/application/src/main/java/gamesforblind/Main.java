@@ -1,9 +1,11 @@
 package gamesforblind;
 
 import gamesforblind.loader.GameLoader;
+import gamesforblind.logger.LogConverter;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.File;
 
 /**
  * Class contains the sole entry point for the program.
@@ -28,8 +30,30 @@ public class Main {
      * @param args The command line arguments to the program.
      */
     public static void main(String[] args) {
+        ProgramArgs programArgs;
+        try {
+            programArgs = new ProgramArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        // In batch generation mode, just write the puzzles to a file (no GUI or audio).
+        if (programArgs.isBatchGenerationMode()) {
+            boolean success = new BatchPuzzleGenerator(programArgs).generatePuzzles();
+            System.exit(success ? 0 : 1);
+        }
+
+        // In log conversion mode, just convert the log file to the other log format (no GUI or audio).
+        File logFileToConvert = programArgs.getLogFileToConvert();
+        if (logFileToConvert != null) {
+            boolean success = LogConverter.convert(logFileToConvert, programArgs.getConvertedLogFile());
+            System.exit(success ? 0 : 1);
+        }
+
         setUIAttributes();
 
-        new GameLoader(new ProgramArgs(args));
+        new GameLoader(programArgs);
     }
 }
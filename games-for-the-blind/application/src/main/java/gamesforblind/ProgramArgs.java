@@ -1,10 +1,15 @@
 package gamesforblind;
 
 import gamesforblind.enums.InterfaceType;
+import gamesforblind.enums.SudokuDifficulty;
+import gamesforblind.enums.SudokuType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Optional;
 
 /**
  * Class that contains all of the program's various option values. This is used to parse through the
@@ -22,10 +27,69 @@ public class ProgramArgs {
      */
     private final InterfaceType selectedInterfaceType;
 
+    /**
+     * If "-g" was passed (e.g. "-g 9"), the Sudoku type to generate a batch of puzzles for (without any GUI).
+     * Otherwise, null.
+     */
+    @Nullable
+    private final SudokuType batchSudokuType;
+
+    /**
+     * The number of puzzles to generate in batch mode ("-n", 100 by default). The batch options below are only set
+     * in batch generation mode (otherwise, they are 0 or null).
+     */
+    private final int batchPuzzleCount;
+
+    /**
+     * The number of empty cells in each generated puzzle ("-e", a third of the board by default).
+     */
+    private final int batchNumberOfEmptyCells;
+
+    /**
+     * The difficulty of each generated puzzle ("-d", e.g. "-d MEDIUM", can't be combined with "-e"). If null, "-e" is
+     * used instead.
+     */
+    @Nullable
+    private final SudokuDifficulty batchSudokuDifficulty;
+
+    /**
+     * The seed of the batch ("-s", random by default). Every puzzle's seed is derived from it & the puzzle's index.
+     */
+    private final long batchSeed;
+
+    /**
+     * The file that the generated puzzles are written to ("-o" in batch generation mode, e.g. "puzzles-9x9.txt" by
+     * default). Null if the program isn't in batch generation mode.
+     */
+    @Nullable
+    private final File batchOutputFile;
+
+    /**
+     * If "-c" was passed (e.g. "-c logs/game.xml"), the log file to convert to the other log format (without any GUI).
+     * Otherwise, null.
+     */
+    @Nullable
+    private final File logFileToConvert;
+
+    /**
+     * The converted log file ("-o" in log conversion mode, the log file to convert with the other format's extension by
+     * default). Null if the program isn't in log conversion mode.
+     */
+    @Nullable
+    private final File convertedLogFile;
+
+    /**
+     * If "-i" was passed (e.g. "-i 42"), the index of the {@link gamesforblind.sudoku.PuzzleBank} puzzle that the first
+     * Sudoku board is seeded with (so that a known puzzle can be played & played back). Otherwise, null.
+     */
+    @Nullable
+    private final Integer bankPuzzleIndex;
+
     /**
      * Create a new ProgramArgs object.
      *
      * @param args The String arguments that were passed to main().
+     * @throws IllegalArgumentException Thrown when an option has an invalid value (the message explains why).
      */
     public ProgramArgs(@NotNull String[] args) {
         ArrayList<String> argsList = new ArrayList<>(Arrays.asList(args));
@@ -40,6 +104,120 @@ public class ProgramArgs {
         } else {
             this.selectedInterfaceType = InterfaceType.ARROW_KEY_INTERFACE;
         }
+
+        // If the "-g" argument was passed, generate a batch of puzzles for the given board size (e.g. "-g 9").
+        this.batchSudokuType = getArgumentValue(argsList, "-g").map(sudokuBoardSize ->
+                SudokuType.fromSudokuBoardSize(parseInt(sudokuBoardSize, "-g", 1, Integer.MAX_VALUE)).orElseThrow(() ->
+                        new IllegalArgumentException("No Sudoku type with board size " + sudokuBoardSize + " (-g)!")
+                )
+        ).orElse(null);
+
+        // The other batch options only matter in batch generation mode (their defaults depend on the board size).
+        if (this.batchSudokuType != null) {
+            int boardSize = this.batchSudokuType.getSudokuBoardSize();
+            int numberOfSquares = boardSize * boardSize;
+
+            if (getArgumentValue(argsList, "-e").isPresent() && getArgumentValue(argsList, "-d").isPresent()) {
+                throw new IllegalArgumentException("-e & -d cannot be used together (-d decides the empty cells)!");
+            }
+
+            this.batchPuzzleCount = getArgumentValue(argsList, "-n")
+                    .map(count -> parseInt(count, "-n", 1, Integer.MAX_VALUE))
+                    .orElse(100);
+            this.batchNumberOfEmptyCells = getArgumentValue(argsList, "-e")
+                    .map(numberOfEmptyCells -> parseInt(numberOfEmptyCells, "-e", 0, numberOfSquares))
+                    .orElse(numberOfSquares / 3);
+            this.batchSudokuDifficulty = getArgumentValue(argsList, "-d").map(sudokuDifficulty -> {
+                try {
+                    return SudokuDifficulty.valueOf(sudokuDifficulty.toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(
+                            "Expected one of " + Arrays.toString(SudokuDifficulty.values()) + " after -d!", e
+                    );
+                }
+            }).orElse(null);
+            this.batchSeed = getArgumentValue(argsList, "-s")
+                    .map(seed -> parseLong(seed, "-s"))
+                    .orElseGet(System::nanoTime);
+            this.batchOutputFile = new File(getArgumentValue(argsList, "-o")
+                    .orElse(String.format("puzzles-%dx%d.txt", boardSize, boardSize)));
+        } else {
+            this.batchPuzzleCount = 0;
+            this.batchNumberOfEmptyCells = 0;
+            this.batchSudokuDifficulty = null;
+            this.batchSeed = 0;
+            this.batchOutputFile = null;
+        }
+
+        // If the "-c" argument was passed, convert the given XML log file to a binary log file (or the other way).
+        this.logFileToConvert = getArgumentValue(argsList, "-c").map(File::new).orElse(null);
+        if (this.logFileToConvert != null && this.batchSudokuType != null) {
+            throw new IllegalArgumentException("-c & -g cannot be used together (-o would mean two things)!");
+        }
+
+        // "-o" is the converted log file in log conversion mode (& the batch output file in batch generation mode).
+        this.convertedLogFile = (this.logFileToConvert == null) ? null : getArgumentValue(argsList, "-o")
+                .map(File::new)
+                .orElse(null);
+
+        // If the "-i" argument was passed, the first Sudoku board is the puzzle with this index in the puzzle bank.
+        this.bankPuzzleIndex = getArgumentValue(argsList, "-i")
+                .map(bankPuzzleIndex -> parseInt(bankPuzzleIndex, "-i", 0, Integer.MAX_VALUE))
+                .orElse(null);
+        if (this.bankPuzzleIndex != null && this.playbackMode) {
+            throw new IllegalArgumentException("-i & -p cannot be used together (playback boards come from the log)!");
+        }
+    }
+
+    /**
+     * Gets the value that follows an option in the command line arguments (e.g. "-n 500" --> "500").
+     *
+     * @param argsList The String arguments that were passed to main().
+     * @param option   The option to look for (e.g. "-n").
+     * @return The value after the option, or empty() if the option wasn't passed (or has no value).
+     */
+    private static Optional<String> getArgumentValue(@NotNull ArrayList<String> argsList, @NotNull String option) {
+        int optionIndex = argsList.indexOf(option);
+        if (optionIndex < 0 || optionIndex + 1 >= argsList.size()) {
+            return Optional.empty();
+        }
+        return Optional.of(argsList.get(optionIndex + 1));
+    }
+
+    /**
+     * Parses the numeric value of an option.
+     *
+     * @param value  The value that was passed.
+     * @param option The option that the value belongs to (used in the error message).
+     * @return The parsed number.
+     * @throws IllegalArgumentException Thrown when the value isn't a whole number.
+     */
+    private static long parseLong(@NotNull String value, @NotNull String option) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a whole number after " + option + ", but got: " + value, e);
+        }
+    }
+
+    /**
+     * Parses the numeric value of an option that has to be within a range.
+     *
+     * @param value    The value that was passed.
+     * @param option   The option that the value belongs to (used in the error message).
+     * @param minValue The smallest allowed value.
+     * @param maxValue The largest allowed value.
+     * @return The parsed number.
+     * @throws IllegalArgumentException Thrown when the value isn't a whole number within the range.
+     */
+    private static int parseInt(@NotNull String value, @NotNull String option, int minValue, int maxValue) {
+        long number = parseLong(value, option);
+        if (number < minValue || number > maxValue) {
+            throw new IllegalArgumentException(String.format(
+                    "Expected a number from %d to %d after %s, but got: %s", minValue, maxValue, option, value
+            ));
+        }
+        return (int) number;
     }
 
     /**
@@ -59,4 +237,100 @@ public class ProgramArgs {
     public InterfaceType getSelectedInterfaceType() {
         return this.selectedInterfaceType;
     }
+
+    /**
+     * Checks if the program should generate a batch of puzzles instead of opening the GUI.
+     *
+     * @return true if the "-g" argument was passed (otherwise, false).
+     */
+    public boolean isBatchGenerationMode() {
+        return this.batchSudokuType != null;
+    }
+
+    /**
+     * Getter for batchSudokuType
+     *
+     * @return The Sudoku type to generate puzzles for (null if the program isn't in batch generation mode).
+     */
+    @Nullable
+    public SudokuType getBatchSudokuType() {
+        return this.batchSudokuType;
+    }
+
+    /**
+     * Getter for batchPuzzleCount
+     *
+     * @return The number of puzzles to generate in batch mode.
+     */
+    public int getBatchPuzzleCount() {
+        return this.batchPuzzleCount;
+    }
+
+    /**
+     * Getter for batchNumberOfEmptyCells
+     *
+     * @return The number of empty cells in each generated puzzle.
+     */
+    public int getBatchNumberOfEmptyCells() {
+        return this.batchNumberOfEmptyCells;
+    }
+
+    /**
+     * Getter for batchSudokuDifficulty
+     *
+     * @return The difficulty of each generated puzzle (null if the number of empty cells should be used instead).
+     */
+    @Nullable
+    public SudokuDifficulty getBatchSudokuDifficulty() {
+        return this.batchSudokuDifficulty;
+    }
+
+    /**
+     * Getter for batchSeed
+     *
+     * @return The seed of the batch.
+     */
+    public long getBatchSeed() {
+        return this.batchSeed;
+    }
+
+    /**
+     * Getter for batchOutputFile
+     *
+     * @return The file that the generated puzzles are written to (null if the program isn't in batch generation mode).
+     */
+    @Nullable
+    public File getBatchOutputFile() {
+        return this.batchOutputFile;
+    }
+
+    /**
+     * Getter for logFileToConvert
+     *
+     * @return The log file to convert (null if the program isn't in log conversion mode).
+     */
+    @Nullable
+    public File getLogFileToConvert() {
+        return this.logFileToConvert;
+    }
+
+    /**
+     * Getter for convertedLogFile
+     *
+     * @return The converted log file (null if the default path should be used).
+     */
+    @Nullable
+    public File getConvertedLogFile() {
+        return this.convertedLogFile;
+    }
+
+    /**
+     * Getter for bankPuzzleIndex
+     *
+     * @return The index of the puzzle bank puzzle for the first Sudoku board (null if the pool should pick it).
+     */
+    @Nullable
+    public Integer getBankPuzzleIndex() {
+        return this.bankPuzzleIndex;
+    }
 }
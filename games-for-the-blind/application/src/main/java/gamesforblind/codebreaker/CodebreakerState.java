@@ -233,6 +233,71 @@ public class CodebreakerState {
 
                 break;
         }
+
+        this.prefetchPhrasesAroundSelectedCell();
+    }
+
+    /**
+     * Gets the number in a cell of the board (a submitted guess or the current guess).
+     *
+     * @param cellPoint The location of the cell (x is the position in the code, y is the row).
+     * @return The number in the cell (0 if the cell is still empty).
+     */
+    private int getCellValue(@NotNull Point cellPoint) {
+        if (cellPoint.y < this.guessList.size()) {
+            return this.guessList.get(cellPoint.y).getGuessedCode()[cellPoint.x];
+        }
+
+        final Integer maybeGuessNumber = (cellPoint.y == this.guessList.size()) ? this.currentGuess[cellPoint.x] : null;
+        return (maybeGuessNumber == null) ? 0 : maybeGuessNumber;
+    }
+
+    /**
+     * Lets the audio player decode the Phrases that the next move will probably read: the numbers & locations of the
+     * neighboring cells, the boundary Phrases & the read back of the selected row. The locations below the ninth row
+     * aren't pinned by the audio player, so without this they would be read from disk when they are spoken.
+     */
+    private void prefetchPhrasesAroundSelectedCell() {
+        final int lastColumn = this.codebreakerType.getCodeLength() - 1;
+        final int lastRow = Math.min(this.codebreakerType.getNumberOfRows() - 1, this.guessList.size());
+        final Set<Phrase> phrasesToPrefetch = new LinkedHashSet<>();
+
+        // The neighbor in every arrow key direction (left, right, up & down).
+        final int[][] offsets = new int[][]{{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+        for (int[] offset : offsets) {
+            final Point neighbor = new Point(this.selectedCellPoint);
+            neighbor.translate(offset[0], offset[1]);
+            if (neighbor.x < 0 || neighbor.x > lastColumn || neighbor.y < 0 || neighbor.y > lastRow) {
+                continue;
+            }
+
+            phrasesToPrefetch.add(Phrase.convertIntegerToPhrase(this.getCellValue(neighbor), true));
+            phrasesToPrefetch.add(Phrase.convertPointToLocationPhrase(neighbor));
+
+            if (neighbor.x == 0) {
+                phrasesToPrefetch.add(Phrase.GENERAL_FIRST_COLUMN);
+            } else if (neighbor.x == lastColumn) {
+                phrasesToPrefetch.add(Phrase.GENERAL_LAST_COLUMN);
+            }
+            if (neighbor.y == 0) {
+                phrasesToPrefetch.add(Phrase.GENERAL_FIRST_ROW);
+            } else if (neighbor.y == this.codebreakerType.getNumberOfRows() - 1) {
+                phrasesToPrefetch.add(Phrase.GENERAL_LAST_ROW);
+            }
+        }
+
+        // The read back of the selected row (see readBackRow()).
+        phrasesToPrefetch.add(Phrase.convertIntegerToPhrase(this.selectedCellPoint.y + 1, true));
+        if (this.selectedCellPoint.y < this.guessList.size()) {
+            phrasesToPrefetch.addAll(asList(
+                    Phrase.CODEBREAKER_GUESS_NUMBER, Phrase.CODEBREAKER_CODE_GUESSED,
+                    Phrase.CODEBREAKER_BLACK_PEGS, Phrase.CODEBREAKER_RED_PEGS
+            ));
+        } else {
+            phrasesToPrefetch.addAll(asList(Phrase.CODEBREAKER_ROW, Phrase.CODEBREAKER_GUESS_SO_FAR));
+        }
+
+        this.audioPlayerExecutor.prefetchPhrases(new ArrayList<>(phrasesToPrefetch));
     }
 
     /**
@@ -4,10 +4,28 @@ import gamesforblind.ProgramAction;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlSeeAlso;
 
 /**
  * The abstract class that all actions in the Codebreaker game inherit from.
+ * Every action has to be listed in @XmlSeeAlso, so that it can be logged (see the logger's JAXBContext), & needs
+ * a format in the logger's BinaryLogFormat (BinaryLogTest checks that every listed action has one).
  */
+@XmlSeeAlso({
+        CodebreakerArrowKeyAction.class,
+        CodebreakerExitAction.class,
+        CodebreakerHintKeyAction.class,
+        CodebreakerInstructionsAction.class,
+        CodebreakerLocationAction.class,
+        CodebreakerMainMenuAction.class,
+        CodebreakerMouseAction.class,
+        CodebreakerReadBackAction.class,
+        CodebreakerRestartAction.class,
+        CodebreakerSetGuessAction.class,
+        CodebreakerSetSingleNumberAction.class,
+        CodebreakerStopReadingAction.class,
+        CodebreakerUnrecognizedKeyAction.class
+})
 @XmlAccessorType(XmlAccessType.NONE)
 public abstract class CodebreakerAction extends ProgramAction {
 }
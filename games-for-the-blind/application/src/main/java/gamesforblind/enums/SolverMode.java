@@ -0,0 +1,12 @@
+package gamesforblind.enums;
+
+/**
+ * Enumeration for the different search orders that the Sudoku solver supports.
+ */
+public enum SolverMode {
+    // Fills the empty squares in row-major order (the original backtracking behavior).
+    ROW_MAJOR,
+    // Fills in all forced squares (naked singles) first & then always branches on the
+    // empty square with the fewest remaining candidates. Much faster on sparse or hard boards.
+    MOST_CONSTRAINED_CELL
+}
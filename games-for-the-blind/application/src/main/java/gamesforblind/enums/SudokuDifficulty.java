@@ -0,0 +1,18 @@
+package gamesforblind.enums;
+
+/**
+ * Enumeration for the difficulty of a Sudoku puzzle, based on the hardest {@link SudokuTechnique}
+ * that a human player needs to solve it (from easiest to hardest).
+ */
+public enum SudokuDifficulty {
+    // Can be solved with naked & hidden singles only.
+    EASY,
+    // Also needs naked pairs.
+    MEDIUM,
+    // Also needs pointing (a value in a box is confined to one row or column).
+    HARD,
+    // Also needs X-wings.
+    EXPERT,
+    // Can't be solved with the supported techniques (the player has to guess or use harder techniques).
+    BEYOND_TECHNIQUES
+}
@@ -0,0 +1,39 @@
+package gamesforblind.enums;
+
+/**
+ * Enumeration for the solving techniques that a human player uses (ordered by difficulty).
+ */
+public enum SudokuTechnique {
+    // A square with only one remaining candidate.
+    NAKED_SINGLE(SudokuDifficulty.EASY),
+    // A value that fits in only one square of a row, column or box.
+    HIDDEN_SINGLE(SudokuDifficulty.EASY),
+    // Two squares of a row, column or box with the same two candidates, which are removed from the other squares.
+    NAKED_PAIR(SudokuDifficulty.MEDIUM),
+    // A value that is confined to one row or column of a box, so it is removed from the rest of that row or column.
+    POINTING(SudokuDifficulty.HARD),
+    // A value that is confined to the same two columns in two rows (or vice versa), so it is removed
+    // from the rest of those columns (or rows).
+    X_WING(SudokuDifficulty.EXPERT);
+
+    /**
+     * The difficulty of a puzzle that needs this technique.
+     */
+    private final SudokuDifficulty sudokuDifficulty;
+
+    /**
+     * Creates a new SudokuTechnique.
+     *
+     * @param sudokuDifficulty The difficulty of a puzzle that needs this technique.
+     */
+    SudokuTechnique(SudokuDifficulty sudokuDifficulty) {
+        this.sudokuDifficulty = sudokuDifficulty;
+    }
+
+    /**
+     * @return The difficulty of a puzzle that needs this technique.
+     */
+    public SudokuDifficulty getSudokuDifficulty() {
+        return this.sudokuDifficulty;
+    }
+}
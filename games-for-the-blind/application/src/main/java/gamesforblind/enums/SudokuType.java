@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Enumeration for the different types of Sudoku that are supported in the game (e.g. 4x4 and 9x9).
@@ -59,6 +60,18 @@ public enum SudokuType {
         this.supportedSudokuInterfaces = supportedInterfaces;
     }
 
+    /**
+     * Gets the SudokuType that has the given board size.
+     *
+     * @param sudokuBoardSize The overall dimension of the Sudoku board (e.g. 9x9 --> 9).
+     * @return The matching SudokuType, or empty() if no SudokuType has this board size.
+     */
+    public static Optional<SudokuType> fromSudokuBoardSize(int sudokuBoardSize) {
+        return Arrays.stream(values())
+                .filter(sudokuType -> sudokuType.sudokuBoardSize == sudokuBoardSize)
+                .findFirst();
+    }
+
     /**
      * @return The number of columns in each block.
      */
@@ -17,6 +17,7 @@ import gamesforblind.logger.LogFactory;
 import gamesforblind.logger.LogReader;
 import gamesforblind.logger.LogWriter;
 import gamesforblind.sudoku.SudokuGame;
+import gamesforblind.sudoku.SudokuPuzzlePool;
 import gamesforblind.sudoku.action.SudokuAction;
 import gamesforblind.synthesizer.AudioPlayer;
 import gamesforblind.synthesizer.AudioPlayerExecutor;
@@ -24,6 +25,7 @@ import org.jetbrains.annotations.NotNull;
 import phrase.Phrase;
 
 import javax.sound.sampled.LineUnavailableException;
+import java.io.IOException;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 
@@ -50,6 +52,11 @@ public class GameLoader {
 
     private final ProgramArgs programArgs;
 
+    /**
+     * Pre-generates the Sudoku boards in the background (null in playback mode, since the boards come from the log).
+     */
+    private final SudokuPuzzlePool sudokuPuzzlePool;
+
     private LoaderFrame loaderFrame;
     private SudokuGame sudokuGame;
     private CodebreakerGame codebreakerGame;
@@ -68,6 +75,9 @@ public class GameLoader {
 
         this.programArgs = programArgs;
         this.logFactory = this.initializeLogFactory();
+        this.sudokuPuzzlePool = this.programArgs.isPlaybackMode()
+                ? null
+                : new SudokuPuzzlePool(this.programArgs.getBankPuzzleIndex());
 
         this.openLoaderInterface();
 
@@ -91,9 +101,24 @@ public class GameLoader {
      * Enables realtime playback functionality for Sudoku.
      */
     private void loopThroughSavedProgramActions() {
-        ArrayList<ProgramAction> programActions = this.logFactory.getProgramActionList();
-        for (int i = 0; i < programActions.size(); i++) {
-            ProgramAction currentAction = programActions.get(i);
+        // The actions are read from the log file one at a time, so playback starts right away.
+        Iterator<ProgramAction> programActions = this.logFactory.getProgramActions();
+        ProgramAction previousAction = null;
+        while (programActions.hasNext()) {
+            ProgramAction currentAction = programActions.next();
+
+            /* Sleep for the duration between the previous action & the current action. */
+            if (previousAction != null) {
+                long millisToSleep = ChronoUnit.MILLIS.between(
+                        previousAction.getLocalDateTime(), currentAction.getLocalDateTime()
+                );
+
+                try {
+                    Thread.sleep(Math.max(0, millisToSleep));
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
 
             final Map<Class<? extends ProgramAction>, Runnable> ACTION_TO_RUNNABLE = map(
                     entry(LoaderAction.class, () -> this.receiveAction((LoaderAction) currentAction)),
@@ -106,34 +131,25 @@ public class GameLoader {
                 functionToExecute.run();
             }
 
-            // If we are on the last iteration/action, then no need to sleep anymore.
-            if (i == programActions.size() - 1) {
-                break;
-            }
-
-            /* Sleep for the duration between the current action & the next action. */
-            ProgramAction nextAction = programActions.get(i + 1);
-            long millisToSleep = ChronoUnit.MILLIS.between(
-                    currentAction.getLocalDateTime(), nextAction.getLocalDateTime()
-            );
-
-            try {
-                Thread.sleep(millisToSleep);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
+            previousAction = currentAction;
         }
     }
 
     /**
-     * Get a new {@link LogFactory} object if the program isn't in playback mode. Otherwise, trigger
-     * the log file selection GUI & initialize the LogFactory with the contents of this XML file.
+     * Get a new {@link LogFactory} object that journals to a new log file if the program isn't in playback mode.
+     * Otherwise, trigger the log file selection GUI & initialize the LogFactory with the contents of this XML file.
      *
      * @return The initialized {@link LogFactory} object.
      */
     private LogFactory initializeLogFactory() {
         if (!this.programArgs.isPlaybackMode()) {
-            return new LogFactory();
+            try {
+                return new LogFactory(new LogWriter());
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.err.println("Could not create the log file, the actions in the game won't be logged!");
+                return new LogFactory();
+            }
         }
 
         LogFileSelectionGui logFileSelectionGui = new LogFileSelectionGui();
@@ -278,7 +294,7 @@ public class GameLoader {
 
         this.loaderFrame.closeLoaderFrames();
         this.sudokuGame = new SudokuGame(
-                this, sudokuType, this.audioPlayerExecutor, this.logFactory, this.programArgs
+                this, sudokuType, this.audioPlayerExecutor, this.logFactory, this.programArgs, this.sudokuPuzzlePool
         );
     }
 
@@ -317,8 +333,8 @@ public class GameLoader {
 
         this.audioPlayerExecutor.terminateAudioPlayer();
 
-        LogWriter logWriter = new LogWriter(this.logFactory);
-        logWriter.saveGameLog();
+        // The actions were journaled as they happened, so only the end of the log file is left to write.
+        this.logFactory.closeLog();
 
         // Wait for the audio player thread to end.
         try {
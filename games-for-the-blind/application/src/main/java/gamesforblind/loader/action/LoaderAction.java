@@ -4,10 +4,22 @@ import gamesforblind.ProgramAction;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlSeeAlso;
 
 /**
  * The abstract class that all actions in the loader inherit from.
+ * Every action has to be listed in @XmlSeeAlso, so that it can be logged (see the logger's JAXBContext), & needs
+ * a format in the logger's BinaryLogFormat (BinaryLogTest checks that every listed action has one).
  */
+@XmlSeeAlso({
+        LoaderArrowKeyAction.class,
+        LoaderCodebreakerSelectionAction.class,
+        LoaderExitAction.class,
+        LoaderGameSelectionAction.class,
+        LoaderStopReadingAction.class,
+        LoaderSudokuSelectionAction.class,
+        LoaderUnrecognizedKeyAction.class
+})
 @XmlAccessorType(XmlAccessType.NONE)
 public abstract class LoaderAction extends ProgramAction {
 }
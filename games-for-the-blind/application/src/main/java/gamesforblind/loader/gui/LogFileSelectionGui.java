@@ -6,8 +6,10 @@ import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.util.Optional;
 
+import static gamesforblind.Constants.BINARY_LOG_FILE_EXTENSION;
+
 /**
- * Opens a GUI window that allows a user to select a XML log file to load.
+ * Opens a GUI window that allows a user to select a XML (or binary) log file to load.
  */
 public class LogFileSelectionGui extends JFrame {
     /**
@@ -35,8 +37,10 @@ public class LogFileSelectionGui extends JFrame {
         // Log files are likely in the same directory as the overall project.
         JFileChooser fileChooser = new JFileChooser(System.getProperty("user.dir"));
 
-        // Only want to allow the user to select XML files.
-        fileChooser.setFileFilter(new FileNameExtensionFilter("XML Files: *.xml", "xml"));
+        // Only want to allow the user to select XML or binary log files.
+        fileChooser.setFileFilter(new FileNameExtensionFilter(
+                "Log Files: *.xml, *." + BINARY_LOG_FILE_EXTENSION, "xml", BINARY_LOG_FILE_EXTENSION
+        ));
 
         fileChooser.setDialogTitle("Please choose a log file to open.");
 
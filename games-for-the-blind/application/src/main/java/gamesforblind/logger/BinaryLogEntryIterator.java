@@ -0,0 +1,169 @@
+package gamesforblind.logger;
+
+import gamesforblind.ProgramAction;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the entries of a binary log file one at a time (see {@link BinaryLogFormat}), so that a log of any size is
+ * read in constant memory. Only the entries of the given class are returned. The log file is closed as soon as the
+ * last entry was read.
+ * <p>
+ * A log file that ends early (e.g. one that was cut off while it was copied) is read up to the last complete entry.
+ *
+ * @param <T> The class of the entries to return.
+ */
+final class BinaryLogEntryIterator<T> implements Iterator<T>, Closeable {
+    /**
+     * The log file that is read.
+     */
+    private final DataInputStream logInputStream;
+
+    /**
+     * The class of the entries to return.
+     */
+    private final Class<T> entryClass;
+
+    /**
+     * When the previously read action took place (in nanoseconds since the epoch, 0 before the first action).
+     * Actions store the time since the previous action, so every action is read (even if it isn't returned).
+     */
+    private long previousActionNanos;
+
+    /**
+     * The entry that next() returns (null if it wasn't read yet or there are no entries left).
+     */
+    private T nextEntry;
+
+    /**
+     * Why the iterator stopped at an incomplete or invalid entry (null if it didn't).
+     */
+    private Exception readError;
+
+    /**
+     * Set to true once the log file is closed (no entries are left).
+     */
+    private boolean isClosed;
+
+    /**
+     * Creates a new BinaryLogEntryIterator.
+     *
+     * @param logFile    The log file to read.
+     * @param entryClass The class of the entries to return.
+     * @throws IOException Thrown when the log file cannot be opened, or it's not a binary log file.
+     */
+    BinaryLogEntryIterator(@NotNull File logFile, @NotNull Class<T> entryClass) throws IOException {
+        this.logInputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(logFile)));
+        try {
+            BinaryLogFormat.readHeader(this.logInputStream);
+        } catch (IOException e) {
+            this.logInputStream.close();
+            throw new IOException("Could not read the log file: " + logFile, e);
+        }
+
+        this.entryClass = entryClass;
+    }
+
+    /**
+     * Reads up to the next entry of the entryClass.
+     *
+     * @return The next entry, or null if there are no entries left.
+     * @throws IOException Thrown when the log file cannot be read (e.g. when it ends in the middle of an entry).
+     */
+    private T readNextEntry() throws IOException {
+        while (true) {
+            // The end of the log file is only expected between entries.
+            int firstTagByte = this.logInputStream.read();
+            if (firstTagByte < 0) {
+                return null;
+            }
+
+            Object entry;
+            long tag = BinaryLogFormat.readVarint(this.logInputStream, firstTagByte);
+            if (tag == BinaryLogFormat.ORIGINAL_GRID_TAG) {
+                entry = BinaryLogFormat.readOriginalSudokuGrid(this.logInputStream);
+            } else {
+                ProgramAction programAction = BinaryLogFormat.readProgramAction(
+                        this.logInputStream, tag, this.previousActionNanos
+                );
+                this.previousActionNanos = BinaryLogFormat.toEpochNanos(programAction.getLocalDateTime());
+                entry = programAction;
+            }
+
+            if (this.entryClass.isInstance(entry)) {
+                return this.entryClass.cast(entry);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.nextEntry != null) {
+            return true;
+        }
+        if (this.isClosed) {
+            return false;
+        }
+
+        try {
+            this.nextEntry = this.readNextEntry();
+        } catch (IOException e) {
+            System.err.println("Stopped reading the log file at an incomplete or invalid entry: " + e);
+            this.readError = e;
+        }
+
+        if (this.nextEntry == null) {
+            this.close();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException("There are no entries left in the log file!");
+        }
+
+        T entry = this.nextEntry;
+        this.nextEntry = null;
+        return entry;
+    }
+
+    /**
+     * Throws if the iterator stopped at an incomplete or invalid entry, instead of at the end of the log file
+     * (for where a lost entry must not go unnoticed, e.g. {@link LogConverter}).
+     *
+     * @throws IOException Thrown when the iterator stopped early (caused by the error that stopped it).
+     */
+    void throwIfStoppedEarly() throws IOException {
+        if (this.readError != null) {
+            throw new IOException("The log file ends early or has an invalid entry!", this.readError);
+        }
+    }
+
+    /**
+     * Closes the log file (the remaining entries aren't read).
+     */
+    @Override
+    public void close() {
+        if (this.isClosed) {
+            return;
+        }
+        this.isClosed = true;
+
+        try {
+            this.logInputStream.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
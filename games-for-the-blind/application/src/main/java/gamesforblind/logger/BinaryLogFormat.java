@@ -0,0 +1,664 @@
+package gamesforblind.logger;
+
+import gamesforblind.ProgramAction;
+import gamesforblind.codebreaker.action.CodebreakerArrowKeyAction;
+import gamesforblind.codebreaker.action.CodebreakerExitAction;
+import gamesforblind.codebreaker.action.CodebreakerHintKeyAction;
+import gamesforblind.codebreaker.action.CodebreakerInstructionsAction;
+import gamesforblind.codebreaker.action.CodebreakerLocationAction;
+import gamesforblind.codebreaker.action.CodebreakerMainMenuAction;
+import gamesforblind.codebreaker.action.CodebreakerMouseAction;
+import gamesforblind.codebreaker.action.CodebreakerReadBackAction;
+import gamesforblind.codebreaker.action.CodebreakerRestartAction;
+import gamesforblind.codebreaker.action.CodebreakerSetGuessAction;
+import gamesforblind.codebreaker.action.CodebreakerSetSingleNumberAction;
+import gamesforblind.codebreaker.action.CodebreakerStopReadingAction;
+import gamesforblind.codebreaker.action.CodebreakerUnrecognizedKeyAction;
+import gamesforblind.enums.ArrowKeyDirection;
+import gamesforblind.enums.CodebreakerType;
+import gamesforblind.enums.InputType;
+import gamesforblind.enums.SelectedGame;
+import gamesforblind.enums.SudokuSection;
+import gamesforblind.enums.SudokuType;
+import gamesforblind.loader.action.LoaderArrowKeyAction;
+import gamesforblind.loader.action.LoaderCodebreakerSelectionAction;
+import gamesforblind.loader.action.LoaderExitAction;
+import gamesforblind.loader.action.LoaderGameSelectionAction;
+import gamesforblind.loader.action.LoaderStopReadingAction;
+import gamesforblind.loader.action.LoaderSudokuSelectionAction;
+import gamesforblind.loader.action.LoaderUnrecognizedKeyAction;
+import gamesforblind.sudoku.OriginalSudokuGrid;
+import gamesforblind.sudoku.action.SudokuExitAction;
+import gamesforblind.sudoku.action.SudokuFillAction;
+import gamesforblind.sudoku.action.SudokuHighlightAction;
+import gamesforblind.sudoku.action.SudokuHintKeyAction;
+import gamesforblind.sudoku.action.SudokuHotKeyAction;
+import gamesforblind.sudoku.action.SudokuInstructionsAction;
+import gamesforblind.sudoku.action.SudokuLocationAction;
+import gamesforblind.sudoku.action.SudokuMainMenuAction;
+import gamesforblind.sudoku.action.SudokuReadPositionAction;
+import gamesforblind.sudoku.action.SudokuReadRemainingAction;
+import gamesforblind.sudoku.action.SudokuRestartAction;
+import gamesforblind.sudoku.action.SudokuStopReadingAction;
+import gamesforblind.sudoku.action.SudokuUnrecognizedKeyAction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The binary log format, a compact alternative to the XML log format (see {@link LogConverter}).
+ * <p>
+ * A binary log file starts with the MAGIC bytes & the format VERSION, followed by the entries in the order they were
+ * logged. Every entry starts with its tag (a varint): ORIGINAL_GRID_TAG for an {@link OriginalSudokuGrid}, or the
+ * tag of the action's class in ACTION_FORMATS. An action's tag is followed by the time that passed since the previous
+ * action (a zigzag varint, in nanoseconds; the first action stores the time since the epoch) & its packed payload
+ * fields. A board stores its size, whether its solution was logged, & then the squares two to a byte (one per nibble).
+ * <p>
+ * A varint stores 7 bits per byte (least significant group first) & sets the top bit of every byte but the last.
+ */
+final class BinaryLogFormat {
+    /**
+     * The bytes that every binary log file starts with ("GFBL").
+     */
+    static final byte[] MAGIC = {'G', 'F', 'B', 'L'};
+
+    /**
+     * The version of the binary log format (stored right after the MAGIC bytes).
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The tag of an {@link OriginalSudokuGrid} entry.
+     */
+    static final int ORIGINAL_GRID_TAG = 0;
+
+    /**
+     * The largest value that a square can hold (it has to fit in a nibble).
+     */
+    private static final int MAX_SQUARE_VALUE = 0xF;
+
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * The (final) field of a {@link ProgramAction} that holds when the action took place.
+     */
+    private static final Field LOCAL_DATE_TIME_FIELD = getLocalDateTimeField();
+
+    /**
+     * The payload writer & reader of every action class. The tag of an action class is its index in this list + 1.
+     * Warning: new action classes have to be added to the END of this list (& enum constants to the end of their
+     * enum), since the tags & the ordinals are stored in the binary log files. Every action class in the @XmlSeeAlso
+     * lists of the abstract action classes needs a format here (BinaryLogTest checks this).
+     */
+    private static final List<ActionFormat<?>> ACTION_FORMATS = Arrays.asList(
+            // Loader actions.
+            new ActionFormat<>(LoaderArrowKeyAction.class,
+                    (action, out) -> writeEnum(out, action.getArrowKeyDirection()),
+                    in -> new LoaderArrowKeyAction(readEnum(in, ArrowKeyDirection.values()))),
+            new ActionFormat<>(LoaderCodebreakerSelectionAction.class,
+                    (action, out) -> writeEnum(out, action.getCodebreakerType()),
+                    in -> new LoaderCodebreakerSelectionAction(readEnum(in, CodebreakerType.values()))),
+            ActionFormat.withoutPayload(LoaderExitAction.class, LoaderExitAction::new),
+            new ActionFormat<>(LoaderGameSelectionAction.class,
+                    (action, out) -> writeEnum(out, action.getSelectedGame()),
+                    in -> new LoaderGameSelectionAction(readEnum(in, SelectedGame.values()))),
+            ActionFormat.withoutPayload(LoaderStopReadingAction.class, LoaderStopReadingAction::new),
+            new ActionFormat<>(LoaderSudokuSelectionAction.class,
+                    (action, out) -> writeEnum(out, action.getSudokuType()),
+                    in -> new LoaderSudokuSelectionAction(readEnum(in, SudokuType.values()))),
+            new ActionFormat<>(LoaderUnrecognizedKeyAction.class,
+                    (action, out) -> writeZigZagVarint(out, action.getKeyCode()),
+                    in -> new LoaderUnrecognizedKeyAction((int) readZigZagVarint(in))),
+
+            // Sudoku actions.
+            ActionFormat.withoutPayload(SudokuExitAction.class, SudokuExitAction::new),
+            new ActionFormat<>(SudokuFillAction.class,
+                    (action, out) -> writeZigZagVarint(out, action.getNumberToFill()),
+                    in -> new SudokuFillAction((int) readZigZagVarint(in))),
+            new ActionFormat<>(SudokuHighlightAction.class,
+                    (action, out) -> {
+                        writePoint(out, action.getPointToHighlight());
+                        writeEnum(out, action.getInputType());
+                    },
+                    in -> new SudokuHighlightAction(readPoint(in), readEnum(in, InputType.values()))),
+            ActionFormat.withoutPayload(SudokuHintKeyAction.class, SudokuHintKeyAction::new),
+            new ActionFormat<>(SudokuHotKeyAction.class,
+                    (action, out) -> writeEnum(out, action.getArrowKeyDirection()),
+                    in -> new SudokuHotKeyAction(readEnum(in, ArrowKeyDirection.values()))),
+            ActionFormat.withoutPayload(SudokuInstructionsAction.class, SudokuInstructionsAction::new),
+            ActionFormat.withoutPayload(SudokuLocationAction.class, SudokuLocationAction::new),
+            ActionFormat.withoutPayload(SudokuMainMenuAction.class, SudokuMainMenuAction::new),
+            new ActionFormat<>(SudokuReadPositionAction.class,
+                    (action, out) -> writeEnum(out, action.getSudokuSection()),
+                    in -> new SudokuReadPositionAction(readEnum(in, SudokuSection.values()))),
+            ActionFormat.withoutPayload(SudokuReadRemainingAction.class, SudokuReadRemainingAction::new),
+            ActionFormat.withoutPayload(SudokuRestartAction.class, SudokuRestartAction::new),
+            ActionFormat.withoutPayload(SudokuStopReadingAction.class, SudokuStopReadingAction::new),
+            new ActionFormat<>(SudokuUnrecognizedKeyAction.class,
+                    (action, out) -> writeZigZagVarint(out, action.getKeyCode()),
+                    in -> new SudokuUnrecognizedKeyAction((int) readZigZagVarint(in))),
+
+            // Codebreaker actions.
+            new ActionFormat<>(CodebreakerArrowKeyAction.class,
+                    (action, out) -> writeEnum(out, action.getArrowKeyDirection()),
+                    in -> new CodebreakerArrowKeyAction(readEnum(in, ArrowKeyDirection.values()))),
+            ActionFormat.withoutPayload(CodebreakerExitAction.class, CodebreakerExitAction::new),
+            ActionFormat.withoutPayload(CodebreakerHintKeyAction.class, CodebreakerHintKeyAction::new),
+            ActionFormat.withoutPayload(CodebreakerInstructionsAction.class, CodebreakerInstructionsAction::new),
+            ActionFormat.withoutPayload(CodebreakerLocationAction.class, CodebreakerLocationAction::new),
+            ActionFormat.withoutPayload(CodebreakerMainMenuAction.class, CodebreakerMainMenuAction::new),
+            new ActionFormat<>(CodebreakerMouseAction.class,
+                    (action, out) -> writePoint(out, action.getSelectedPoint()),
+                    in -> new CodebreakerMouseAction(readPoint(in))),
+            ActionFormat.withoutPayload(CodebreakerReadBackAction.class, CodebreakerReadBackAction::new),
+            ActionFormat.withoutPayload(CodebreakerRestartAction.class, CodebreakerRestartAction::new),
+            ActionFormat.withoutPayload(CodebreakerSetGuessAction.class, CodebreakerSetGuessAction::new),
+            new ActionFormat<>(CodebreakerSetSingleNumberAction.class,
+                    (action, out) -> writeZigZagVarint(out, action.getNumberToSet()),
+                    in -> new CodebreakerSetSingleNumberAction((int) readZigZagVarint(in))),
+            ActionFormat.withoutPayload(CodebreakerStopReadingAction.class, CodebreakerStopReadingAction::new),
+            new ActionFormat<>(CodebreakerUnrecognizedKeyAction.class,
+                    (action, out) -> writeZigZagVarint(out, action.getKeyCode()),
+                    in -> new CodebreakerUnrecognizedKeyAction((int) readZigZagVarint(in)))
+    );
+
+    /**
+     * Maps every action class to its tag (built from ACTION_FORMATS).
+     */
+    private static final Map<Class<?>, Integer> ACTION_CLASS_TO_TAG = new HashMap<>();
+
+    static {
+        for (int i = 0; i < ACTION_FORMATS.size(); i++) {
+            ACTION_CLASS_TO_TAG.put(ACTION_FORMATS.get(i).actionClass, i + 1);
+        }
+    }
+
+    private BinaryLogFormat() {
+    }
+
+    /**
+     * Gets the field of a {@link ProgramAction} that holds when the action took place (made accessible).
+     *
+     * @return The localDateTime field of {@link ProgramAction}.
+     */
+    private static Field getLocalDateTimeField() {
+        try {
+            Field localDateTimeField = ProgramAction.class.getDeclaredField("localDateTime");
+            localDateTimeField.setAccessible(true);
+            return localDateTimeField;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("ProgramAction has no localDateTime field!", e);
+        }
+    }
+
+    /**
+     * Writes the payload fields of an action.
+     *
+     * @param <A> The class of the action.
+     */
+    @FunctionalInterface
+    private interface PayloadWriter<A extends ProgramAction> {
+        void write(@NotNull A action, @NotNull DataOutput out) throws IOException;
+    }
+
+    /**
+     * Reads the payload fields of an action & creates the action.
+     *
+     * @param <A> The class of the action.
+     */
+    @FunctionalInterface
+    private interface PayloadReader<A extends ProgramAction> {
+        A read(@NotNull DataInput in) throws IOException;
+    }
+
+    /**
+     * Holds how the payload of an action class is written & read.
+     *
+     * @param <A> The class of the action.
+     */
+    private static final class ActionFormat<A extends ProgramAction> {
+        /**
+         * The class of the action.
+         */
+        private final Class<A> actionClass;
+
+        /**
+         * Writes the payload fields of an action of the class.
+         */
+        private final PayloadWriter<A> payloadWriter;
+
+        /**
+         * Reads the payload fields of an action of the class (& creates the action).
+         */
+        private final PayloadReader<A> payloadReader;
+
+        private ActionFormat(
+                @NotNull Class<A> actionClass,
+                @NotNull PayloadWriter<A> payloadWriter,
+                @NotNull PayloadReader<A> payloadReader
+        ) {
+            this.actionClass = actionClass;
+            this.payloadWriter = payloadWriter;
+            this.payloadReader = payloadReader;
+        }
+
+        /**
+         * Creates the ActionFormat of an action class that has no payload fields.
+         *
+         * @param actionClass       The class of the action.
+         * @param actionConstructor Creates a new action of the class.
+         * @param <A>               The class of the action.
+         * @return The ActionFormat of the action class.
+         */
+        private static <A extends ProgramAction> ActionFormat<A> withoutPayload(
+                @NotNull Class<A> actionClass, @NotNull Supplier<A> actionConstructor
+        ) {
+            return new ActionFormat<>(actionClass, (action, out) -> { }, in -> actionConstructor.get());
+        }
+
+        /**
+         * Writes the payload fields of an action of this class.
+         *
+         * @param action The action to write.
+         * @param out    Where the payload is written to.
+         * @throws IOException Thrown when the payload cannot be written.
+         */
+        private void writePayload(@NotNull ProgramAction action, @NotNull DataOutput out) throws IOException {
+            this.payloadWriter.write(this.actionClass.cast(action), out);
+        }
+    }
+
+    /**
+     * Checks if a file is a binary log file (it starts with the MAGIC bytes).
+     *
+     * @param logFile The file to check.
+     * @return true if the file is a binary log file (otherwise, false).
+     */
+    static boolean isBinaryLogFile(@NotNull File logFile) {
+        try (InputStream logInputStream = new FileInputStream(logFile)) {
+            byte[] firstBytes = new byte[MAGIC.length];
+            int numberOfBytesRead = 0;
+            while (numberOfBytesRead < firstBytes.length) {
+                int count = logInputStream.read(firstBytes, numberOfBytesRead, firstBytes.length - numberOfBytesRead);
+                if (count < 0) {
+                    return false;
+                }
+                numberOfBytesRead += count;
+            }
+            return Arrays.equals(firstBytes, MAGIC);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes the MAGIC bytes & the VERSION, which every binary log file starts with.
+     *
+     * @param out Where the header is written to.
+     * @throws IOException Thrown when the header cannot be written.
+     */
+    static void writeHeader(@NotNull DataOutput out) throws IOException {
+        out.write(MAGIC);
+        writeVarint(out, VERSION);
+    }
+
+    /**
+     * Reads & checks the MAGIC bytes & the VERSION, which every binary log file starts with.
+     *
+     * @param in Where the header is read from.
+     * @throws IOException Thrown when the header cannot be read, or it's not a binary log of a known VERSION.
+     */
+    static void readHeader(@NotNull DataInput in) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a binary log file!");
+        }
+
+        long version = readVarint(in);
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary log version: " + version);
+        }
+    }
+
+    /**
+     * Converts a {@link LocalDateTime} to the number of nanoseconds since the epoch.
+     *
+     * @param localDateTime The date & time to convert.
+     * @return The number of nanoseconds between 1970-01-01T00:00 & the date & time.
+     */
+    static long toEpochNanos(@NotNull LocalDateTime localDateTime) {
+        long epochSeconds = localDateTime.toEpochSecond(ZoneOffset.UTC);
+        return Math.addExact(Math.multiplyExact(epochSeconds, NANOS_PER_SECOND), localDateTime.getNano());
+    }
+
+    /**
+     * Converts a number of nanoseconds since the epoch to a {@link LocalDateTime}.
+     *
+     * @param epochNanos The number of nanoseconds since 1970-01-01T00:00.
+     * @return The date & time.
+     */
+    static LocalDateTime fromEpochNanos(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(epochNanos, NANOS_PER_SECOND), (int) Math.floorMod(epochNanos, NANOS_PER_SECOND),
+                ZoneOffset.UTC
+        );
+    }
+
+    /**
+     * Writes an action entry: its tag, the time since the previous action & its payload fields.
+     *
+     * @param out                 Where the entry is written to.
+     * @param programAction       The action to write.
+     * @param previousActionNanos When the previous action took place (0 for the first action), see toEpochNanos().
+     * @return When the written action took place (the previousActionNanos of the next action).
+     * @throws IOException Thrown when the entry cannot be written, or the action's class has no tag.
+     */
+    static long writeProgramAction(
+            @NotNull DataOutput out, @NotNull ProgramAction programAction, long previousActionNanos
+    ) throws IOException {
+        Integer tag = ACTION_CLASS_TO_TAG.get(programAction.getClass());
+        if (tag == null) {
+            throw new IOException("The binary log format has no tag for " + programAction.getClass().getName());
+        }
+
+        long actionNanos = toEpochNanos(programAction.getLocalDateTime());
+        writeVarint(out, tag);
+        writeZigZagVarint(out, actionNanos - previousActionNanos);
+        ACTION_FORMATS.get(tag - 1).writePayload(programAction, out);
+        return actionNanos;
+    }
+
+    /**
+     * Reads the rest of an action entry (after its tag): the time since the previous action & its payload fields.
+     *
+     * @param in                  Where the entry is read from.
+     * @param tag                 The tag of the entry.
+     * @param previousActionNanos When the previous action took place (0 for the first action), see toEpochNanos().
+     * @return The action (the time when it took place is set).
+     * @throws IOException Thrown when the entry cannot be read, or the tag is unknown.
+     */
+    static ProgramAction readProgramAction(@NotNull DataInput in, long tag, long previousActionNanos)
+            throws IOException {
+        if (tag < 1 || tag > ACTION_FORMATS.size()) {
+            throw new IOException("Unknown entry tag in the binary log file: " + tag);
+        }
+
+        long actionNanos = previousActionNanos + readZigZagVarint(in);
+        ProgramAction programAction = ACTION_FORMATS.get((int) tag - 1).payloadReader.read(in);
+        restoreLocalDateTime(programAction, fromEpochNanos(actionNanos));
+        return programAction;
+    }
+
+    /**
+     * Sets the time when a read action took place (the action was created when it was read). The field is final, so
+     * it is set through reflection, the same way that JAXB sets it when a XML log file is read.
+     *
+     * @param programAction The action that was read.
+     * @param localDateTime The time when the action took place.
+     * @throws IOException Thrown when the field cannot be set.
+     */
+    private static void restoreLocalDateTime(@NotNull ProgramAction programAction, @NotNull LocalDateTime localDateTime)
+            throws IOException {
+        try {
+            LOCAL_DATE_TIME_FIELD.set(programAction, localDateTime);
+        } catch (IllegalAccessException e) {
+            throw new IOException("Could not restore the time of a logged action!", e);
+        }
+    }
+
+    /**
+     * Writes an {@link OriginalSudokuGrid} entry: its tag, the board size, whether the solution follows, the board &
+     * (optionally) the solution.
+     *
+     * @param out          Where the entry is written to.
+     * @param originalGrid The original state of the Sudoku board to write.
+     * @throws IOException Thrown when the entry cannot be written, or a square doesn't fit in a nibble.
+     */
+    static void writeOriginalSudokuGrid(@NotNull DataOutput out, @NotNull OriginalSudokuGrid originalGrid)
+            throws IOException {
+        int[][] grid = originalGrid.getGrid();
+        int[][] solution = originalGrid.getSolution();
+
+        writeVarint(out, ORIGINAL_GRID_TAG);
+        writeVarint(out, grid.length);
+        out.writeBoolean(solution != null);
+        writeNibblePackedGrid(out, grid, grid.length);
+        if (solution != null) {
+            writeNibblePackedGrid(out, solution, grid.length);
+        }
+    }
+
+    /**
+     * Reads the rest of an {@link OriginalSudokuGrid} entry (after its tag).
+     *
+     * @param in Where the entry is read from.
+     * @return The original state of the Sudoku board.
+     * @throws IOException Thrown when the entry cannot be read.
+     */
+    static OriginalSudokuGrid readOriginalSudokuGrid(@NotNull DataInput in) throws IOException {
+        int boardSize = (int) readVarint(in);
+        boolean hasSolution = in.readBoolean();
+
+        int[][] grid = readNibblePackedGrid(in, boardSize);
+        if (hasSolution) {
+            return OriginalSudokuGrid.of(grid, readNibblePackedGrid(in, boardSize));
+        }
+        return OriginalSudokuGrid.of(grid);
+    }
+
+    /**
+     * Writes the squares of a square board two to a byte (the first square of a pair in the high nibble).
+     *
+     * @param out       Where the squares are written to.
+     * @param grid      The board to write.
+     * @param boardSize The number of rows & columns of the board.
+     * @throws IOException Thrown when the squares cannot be written, or the board isn't a square board of boardSize.
+     */
+    private static void writeNibblePackedGrid(@NotNull DataOutput out, @NotNull int[][] grid, int boardSize)
+            throws IOException {
+        if (grid.length != boardSize) {
+            throw new IOException("Expected a board with " + boardSize + " rows, but got " + grid.length);
+        }
+
+        int numberOfSquares = boardSize * boardSize;
+        for (int i = 0; i < numberOfSquares; i += 2) {
+            int highNibble = getSquareValue(grid, i, boardSize);
+            int lowNibble = (i + 1 < numberOfSquares) ? getSquareValue(grid, i + 1, boardSize) : 0;
+            out.writeByte((highNibble << 4) | lowNibble);
+        }
+    }
+
+    /**
+     * Gets the value of a square on a square board (checking that it fits in a nibble).
+     *
+     * @param grid        The board.
+     * @param squareIndex The index of the square (row by row).
+     * @param boardSize   The number of rows & columns of the board.
+     * @return The value of the square.
+     * @throws IOException Thrown when the row is too short, or the value doesn't fit in a nibble.
+     */
+    private static int getSquareValue(@NotNull int[][] grid, int squareIndex, int boardSize) throws IOException {
+        int[] row = grid[squareIndex / boardSize];
+        if (row.length != boardSize) {
+            throw new IOException("Expected a row with " + boardSize + " squares, but got " + row.length);
+        }
+
+        int squareValue = row[squareIndex % boardSize];
+        if (squareValue < 0 || squareValue > MAX_SQUARE_VALUE) {
+            throw new IOException("The square value " + squareValue + " doesn't fit in the binary log format!");
+        }
+        return squareValue;
+    }
+
+    /**
+     * Reads the squares of a square board, which were written two to a byte (see writeNibblePackedGrid()).
+     *
+     * @param in        Where the squares are read from.
+     * @param boardSize The number of rows & columns of the board.
+     * @return The board.
+     * @throws IOException Thrown when the squares cannot be read.
+     */
+    private static int[][] readNibblePackedGrid(@NotNull DataInput in, int boardSize) throws IOException {
+        int[][] grid = new int[boardSize][boardSize];
+
+        int numberOfSquares = boardSize * boardSize;
+        for (int i = 0; i < numberOfSquares; i += 2) {
+            int packedSquares = in.readUnsignedByte();
+            grid[i / boardSize][i % boardSize] = packedSquares >>> 4;
+            if (i + 1 < numberOfSquares) {
+                grid[(i + 1) / boardSize][(i + 1) % boardSize] = packedSquares & MAX_SQUARE_VALUE;
+            }
+        }
+
+        return grid;
+    }
+
+    /**
+     * Writes an enum constant as a varint: 0 for null, otherwise the ordinal + 1.
+     *
+     * @param out          Where the enum constant is written to.
+     * @param enumConstant The enum constant to write.
+     * @throws IOException Thrown when the enum constant cannot be written.
+     */
+    private static void writeEnum(@NotNull DataOutput out, @Nullable Enum<?> enumConstant) throws IOException {
+        writeVarint(out, (enumConstant == null) ? 0 : enumConstant.ordinal() + 1);
+    }
+
+    /**
+     * Reads an enum constant that was written with writeEnum().
+     *
+     * @param in         Where the enum constant is read from.
+     * @param enumValues All of the constants of the enum (E.values()).
+     * @param <E>        The enum.
+     * @return The enum constant (or null).
+     * @throws IOException Thrown when the enum constant cannot be read, or the enum has no such constant.
+     */
+    @Nullable
+    private static <E extends Enum<E>> E readEnum(@NotNull DataInput in, @NotNull E[] enumValues) throws IOException {
+        long storedValue = readVarint(in);
+        if (storedValue > enumValues.length) {
+            throw new IOException("Unknown enum ordinal in the binary log file: " + (storedValue - 1));
+        }
+        return (storedValue == 0) ? null : enumValues[(int) storedValue - 1];
+    }
+
+    /**
+     * Writes a {@link Point}: a byte that tells if it's null, followed by the coordinates as zigzag varints.
+     *
+     * @param out   Where the point is written to.
+     * @param point The point to write.
+     * @throws IOException Thrown when the point cannot be written.
+     */
+    private static void writePoint(@NotNull DataOutput out, @Nullable Point point) throws IOException {
+        out.writeBoolean(point != null);
+        if (point != null) {
+            writeZigZagVarint(out, point.x);
+            writeZigZagVarint(out, point.y);
+        }
+    }
+
+    /**
+     * Reads a {@link Point} that was written with writePoint().
+     *
+     * @param in Where the point is read from.
+     * @return The point (or null).
+     * @throws IOException Thrown when the point cannot be read.
+     */
+    @Nullable
+    private static Point readPoint(@NotNull DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int x = (int) readZigZagVarint(in);
+        return new Point(x, (int) readZigZagVarint(in));
+    }
+
+    /**
+     * Writes a value as a varint (small non-negative values take the fewest bytes).
+     *
+     * @param out   Where the value is written to.
+     * @param value The value to write (treated as unsigned).
+     * @throws IOException Thrown when the value cannot be written.
+     */
+    static void writeVarint(@NotNull DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads a varint that was written with writeVarint().
+     *
+     * @param in Where the value is read from.
+     * @return The value.
+     * @throws IOException Thrown when the value cannot be read.
+     */
+    static long readVarint(@NotNull DataInput in) throws IOException {
+        return readVarint(in, in.readUnsignedByte());
+    }
+
+    /**
+     * Reads a varint whose first byte was already read (used to tell the end of the log file from an entry).
+     *
+     * @param in        Where the rest of the value is read from.
+     * @param firstByte The first byte of the value.
+     * @return The value.
+     * @throws IOException Thrown when the value cannot be read, or it's longer than a long.
+     */
+    static long readVarint(@NotNull DataInput in, int firstByte) throws IOException {
+        long value = firstByte & 0x7F;
+        int currentByte = firstByte;
+        for (int shift = 7; (currentByte & 0x80) != 0; shift += 7) {
+            if (shift >= Long.SIZE) {
+                throw new IOException("Malformed varint in the binary log file!");
+            }
+            currentByte = in.readUnsignedByte();
+            value |= (long) (currentByte & 0x7F) << shift;
+        }
+        return value;
+    }
+
+    /**
+     * Writes a signed value as a zigzag varint (values close to 0, negative or positive, take the fewest bytes).
+     *
+     * @param out   Where the value is written to.
+     * @param value The value to write.
+     * @throws IOException Thrown when the value cannot be written.
+     */
+    private static void writeZigZagVarint(@NotNull DataOutput out, long value) throws IOException {
+        writeVarint(out, (value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Reads a zigzag varint that was written with writeZigZagVarint().
+     *
+     * @param in Where the value is read from.
+     * @return The value.
+     * @throws IOException Thrown when the value cannot be read.
+     */
+    private static long readZigZagVarint(@NotNull DataInput in) throws IOException {
+        long zigZagValue = readVarint(in);
+        return (zigZagValue >>> 1) ^ -(zigZagValue & 1);
+    }
+}
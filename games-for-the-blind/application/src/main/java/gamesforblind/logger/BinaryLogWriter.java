@@ -0,0 +1,111 @@
+package gamesforblind.logger;
+
+import gamesforblind.ProgramAction;
+import gamesforblind.sudoku.OriginalSudokuGrid;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Class that writes Java objects to a binary log file (see {@link BinaryLogFormat}). The entries are buffered & only
+ * written out in large blocks, so this is used to write a whole log at once (e.g. by {@link LogConverter}); the game
+ * itself journals to a XML log file (see {@link LogWriter}).
+ */
+public class BinaryLogWriter implements Closeable {
+    /**
+     * The log file that is written.
+     */
+    private final File logFile;
+
+    /**
+     * The buffered stream that the entries are written to (stays opened until the writer is closed).
+     */
+    private final DataOutputStream logOutputStream;
+
+    /**
+     * When the previously written action took place (in nanoseconds since the epoch, 0 before the first action).
+     */
+    private long previousActionNanos;
+
+    /**
+     * Set to true once the writer is closed (nothing can be appended after that).
+     */
+    private boolean isClosed;
+
+    /**
+     * Creates a new BinaryLogWriter & writes the header of the log file.
+     *
+     * @param logFile The log file to write (replaced if it exists).
+     * @throws IOException Thrown when the log file cannot be created.
+     */
+    public BinaryLogWriter(@NotNull File logFile) throws IOException {
+        this.logFile = logFile;
+        this.logOutputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile)));
+
+        try {
+            BinaryLogFormat.writeHeader(this.logOutputStream);
+        } catch (IOException e) {
+            this.logOutputStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the original state of a Sudoku board to the log file.
+     *
+     * @param originalGrid The object that holds an original state of the Sudoku board in the game.
+     * @throws IOException Thrown when the board cannot be written.
+     */
+    public synchronized void appendOriginalSudokuGrid(@NotNull OriginalSudokuGrid originalGrid) throws IOException {
+        if (this.isClosed) {
+            throw new IOException("Cannot log to a closed log file: " + this.logFile);
+        }
+
+        BinaryLogFormat.writeOriginalSudokuGrid(this.logOutputStream, originalGrid);
+    }
+
+    /**
+     * Appends a {@link ProgramAction} that was taken in the loader or game to the log file.
+     *
+     * @param programAction The {@link ProgramAction} to append.
+     * @throws IOException Thrown when the action cannot be written.
+     */
+    public synchronized void appendProgramAction(@NotNull ProgramAction programAction) throws IOException {
+        if (this.isClosed) {
+            throw new IOException("Cannot log to a closed log file: " + this.logFile);
+        }
+
+        this.previousActionNanos = BinaryLogFormat.writeProgramAction(
+                this.logOutputStream, programAction, this.previousActionNanos
+        );
+    }
+
+    /**
+     * Writes out the buffered entries & closes the log file.
+     *
+     * @throws IOException Thrown when the buffered entries cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.isClosed) {
+            return;
+        }
+        this.isClosed = true;
+
+        this.logOutputStream.close();
+    }
+
+    /**
+     * Getter for logFile
+     *
+     * @return The log file that is written.
+     */
+    public File getLogFile() {
+        return this.logFile;
+    }
+}
@@ -0,0 +1,138 @@
+package gamesforblind.logger;
+
+import gamesforblind.ProgramAction;
+import gamesforblind.sudoku.OriginalSudokuGrid;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+
+import static gamesforblind.Constants.BINARY_LOG_FILE_EXTENSION;
+
+/**
+ * Converts a XML log file to a binary log file (see {@link BinaryLogFormat}), or the other way around. The entries
+ * are streamed from one log file to the other in the order they were logged, so a log of any size is converted in
+ * constant memory. {@link LogReader} plays back both kinds of log files.
+ * <p>
+ * Unlike playback, a conversion is strict: if any entry cannot be read or written (e.g. the log file is the journal of
+ * a session that crashed), the conversion fails & the partial output log file is deleted.
+ */
+public class LogConverter {
+    /**
+     * Converts a log file to the other format (the format of the input log file is detected from its contents).
+     *
+     * @param inputLogFile  The XML or binary log file to convert.
+     * @param outputLogFile The log file to write (it must not exist yet). If null, the input log file's path with the
+     *                      extension of the other format is used (e.g. "logs/game.xml" --> "logs/game.binlog").
+     * @return true if every entry of the log file was converted (otherwise, false; the output log file is deleted).
+     */
+    public static boolean convert(@NotNull File inputLogFile, @Nullable File outputLogFile) {
+        if (!inputLogFile.isFile()) {
+            System.err.println("The log file to convert does not exist: " + inputLogFile);
+            return false;
+        }
+
+        boolean isBinaryInput = BinaryLogFormat.isBinaryLogFile(inputLogFile);
+        if (outputLogFile == null) {
+            outputLogFile = replaceExtension(inputLogFile, isBinaryInput ? "xml" : BINARY_LOG_FILE_EXTENSION);
+        }
+        if (outputLogFile.exists()) {
+            System.err.println("Will not overwrite an existing log file: " + outputLogFile);
+            return false;
+        }
+
+        try {
+            if (isBinaryInput) {
+                convertBinaryToXml(inputLogFile, outputLogFile);
+            } else {
+                convertXmlToBinary(inputLogFile, outputLogFile);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            if (outputLogFile.exists() && !outputLogFile.delete()) {
+                System.err.println("Could not delete the partial log file: " + outputLogFile);
+            }
+            return false;
+        }
+
+        System.out.println(String.format(
+                "Converted %s (%d bytes) to %s (%d bytes)!",
+                inputLogFile, inputLogFile.length(), outputLogFile, outputLogFile.length()
+        ));
+        return true;
+    }
+
+    /**
+     * Converts a XML log file to a binary log file.
+     *
+     * @param xmlLogFile    The XML log file to read.
+     * @param binaryLogFile The binary log file to write.
+     * @throws IOException Thrown when a log file cannot be read or written, or an entry is incomplete or invalid.
+     */
+    public static void convertXmlToBinary(@NotNull File xmlLogFile, @NotNull File binaryLogFile) throws IOException {
+        try (
+                XmlLogEntryIterator<Object> xmlEntries = new XmlLogEntryIterator<>(
+                        xmlLogFile, 0, Object.class, elementName -> true
+                );
+                BinaryLogWriter binaryLogWriter = new BinaryLogWriter(binaryLogFile)
+        ) {
+            while (xmlEntries.hasNext()) {
+                Object entry = xmlEntries.next();
+                if (entry instanceof OriginalSudokuGrid) {
+                    binaryLogWriter.appendOriginalSudokuGrid((OriginalSudokuGrid) entry);
+                } else if (entry instanceof ProgramAction) {
+                    binaryLogWriter.appendProgramAction((ProgramAction) entry);
+                } else {
+                    throw new IOException("Unexpected entry in the log file: " + entry);
+                }
+            }
+            xmlEntries.throwIfStoppedEarly();
+        }
+    }
+
+    /**
+     * Converts a binary log file to a XML log file.
+     *
+     * @param binaryLogFile The binary log file to read.
+     * @param xmlLogFile    The XML log file to write (it must not exist yet).
+     * @throws IOException Thrown when a log file cannot be read or written, or an entry is incomplete or invalid.
+     */
+    public static void convertBinaryToXml(@NotNull File binaryLogFile, @NotNull File xmlLogFile) throws IOException {
+        try (
+                BinaryLogEntryIterator<Object> binaryEntries = new BinaryLogEntryIterator<>(
+                        binaryLogFile, Object.class
+                );
+                LogWriter xmlLogWriter = new LogWriter(xmlLogFile)
+        ) {
+            while (binaryEntries.hasNext()) {
+                Object entry = binaryEntries.next();
+                if (entry instanceof OriginalSudokuGrid) {
+                    xmlLogWriter.writeOriginalSudokuGrid((OriginalSudokuGrid) entry);
+                } else if (entry instanceof ProgramAction) {
+                    xmlLogWriter.writeProgramAction((ProgramAction) entry);
+                } else {
+                    throw new IOException("Unexpected entry in the log file: " + entry);
+                }
+            }
+            binaryEntries.throwIfStoppedEarly();
+
+            // The end of the log file is written here (close() would only print an error).
+            xmlLogWriter.finish();
+        }
+    }
+
+    /**
+     * Replaces the extension of a file's name (or adds one, if it has none).
+     *
+     * @param file      The file.
+     * @param extension The new extension (without the dot).
+     * @return The file with the new extension, in the same directory.
+     */
+    private static File replaceExtension(@NotNull File file, @NotNull String extension) {
+        String fileName = file.getName();
+        int extensionIndex = fileName.lastIndexOf('.');
+        String baseName = (extensionIndex > 0) ? fileName.substring(0, extensionIndex) : fileName;
+        return new File(file.getAbsoluteFile().getParentFile(), baseName + "." + extension);
+    }
+}
@@ -4,44 +4,76 @@ import gamesforblind.ProgramAction;
 import gamesforblind.sudoku.OriginalSudokuGrid;
 import gamesforblind.sudoku.generator.Grid;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
-
-import static gamesforblind.Constants.LOG_FILES_DIRECTORY;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 
 /**
- * Class that stores the objects/values that are essential to make a log.
+ * Class that stores the objects/values that are essential to make a log. When the program is recording, the objects
+ * are journaled to the log file by a {@link LogWriter} right away (& not kept in memory). In playback mode, the
+ * {@link OriginalSudokuGrid}s that were read from a log file are kept in a list, while its actions are read lazily.
  */
 public class LogFactory {
     /**
-     * All of the ProgramActions that have been made in the loader & game.
+     * Need the original Sudoku boards, since they are typically randomly generated (only in playback mode).
+     */
+    private final ArrayList<OriginalSudokuGrid> originalSudokuGridList;
+
+    /**
+     * The logged ProgramActions of the loader & game, read one at a time while they are replayed (only in playback
+     * mode).
      */
-    private final ArrayList<ProgramAction> programActionList = new ArrayList<>();
+    private final Iterator<ProgramAction> programActions;
 
     /**
-     * Need the original Sudoku boards, since they are typically randomly generated.
+     * The journal that the objects are appended to (null in playback mode).
      */
-    private final ArrayList<OriginalSudokuGrid> originalSudokuGridList = new ArrayList<>();
+    private final LogWriter logWriter;
 
     /**
-     * Creates a new LogFactory
+     * Creates a new LogFactory that doesn't log anything (used when the log file cannot be created).
      */
     public LogFactory() {
-        if (!LOG_FILES_DIRECTORY.exists()) {
-            // Recursively create any folders that are needed to create the log files directory.
-            if (!LOG_FILES_DIRECTORY.mkdirs()) {
-                throw new IllegalArgumentException("The log files directory could not be created properly!");
-            }
-        }
+        this(null);
+    }
+
+    /**
+     * Creates a new LogFactory that journals the objects.
+     *
+     * @param logWriter The journal that the objects are appended to (null to not log the objects at all).
+     */
+    public LogFactory(@Nullable LogWriter logWriter) {
+        this.originalSudokuGridList = new ArrayList<>();
+        this.programActions = Collections.emptyIterator();
+        this.logWriter = logWriter;
+    }
+
+    /**
+     * Creates a new LogFactory with the contents of a log file (for playback mode).
+     *
+     * @param originalSudokuGrids The logged Sudoku boards, in the order they were played.
+     * @param programActions      The logged ProgramActions (read lazily).
+     */
+    public LogFactory(
+            @NotNull List<OriginalSudokuGrid> originalSudokuGrids, @NotNull Iterator<ProgramAction> programActions
+    ) {
+        this.originalSudokuGridList = new ArrayList<>(originalSudokuGrids);
+        this.programActions = programActions;
+        this.logWriter = null;
     }
 
     /**
-     * Add a {@link ProgramAction} to the list of all actions in the loader & game.
+     * Add a {@link ProgramAction} to the journal (if there is one).
      *
-     * @param actionToAdd The {@link ProgramAction} to add to the list.
+     * @param actionToAdd The {@link ProgramAction} to add to the journal.
      */
     public void addProgramAction(@NotNull ProgramAction actionToAdd) {
-        this.programActionList.add(actionToAdd);
+        if (this.logWriter != null) {
+            this.logWriter.appendProgramAction(actionToAdd);
+        }
     }
 
     /**
@@ -58,29 +90,40 @@ public class LogFactory {
     }
 
     /**
-     * Adds an {@link OriginalSudokuGrid} to the end of the list.
+     * Adds an {@link OriginalSudokuGrid} to the journal (if there is one).
      *
      * @param originalGridToAdd The object that holds an original state of the {@link Grid} in a logged game.
      */
     public void addOriginalSudokuGrid(@NotNull OriginalSudokuGrid originalGridToAdd) {
-        this.originalSudokuGridList.add(originalGridToAdd);
+        if (this.logWriter != null) {
+            this.logWriter.appendOriginalSudokuGrid(originalGridToAdd);
+        }
+    }
+
+    /**
+     * Closes the journal (if there is one), so that the log file is complete.
+     */
+    public void closeLog() {
+        if (this.logWriter != null) {
+            this.logWriter.close();
+        }
     }
 
     /**
      * Getter for originalSudokuGridList
      *
-     * @return The list of {@link OriginalSudokuGrid}s that were logged in the series of played Sudoku games.
+     * @return The list of {@link OriginalSudokuGrid}s that are left to be played back.
      */
     public ArrayList<OriginalSudokuGrid> getOriginalSudokuGridList() {
         return this.originalSudokuGridList;
     }
 
     /**
-     * Getter for programActionList
+     * Getter for programActions
      *
-     * @return A list of all of the ProgramActions in the loader & game.
+     * @return The logged ProgramActions in the loader & game (each of them can only be read once).
      */
-    public ArrayList<ProgramAction> getProgramActionList() {
-        return this.programActionList;
+    public Iterator<ProgramAction> getProgramActions() {
+        return this.programActions;
     }
 }
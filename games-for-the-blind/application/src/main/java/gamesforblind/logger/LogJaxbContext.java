@@ -0,0 +1,87 @@
+package gamesforblind.logger;
+
+import gamesforblind.ProgramAction;
+import gamesforblind.codebreaker.action.CodebreakerAction;
+import gamesforblind.loader.action.LoaderAction;
+import gamesforblind.sudoku.OriginalSudokuGrid;
+import gamesforblind.sudoku.action.SudokuAction;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+/**
+ * Holds the single {@link JAXBContext} of the logger, which knows every {@link ProgramAction} (through the
+ * XmlSeeAlso of the abstract action classes) & {@link OriginalSudokuGrid}. Building a JAXBContext is expensive, so
+ * it is built once (the first time it's needed). The context is thread-safe, but its marshallers & unmarshallers
+ * aren't: every thread gets its own, which is reused for all of the entries that the thread writes or reads.
+ */
+final class LogJaxbContext {
+    /**
+     * The logger's context (null until it's needed for the first time).
+     */
+    private static JAXBContext jaxbContext;
+
+    /**
+     * The marshaller of every thread (writes a logged object as a XML fragment, without a XML prolog).
+     */
+    private static final ThreadLocal<Marshaller> THREAD_MARSHALLER = new ThreadLocal<>();
+
+    /**
+     * The unmarshaller of every thread (picks the class to create from the name of the XML element).
+     */
+    private static final ThreadLocal<Unmarshaller> THREAD_UNMARSHALLER = new ThreadLocal<>();
+
+    private LogJaxbContext() {
+    }
+
+    /**
+     * Gets the logger's context (builds it the first time).
+     *
+     * @return The {@link JAXBContext} that knows all of the logged classes.
+     * @throws JAXBException Thrown when the context cannot be built.
+     */
+    private static synchronized JAXBContext getContext() throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(
+                    OriginalSudokuGrid.class, LoaderAction.class, SudokuAction.class, CodebreakerAction.class
+            );
+        }
+
+        return jaxbContext;
+    }
+
+    /**
+     * Gets the marshaller of the calling thread (creates it the first time).
+     *
+     * @return A {@link Marshaller} that only the calling thread uses.
+     * @throws JAXBException Thrown when the context or the marshaller cannot be created.
+     */
+    static Marshaller getMarshaller() throws JAXBException {
+        Marshaller marshaller = THREAD_MARSHALLER.get();
+        if (marshaller == null) {
+            marshaller = getContext().createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            THREAD_MARSHALLER.set(marshaller);
+        }
+
+        return marshaller;
+    }
+
+    /**
+     * Gets the unmarshaller of the calling thread (creates it the first time).
+     *
+     * @return An {@link Unmarshaller} that only the calling thread uses.
+     * @throws JAXBException Thrown when the context or the unmarshaller cannot be created.
+     */
+    static Unmarshaller getUnmarshaller() throws JAXBException {
+        Unmarshaller unmarshaller = THREAD_UNMARSHALLER.get();
+        if (unmarshaller == null) {
+            unmarshaller = getContext().createUnmarshaller();
+            THREAD_UNMARSHALLER.set(unmarshaller);
+        }
+
+        return unmarshaller;
+    }
+}
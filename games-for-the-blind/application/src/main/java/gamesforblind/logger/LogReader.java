@@ -3,128 +3,153 @@ package gamesforblind.logger;
 import gamesforblind.ProgramAction;
 import gamesforblind.sudoku.OriginalSudokuGrid;
 import org.jetbrains.annotations.NotNull;
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
+import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
- * Class to read a log file, so that the actions can be replayed in realtime for the user.
+ * Class to read a log file, so that the actions can be replayed in realtime for the user. The actions are read
+ * lazily while they are replayed (see {@link XmlLogEntryIterator}), so playback starts right away & a log of any
+ * size is replayed in constant memory. The {@link OriginalSudokuGrid}s are read up front, since a Sudoku game
+ * needs its board when it starts. Binary log files (see {@link LogConverter}) are read the same way.
  */
 public class LogReader {
     /**
-     * Gets a list of XML nodes. The first {@link Node} in the list is always the {@link OriginalSudokuGrid} object
-     * while each of the other {@link Node}s in list are individual {@link ProgramAction}s that were taken in the game.
-     *
-     * @param logFilePath The path to the XML log file, as a String.
-     * @return A list of {@link Node}s in the game representing either the {@link OriginalSudokuGrid}
-     * or an individual {@link ProgramAction} that was taken in the game.
+     * The name of the root element of every log file.
      */
-    private ArrayList<Node> getLogFileXmlNodeList(@NotNull String logFilePath) {
-        // Step 1: read in the XML log file's raw contents as a String.
-        String logXmlString;
-        try {
-            logXmlString = new String(Files.readAllBytes(Paths.get(logFilePath)));
-        } catch (IOException e) {
-            return new ArrayList<>();
-        }
+    static final String LOG_TAG_NAME = "log";
 
-        // Step 2: convert this XML String to a Document.
-        Optional<Document> logXmlDocument = XmlHelpers.convertXmlStringToDocument(logXmlString);
-        if (!logXmlDocument.isPresent()) {
-            return new ArrayList<>();
-        }
+    /**
+     * The name of the element of an {@link OriginalSudokuGrid} entry.
+     */
+    private static final String ORIGINAL_GRID_ELEMENT_NAME = OriginalSudokuGrid.class.getSimpleName();
+
+    /**
+     * The footer index is searched for in this many bytes at the end of the log file.
+     */
+    private static final int MAX_FOOTER_INDEX_SIZE = 64 * 1024;
 
-        // Step 3: get the children of <log>, which hold the original Sudoku board state & actions in the game.
-        ArrayList<Node> logXmlNodeList = new ArrayList<>();
-        NodeList logChildren = logXmlDocument.get().getChildNodes().item(0).getChildNodes();
+    /**
+     * Finds the byte offsets of the Sudoku boards in the footer index (e.g. &lt;!--index actions="3" grids="45"--&gt;).
+     */
+    private static final Pattern FOOTER_INDEX_GRIDS_PATTERN = Pattern.compile(
+            "<!--" + LogWriter.FOOTER_INDEX_OPENING + "[^>]*grids=\"([0-9 ]*)\"[^>]*-->\\s*$"
+    );
 
-        // Step 4: loop over all of these children & add the non-textual Nodes to the list of nodes.
-        for (int i = 0; i < logChildren.getLength(); i++) {
-            Node logChild = logChildren.item(i);
-            if (logChild.getNodeType() == Node.TEXT_NODE) {
-                continue;
+    /**
+     * Reads the byte offsets of the {@link OriginalSudokuGrid}s from the footer index of a log file.
+     *
+     * @param logFile The log file to read.
+     * @return The byte offsets, or empty() if the log file has no footer index (a crashed journal or an older log).
+     */
+    private Optional<List<Long>> readFooterIndexGridOffsets(@NotNull File logFile) {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(logFile, "r")) {
+            int tailLength = (int) Math.min(randomAccessFile.length(), MAX_FOOTER_INDEX_SIZE);
+            byte[] tail = new byte[tailLength];
+            randomAccessFile.seek(randomAccessFile.length() - tailLength);
+            randomAccessFile.readFully(tail);
+
+            Matcher footerIndexMatcher = FOOTER_INDEX_GRIDS_PATTERN.matcher(new String(tail, StandardCharsets.UTF_8));
+            if (!footerIndexMatcher.find()) {
+                return Optional.empty();
             }
 
-            logXmlNodeList.add(logChild);
+            List<Long> gridOffsets = new ArrayList<>();
+            for (String gridOffset : footerIndexMatcher.group(1).trim().split(" ")) {
+                if (!gridOffset.isEmpty()) {
+                    gridOffsets.add(Long.parseLong(gridOffset));
+                }
+            }
+            return Optional.of(gridOffsets);
+        } catch (IOException | NumberFormatException e) {
+            e.printStackTrace();
         }
 
-        return logXmlNodeList;
+        return Optional.empty();
     }
 
     /**
-     * Converts a XML {@link Node} to a Java object.
+     * Reads all of the {@link OriginalSudokuGrid}s in a log file. If there is a footer index, only the boards are
+     * read (at their offsets). Otherwise, the log file is scanned once & the actions are skipped without being
+     * unmarshalled.
      *
-     * @param xmlNode {@link Node} to convert. Either a {@link ProgramAction} in game or {@link OriginalSudokuGrid} object.
-     * @return A Java object that is an instance of {@link OriginalSudokuGrid} or {@link ProgramAction}.
-     * If an error occurred, just return empty().
+     * @param logFile The log file to read.
+     * @return The {@link OriginalSudokuGrid}s in the order they were logged.
+     * @throws IOException Thrown when the log file cannot be read.
      */
-    private Optional<Object> convertXmlLogNodeToObject(@NotNull Node xmlNode) {
-        try {
-            String xmlNodeName = xmlNode.getNodeName();
-            Class<?> classToMarshall;
-
-            // Gets the class name without the package name.
-            if (xmlNodeName.equals(OriginalSudokuGrid.class.getSimpleName())) {
-                classToMarshall = OriginalSudokuGrid.class;
-            } else if (xmlNodeName.toLowerCase().contains("loader")) {
-                // Need the fully qualified name to the class that needs marshalling.
-                classToMarshall = Class.forName("gamesforblind.loader.action." + xmlNodeName);
-            } else if (xmlNodeName.toLowerCase().contains("sudoku")) {
-                // Need the fully qualified name to the class that needs marshalling.
-                classToMarshall = Class.forName("gamesforblind.sudoku.action." + xmlNodeName);
-            } else {
-                throw new IllegalArgumentException("Invalid log file class name: " + xmlNodeName);
+    private List<OriginalSudokuGrid> readOriginalSudokuGrids(@NotNull File logFile) throws IOException {
+        List<OriginalSudokuGrid> originalGrids = new ArrayList<>();
+
+        Optional<List<Long>> maybeGridOffsets = this.readFooterIndexGridOffsets(logFile);
+        if (maybeGridOffsets.isPresent()) {
+            for (long gridOffset : maybeGridOffsets.get()) {
+                try (XmlLogEntryIterator<OriginalSudokuGrid> gridIterator = new XmlLogEntryIterator<>(
+                        logFile, gridOffset, OriginalSudokuGrid.class, ORIGINAL_GRID_ELEMENT_NAME::equals
+                )) {
+                    if (gridIterator.hasNext()) {
+                        originalGrids.add(gridIterator.next());
+                    }
+                }
             }
-
-            JAXBContext jaxbContext = JAXBContext.newInstance(classToMarshall);
-            Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-            return Optional.of(jaxbUnmarshaller.unmarshal(xmlNode));
-        } catch (JAXBException | ClassNotFoundException e) {
-            e.printStackTrace();
+            return originalGrids;
         }
 
-        // If an error occurred, just return empty().
-        return Optional.empty();
+        XmlLogEntryIterator<OriginalSudokuGrid> gridIterator = new XmlLogEntryIterator<>(
+                logFile, 0, OriginalSudokuGrid.class, ORIGINAL_GRID_ELEMENT_NAME::equals
+        );
+        gridIterator.forEachRemaining(originalGrids::add);
+        return originalGrids;
+    }
+
+    /**
+     * Reads all of the {@link OriginalSudokuGrid}s in a binary log file (the actions are decoded, but not kept).
+     *
+     * @param logFile The binary log file to read.
+     * @return The {@link OriginalSudokuGrid}s in the order they were logged.
+     * @throws IOException Thrown when the log file cannot be read.
+     */
+    private List<OriginalSudokuGrid> readBinaryOriginalSudokuGrids(@NotNull File logFile) throws IOException {
+        List<OriginalSudokuGrid> originalGrids = new ArrayList<>();
+        new BinaryLogEntryIterator<>(logFile, OriginalSudokuGrid.class).forEachRemaining(originalGrids::add);
+        return originalGrids;
     }
 
     /**
      * Gets a {@link LogFactory} object containing the log file's saved program state.
      *
-     * @param logFilePath The path to the XML log file, as a String.
-     * @return A {@link LogFactory} object containing the log file's saved state.
+     * @param logFilePath The path to the XML or binary log file, as a String.
+     * @return A {@link LogFactory} object containing the log file's Sudoku boards & its (lazily read) actions.
      */
     public LogFactory restoreLoggedProgram(@NotNull String logFilePath) {
-        // Step 1: Get the list of XML Nodes from the log file.
-        ArrayList<Node> xmlNodeList = this.getLogFileXmlNodeList(logFilePath);
+        File logFile = new File(logFilePath);
 
-        if (xmlNodeList.isEmpty()) {
-            return new LogFactory();
-        }
+        try {
+            if (BinaryLogFormat.isBinaryLogFile(logFile)) {
+                List<OriginalSudokuGrid> originalGrids = this.readBinaryOriginalSudokuGrids(logFile);
+                return new LogFactory(originalGrids, new BinaryLogEntryIterator<>(logFile, ProgramAction.class));
+            }
 
-        LogFactory logFactory = new LogFactory();
-        for (Node xmlNode : xmlNodeList) {
-            // Step 2: convert each XML node to a Java object.
-            Optional<Object> logItems = this.convertXmlLogNodeToObject(xmlNode);
-
-            // Step 3: if an action, add it to the list of actions. Otherwise, add it to the list of OriginalSudokuGrids
-            logItems.ifPresent(logItem -> {
-                if (logItem instanceof OriginalSudokuGrid) {
-                    logFactory.addOriginalSudokuGrid((OriginalSudokuGrid) logItem);
-                } else if (logItem instanceof ProgramAction) {
-                    logFactory.addProgramAction((ProgramAction) logItem);
-                }
-            });
+            // Step 1: read the Sudoku boards (a Sudoku game needs its board as soon as it starts).
+            List<OriginalSudokuGrid> originalGrids = this.readOriginalSudokuGrids(logFile);
+
+            // Step 2: the actions are only read while they are replayed (the Sudoku boards are skipped).
+            Iterator<ProgramAction> programActions = new XmlLogEntryIterator<>(
+                    logFile, 0, ProgramAction.class, elementName -> !elementName.equals(ORIGINAL_GRID_ELEMENT_NAME)
+            );
+            return new LogFactory(originalGrids, programActions);
+        } catch (IOException e) {
+            e.printStackTrace();
         }
 
-        return logFactory;
+        return new LogFactory(Collections.emptyList(), Collections.emptyIterator());
     }
 }
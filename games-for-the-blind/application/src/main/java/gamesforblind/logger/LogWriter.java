@@ -3,162 +3,307 @@ package gamesforblind.logger;
 import gamesforblind.ProgramAction;
 import gamesforblind.sudoku.OriginalSudokuGrid;
 import org.jetbrains.annotations.NotNull;
-import org.w3c.dom.Document;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Optional;
+import java.util.List;
 
 import static gamesforblind.Constants.LOG_FILES_DIRECTORY;
 
 /**
- * Class that allows stored Java objects to be written to a XML log file.
+ * Class that journals Java objects to a XML log file as they happen. The log file is opened when the session starts,
+ * & every {@link OriginalSudokuGrid} & {@link ProgramAction} is appended to it right away (on a line of its own), so
+ * memory use doesn't grow with the session & a crash loses (at most) the entry that was being written.
+ * <p>
+ * The whole log file is written in a single pass by one {@link XMLStreamWriter}: JAXB marshals every entry straight
+ * into it, so an entry is never materialized as a String first.
+ * <p>
+ * When the journal is closed, the closing "&lt;/log&gt;" tag is appended, followed by a small footer index (a XML
+ * comment with the number of actions & the byte offsets of the Sudoku boards). A log file without the closing tag is
+ * the journal of a session that crashed; {@link LogReader} reads it up to the last complete entry.
  */
-public class LogWriter {
+public class LogWriter implements Closeable {
     /**
-     * All of the stored ProgramActions & the original state of the Sudoku board in the game.
+     * The indentation of every entry (entries are children of the &lt;log&gt; element).
      */
-    private final LogFactory logFactory;
+    private static final String ENTRY_INDENTATION = "  ";
 
     /**
-     * Creates a new LogWriter
+     * The start of the footer index (the text of a XML comment after the closing &lt;log&gt; tag).
+     */
+    static final String FOOTER_INDEX_OPENING = "index ";
+
+    /**
+     * The journal is forced to the storage device at most this often (the appended entries are handed to the
+     * operating system right away, so they survive a crash of the program even before they are forced).
+     */
+    private static final long FORCE_INTERVAL_MILLIS = 1000;
+
+    /**
+     * The log file that the journal is written to.
+     */
+    private final File logFile;
+
+    /**
+     * The channel that the journal is appended to (stays opened until the journal is closed).
+     */
+    private final FileChannel fileChannel;
+
+    /**
+     * The buffered stream on top of the fileChannel (flushed after every entry).
+     */
+    private final OutputStream logOutputStream;
+
+    /**
+     * Writes the XML of the whole log file (stays opened until the journal is closed).
+     */
+    private final XMLStreamWriter xmlStreamWriter;
+
+    /**
+     * The byte offsets of the logged {@link OriginalSudokuGrid}s (for the footer index).
+     */
+    private final List<Long> originalGridOffsets = new ArrayList<>();
+
+    /**
+     * The number of {@link ProgramAction}s that were appended.
+     */
+    private int numberOfLoggedActions;
+
+    /**
+     * When the journal was last forced to the storage device (System.currentTimeMillis()).
+     */
+    private long lastForceMillis = System.currentTimeMillis();
+
+    /**
+     * Set to true once the journal is closed (nothing can be appended after that).
+     */
+    private boolean isClosed;
+
+    /**
+     * Creates a new LogWriter & opens a new log file (the name of the log file is the current date & time).
      *
-     * @param logFactory All of the stored ProgramActions & the original state of the Sudoku board in the game.
+     * @throws IOException Thrown when the log files directory or the log file cannot be created.
      */
-    public LogWriter(LogFactory logFactory) {
-        this.logFactory = logFactory;
+    public LogWriter() throws IOException {
+        this(createNewLogFile());
     }
 
     /**
-     * Uses JAXB to marshall a JAVA object to a XML string.
+     * Creates a new LogWriter & opens the given log file (e.g. the target of a {@link LogConverter}).
      *
-     * @param objectToMarshall The Java object to marshall.
-     * @return The XML body representing the Java object (NO XML prolog included). If an error occurred, just empty().
+     * @param logFile The log file to write (it must not exist yet).
+     * @throws IOException Thrown when the log file cannot be created.
      */
-    private Optional<String> convertObjectToXmlString(@NotNull Object objectToMarshall) {
-        try {
-            Marshaller jaxbMarshaller = JAXBContext.newInstance(objectToMarshall.getClass()).createMarshaller();
-            jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+    public LogWriter(@NotNull File logFile) throws IOException {
+        this.logFile = logFile;
+        this.fileChannel = FileChannel.open(
+                this.logFile.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE
+        );
+        this.logOutputStream = new BufferedOutputStream(Channels.newOutputStream(this.fileChannel));
 
-            StringWriter stringWriter = new StringWriter();
-            jaxbMarshaller.marshal(objectToMarshall, stringWriter);
+        try {
+            this.xmlStreamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(this.logOutputStream, "UTF-8");
+            this.xmlStreamWriter.writeStartDocument("UTF-8", "1.0");
+            this.xmlStreamWriter.writeCharacters("\n");
+            this.xmlStreamWriter.writeStartElement(LogReader.LOG_TAG_NAME);
+            this.xmlStreamWriter.writeCharacters("\n");
+            this.flush();
+        } catch (XMLStreamException e) {
+            this.fileChannel.close();
+            throw new IOException("The log file could not be started!", e);
+        }
+    }
 
-            // Remove the XML prolog & return it wrapped in an Optional.
-            return Optional.of(
-                    stringWriter.toString().replaceAll("<\\?xml(.+?)\\?>", "").trim()
-            );
-        } catch (JAXBException e) {
-            e.printStackTrace();
+    /**
+     * Gets the path of a new log file in the log files directory (the name of the log file is the current date & time).
+     *
+     * @return The path of the new log file.
+     * @throws IOException Thrown when the log files directory cannot be created.
+     */
+    private static File createNewLogFile() throws IOException {
+        // Recursively create any folders that are needed to create the log files directory.
+        if (!LOG_FILES_DIRECTORY.exists() && !LOG_FILES_DIRECTORY.mkdirs()) {
+            throw new IOException("The log files directory could not be created properly!");
         }
 
-        // If an error occurred, just return empty().
-        return Optional.empty();
+        return new File(String.format(
+                "%s/%s.xml",
+                LOG_FILES_DIRECTORY.toString(),
+                // Colons are not allowed in Windows file names.
+                LocalDateTime.now().toString().replace(":", "#")
+        ));
     }
 
     /**
-     * Converts an entire game into a XML string that can be saved.
+     * Hands everything that was written so far to the operating system (& forces it to the storage device if
+     * FORCE_INTERVAL_MILLIS passed since the last time).
      *
-     * @return The XML String representing the stored game to be saved as a log file.
+     * @throws XMLStreamException Thrown when the XML could not be flushed.
+     * @throws IOException        Thrown when the log file could not be written.
      */
-    private String marshalLogToXmlString() {
-        // Add a standard XML prolog to the beginning, along with a <log> opening tag.
-        StringBuilder xmlStringBuilder = new StringBuilder(
-                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><log>"
-        );
+    private void flush() throws XMLStreamException, IOException {
+        this.xmlStreamWriter.flush();
+        this.logOutputStream.flush();
 
-        // Serialize the logged Sudoku grids.
-        ArrayList<OriginalSudokuGrid> originalSudokuGrids = this.logFactory.getOriginalSudokuGridList();
-        for (OriginalSudokuGrid originalGrid : originalSudokuGrids) {
-            this.convertObjectToXmlString(originalGrid).ifPresent(xmlStringBuilder::append);
+        long currentMillis = System.currentTimeMillis();
+        if (currentMillis - this.lastForceMillis >= FORCE_INTERVAL_MILLIS) {
+            this.fileChannel.force(false);
+            this.lastForceMillis = currentMillis;
         }
+    }
 
-        // Serialize all of the ProgramActions in the game.
-        ArrayList<ProgramAction> programActions = this.logFactory.getProgramActionList();
-        for (ProgramAction action : programActions) {
-            this.convertObjectToXmlString(action).ifPresent(xmlStringBuilder::append);
+    /**
+     * Uses JAXB to marshall a Java object straight into the journal (as a single indented line).
+     *
+     * @param objectToWrite The Java object to marshall.
+     * @throws IOException Thrown when the journal is closed, or the object cannot be marshalled or written.
+     */
+    private void writeEntry(@NotNull Object objectToWrite) throws IOException {
+        if (this.isClosed) {
+            throw new IOException("Cannot log to a closed log file: " + objectToWrite);
         }
 
-        // Add a closing <log> tag.
-        xmlStringBuilder.append("</log>");
+        try {
+            this.xmlStreamWriter.writeCharacters(ENTRY_INDENTATION);
+            LogJaxbContext.getMarshaller().marshal(objectToWrite, this.xmlStreamWriter);
+            this.xmlStreamWriter.writeCharacters("\n");
 
-        // I don't want any whitespace between tags (e.g. ">  <") or newlines.
-        return xmlStringBuilder.toString()
-                .replaceAll(">\\s*<", "><")
-                .replaceAll("\\n", "")
-                .replaceAll("\\r", "");
+            // The whole entry is flushed at once, so only the last line of a crashed journal can be incomplete.
+            this.flush();
+        } catch (JAXBException | XMLStreamException e) {
+            throw new IOException("Could not log: " + objectToWrite, e);
+        }
     }
 
     /**
-     * Writes a XML String to a XML file with the name being the current time.
+     * Writes the original state of a Sudoku board to the journal (used where a lost entry must not go unnoticed,
+     * e.g. by {@link LogConverter}; the game uses appendOriginalSudokuGrid()).
      *
-     * @param beautifiedLogXmlString The XML log file String to save.
-     * @return true if the save operation was successful (otherwise, false).
+     * @param originalGrid The object that holds an original state of the Sudoku board in the game.
+     * @throws IOException Thrown when the board cannot be written.
      */
-    private boolean writeXmlLogFile(@NotNull String beautifiedLogXmlString) {
-        // The name of the XML log file is the current date & time.
-        File logFile = new File(String.format(
-                "%s/%s.xml",
-                LOG_FILES_DIRECTORY.toString(),
-                // Colons are not allowed in Windows file names.
-                LocalDateTime.now().toString().replace(":", "#")
-        ));
+    synchronized void writeOriginalSudokuGrid(@NotNull OriginalSudokuGrid originalGrid) throws IOException {
+        if (this.isClosed) {
+            throw new IOException("Cannot log to a closed log file: " + originalGrid);
+        }
+
+        // Everything before the entry was flushed already, so the channel is at the start of its line.
+        long gridOffset = this.fileChannel.position();
+        this.writeEntry(originalGrid);
+        this.originalGridOffsets.add(gridOffset);
+    }
+
+    /**
+     * Writes a {@link ProgramAction} to the journal (used where a lost entry must not go unnoticed, e.g. by
+     * {@link LogConverter}; the game uses appendProgramAction()).
+     *
+     * @param programAction The {@link ProgramAction} to write.
+     * @throws IOException Thrown when the action cannot be written.
+     */
+    synchronized void writeProgramAction(@NotNull ProgramAction programAction) throws IOException {
+        this.writeEntry(programAction);
+        this.numberOfLoggedActions++;
+    }
 
-        FileWriter fileWriter = null;
+    /**
+     * Appends the original state of a Sudoku board to the journal. An error is printed (the game goes on).
+     *
+     * @param originalGrid The object that holds an original state of the Sudoku board in the game.
+     */
+    public synchronized void appendOriginalSudokuGrid(@NotNull OriginalSudokuGrid originalGrid) {
         try {
-            fileWriter = new FileWriter(logFile);
-            fileWriter.write(beautifiedLogXmlString);
-            return true;
+            this.writeOriginalSudokuGrid(originalGrid);
         } catch (IOException e) {
             e.printStackTrace();
-        } finally {
-            try {
-                if (fileWriter != null) {
-                    fileWriter.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
-
-        return false;
     }
 
     /**
-     * Saves the current state of the instance variable logFactory to a XML log file.
+     * Appends a {@link ProgramAction} that was taken in the loader or game to the journal. An error is printed
+     * (the game goes on).
+     *
+     * @param programAction The {@link ProgramAction} to append.
      */
-    public void saveGameLog() {
-        // Step 1: get the basic XML log Document to save.
-        String logXmlString = this.marshalLogToXmlString();
-        Optional<Document> maybeLogXmlDocument = XmlHelpers.convertXmlStringToDocument(logXmlString);
+    public synchronized void appendProgramAction(@NotNull ProgramAction programAction) {
+        try {
+            this.writeProgramAction(programAction);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-        if (!maybeLogXmlDocument.isPresent()) {
+    /**
+     * Finishes the journal: appends the closing &lt;log&gt; tag & the footer index, closes the log file, & prints a
+     * message to stdout.
+     *
+     * @throws IOException Thrown when the end of the log file cannot be written.
+     */
+    synchronized void finish() throws IOException {
+        if (this.isClosed) {
             return;
         }
+        this.isClosed = true;
 
-        // Step 2: get the beautified XML log file String.
-        Optional<String> beautifiedLogXmlString = XmlHelpers.beautifyXmlDocument(maybeLogXmlDocument.get());
-        if (!beautifiedLogXmlString.isPresent()) {
-            return;
+        StringBuilder footerIndexBuilder = new StringBuilder(FOOTER_INDEX_OPENING)
+                .append("actions=\"").append(this.numberOfLoggedActions).append("\" grids=\"");
+        for (int i = 0; i < this.originalGridOffsets.size(); i++) {
+            footerIndexBuilder.append((i == 0) ? "" : " ").append(this.originalGridOffsets.get(i));
         }
+        footerIndexBuilder.append('"');
 
-        // Step 3: save the beautified XML log file String. If successful, print message to stdout.
-        if (this.writeXmlLogFile(beautifiedLogXmlString.get())) {
-            int numberOfLoggedSudokuBoards = this.logFactory.getOriginalSudokuGridList().size();
-            if (numberOfLoggedSudokuBoards != 0) {
-                System.out.println("Saved " + numberOfLoggedSudokuBoards + " Sudoku board(s) to the logs directory!");
-            }
-
-            int numberOfLoggedActions = this.logFactory.getProgramActionList().size();
-            if (numberOfLoggedActions != 0) {
-                System.out.println("Saved " + numberOfLoggedActions + " action(s) to the logs directory!");
-            }
+        try (OutputStream logOutputStream = this.logOutputStream) {
+            this.xmlStreamWriter.writeEndElement();
+            this.xmlStreamWriter.writeCharacters("\n");
+            this.xmlStreamWriter.writeComment(footerIndexBuilder.toString());
+            this.xmlStreamWriter.writeCharacters("\n");
+            this.xmlStreamWriter.writeEndDocument();
+            this.xmlStreamWriter.close();
+            logOutputStream.flush();
+            this.fileChannel.force(false);
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not finish the log file: " + this.logFile, e);
         }
+
+        int numberOfLoggedSudokuBoards = this.originalGridOffsets.size();
+        if (numberOfLoggedSudokuBoards != 0) {
+            System.out.println("Saved " + numberOfLoggedSudokuBoards + " Sudoku board(s) to " + this.logFile + "!");
+        }
+
+        if (this.numberOfLoggedActions != 0) {
+            System.out.println("Saved " + this.numberOfLoggedActions + " action(s) to " + this.logFile + "!");
+        }
+    }
+
+    /**
+     * Closes the journal (see finish()). An error is printed.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            this.finish();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Getter for logFile
+     *
+     * @return The log file that the journal is written to.
+     */
+    public File getLogFile() {
+        return this.logFile;
     }
 }
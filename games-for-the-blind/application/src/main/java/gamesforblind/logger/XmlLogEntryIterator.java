@@ -0,0 +1,251 @@
+package gamesforblind.logger;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Reads the entries of a XML log file one at a time with a pull parser (StAX), so that a log of any size is read in
+ * constant memory. Only the entries whose element name passes the filter are unmarshalled; the others are skipped
+ * without creating any objects. The log file is closed as soon as the last entry was read.
+ * <p>
+ * A log file that ends early (the journal of a session that crashed, see {@link LogWriter}) is read up to the last
+ * complete entry.
+ *
+ * @param <T> The class of the entries that pass the filter.
+ */
+final class XmlLogEntryIterator<T> implements Iterator<T>, Closeable {
+    /**
+     * Creates the pull parsers (thread-safe once it's configured).
+     */
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    /**
+     * The log file that is read.
+     */
+    private final InputStream logInputStream;
+
+    /**
+     * The pull parser over the log file.
+     */
+    private final XMLStreamReader xmlStreamReader;
+
+    /**
+     * The class of the entries to return.
+     */
+    private final Class<T> entryClass;
+
+    /**
+     * Tells if an entry with the given element name should be returned (otherwise, it's skipped).
+     */
+    private final Predicate<String> entryNameFilter;
+
+    /**
+     * The entry that next() returns (null if it wasn't read yet or there are no entries left).
+     */
+    private T nextEntry;
+
+    /**
+     * Set to true when the parser is at a token that wasn't looked at yet (JAXB leaves the parser right after the end
+     * of the entry that it unmarshalled, which might be the start of the next entry).
+     */
+    private boolean isAtUnreadToken;
+
+    /**
+     * Why the iterator stopped at an incomplete or invalid entry (null if it didn't).
+     */
+    private Exception readError;
+
+    /**
+     * Set to true once the log file is closed (no entries are left).
+     */
+    private boolean isClosed;
+
+    /**
+     * Creates a new XmlLogEntryIterator.
+     *
+     * @param logFile         The log file to read.
+     * @param offset          The byte offset to start reading at (0 for the start of the log file, or the start of a
+     *                        single entry from the footer index; then, only that entry is read).
+     * @param entryClass      The class of the entries to return.
+     * @param entryNameFilter Tells if an entry with the given element name should be returned.
+     * @throws IOException Thrown when the log file cannot be opened.
+     */
+    XmlLogEntryIterator(
+            @NotNull File logFile, long offset, @NotNull Class<T> entryClass, @NotNull Predicate<String> entryNameFilter
+    ) throws IOException {
+        FileInputStream fileInputStream = new FileInputStream(logFile);
+        try {
+            fileInputStream.getChannel().position(offset);
+            this.logInputStream = (offset == 0)
+                    ? new BufferedInputStream(fileInputStream)
+                    : readEntryLine(fileInputStream);
+            this.xmlStreamReader = XML_INPUT_FACTORY.createXMLStreamReader(this.logInputStream, "UTF-8");
+        } catch (IOException | XMLStreamException e) {
+            fileInputStream.close();
+            throw new IOException("Could not read the log file: " + logFile, e);
+        }
+
+        this.entryClass = entryClass;
+        this.entryNameFilter = entryNameFilter;
+    }
+
+    /**
+     * Reads the single line of an entry (see {@link LogWriter}) into memory & closes the log file. The entry is parsed
+     * on its own: past its end, the parser would fail on the next entry (a second root element).
+     *
+     * @param fileInputStream The log file, at the start of the entry's line.
+     * @return The line of the entry.
+     * @throws IOException Thrown when the log file cannot be read.
+     */
+    private static InputStream readEntryLine(@NotNull FileInputStream fileInputStream) throws IOException {
+        ByteArrayOutputStream entryOutputStream = new ByteArrayOutputStream();
+        try (InputStream logInputStream = new BufferedInputStream(fileInputStream)) {
+            int nextByte;
+            while ((nextByte = logInputStream.read()) != -1 && nextByte != '\n') {
+                entryOutputStream.write(nextByte);
+            }
+        }
+        return new ByteArrayInputStream(entryOutputStream.toByteArray());
+    }
+
+    /**
+     * Skips the element that the parser is at (along with all of its children).
+     *
+     * @throws XMLStreamException Thrown when the log file is not valid XML.
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = this.xmlStreamReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Reads up to the next entry that passes the filter.
+     *
+     * @return The next entry, or null if there are no entries left.
+     * @throws XMLStreamException Thrown when the log file is not valid XML (e.g. when it ends early).
+     * @throws JAXBException      Thrown when an entry cannot be unmarshalled.
+     */
+    private T readNextEntry() throws XMLStreamException, JAXBException {
+        while (true) {
+            if (!this.isAtUnreadToken) {
+                if (!this.xmlStreamReader.hasNext()) {
+                    return null;
+                }
+                this.xmlStreamReader.next();
+            }
+            this.isAtUnreadToken = false;
+
+            if (this.xmlStreamReader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            // Entries are the only elements (besides <log>) that are seen here, since they are read as a whole.
+            String elementName = this.xmlStreamReader.getLocalName();
+            if (elementName.equals(LogReader.LOG_TAG_NAME)) {
+                continue;
+            }
+            if (!this.entryNameFilter.test(elementName)) {
+                this.skipElement();
+                continue;
+            }
+
+            Object entry = LogJaxbContext.getUnmarshaller().unmarshal(this.xmlStreamReader);
+            this.isAtUnreadToken = true;
+
+            if (entry instanceof JAXBElement) {
+                entry = ((JAXBElement<?>) entry).getValue();
+            }
+            if (this.entryClass.isInstance(entry)) {
+                return this.entryClass.cast(entry);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.nextEntry != null) {
+            return true;
+        }
+        if (this.isClosed) {
+            return false;
+        }
+
+        try {
+            this.nextEntry = this.readNextEntry();
+        } catch (XMLStreamException | JAXBException e) {
+            System.err.println("Stopped reading the log file at an incomplete or invalid entry: " + e);
+            this.readError = e;
+        }
+
+        if (this.nextEntry == null) {
+            this.close();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException("There are no entries left in the log file!");
+        }
+
+        T entry = this.nextEntry;
+        this.nextEntry = null;
+        return entry;
+    }
+
+    /**
+     * Throws if the iterator stopped at an incomplete or invalid entry, instead of at the end of the log file
+     * (for where a lost entry must not go unnoticed, e.g. {@link LogConverter}).
+     *
+     * @throws IOException Thrown when the iterator stopped early (caused by the error that stopped it).
+     */
+    void throwIfStoppedEarly() throws IOException {
+        if (this.readError != null) {
+            throw new IOException("The log file ends early or has an invalid entry!", this.readError);
+        }
+    }
+
+    /**
+     * Closes the log file (the remaining entries aren't read).
+     */
+    @Override
+    public void close() {
+        if (this.isClosed) {
+            return;
+        }
+        this.isClosed = true;
+
+        try {
+            this.xmlStreamReader.close();
+            this.logInputStream.close();
+        } catch (XMLStreamException | IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package gamesforblind.sudoku;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
@@ -20,6 +21,12 @@ public class OriginalSudokuGrid {
     @XmlElement
     private int[][] grid;
 
+    /**
+     * A 2D array of ints representing the solved Sudoku board. Log files from older versions don't contain it.
+     */
+    @XmlElement
+    private int[][] solution;
+
     /**
      * Static factory method that creates a new instance of OriginalSudokuGrid using a 2D array of ints.
      *
@@ -32,6 +39,19 @@ public class OriginalSudokuGrid {
         return originalSudokuGrid;
     }
 
+    /**
+     * Static factory method that creates a new instance of OriginalSudokuGrid along with its (unique) solution.
+     *
+     * @param originalGrid The 2D array of ints to initialize the class with.
+     * @param solution     The 2D array of ints representing the solved board.
+     * @return A OriginalSudokuGrid containing the passed 2D arrays of ints.
+     */
+    public static OriginalSudokuGrid of(@NotNull int[][] originalGrid, @NotNull int[][] solution) {
+        OriginalSudokuGrid originalSudokuGrid = of(originalGrid);
+        originalSudokuGrid.solution = solution;
+        return originalSudokuGrid;
+    }
+
     /**
      * Getter for grid
      *
@@ -40,4 +60,14 @@ public class OriginalSudokuGrid {
     public int[][] getGrid() {
         return this.grid;
     }
+
+    /**
+     * Getter for solution
+     *
+     * @return A 2D array of ints representing the solved Sudoku board (null if it wasn't logged).
+     */
+    @Nullable
+    public int[][] getSolution() {
+        return this.solution;
+    }
 }
@@ -0,0 +1,303 @@
+package gamesforblind.sudoku;
+
+import gamesforblind.enums.SudokuDifficulty;
+import gamesforblind.enums.SudokuType;
+import gamesforblind.sudoku.generator.Grader;
+import gamesforblind.sudoku.generator.Grid;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+
+import static gamesforblind.Constants.PUZZLE_BANK_DIRECTORY;
+
+/**
+ * A read-only library of pre-generated puzzles for one {@link SudokuType}, read through a memory-mapped file.
+ * Picking a puzzle is an indexed read: no parsing of the whole file & no solver work.
+ * <p>
+ * File layout (big-endian):
+ * <ul>
+ * <li>the magic number "SPB1", the board size (1 byte) & 3 bytes of padding</li>
+ * <li>the number of records (int)</li>
+ * <li>257 ints: the index of the first record with each difficulty (0-255), followed by the number of records.
+ * Records are sorted by difficulty, so the records of difficulty d are [start[d], start[d + 1]).</li>
+ * <li>the records: the puzzle & its solution as packed nibbles (one per square, two per byte, row-major order),
+ * followed by the difficulty byte.</li>
+ * </ul>
+ * The difficulty byte is the ordinal of the puzzle's {@link SudokuDifficulty} (as graded by the {@link Grader}).
+ */
+public class PuzzleBank {
+    /**
+     * The first four bytes of every puzzle bank file ("SPB1").
+     */
+    private static final int MAGIC_NUMBER = 0x53504231;
+
+    /**
+     * The number of different difficulty values (a difficulty is stored as an unsigned byte).
+     */
+    private static final int NUMBER_OF_DIFFICULTIES = 256;
+
+    /**
+     * The size of the header in bytes (magic number, board size & padding, record count & difficulty index).
+     */
+    private static final int HEADER_SIZE = 4 + 4 + 4 + (NUMBER_OF_DIFFICULTIES + 1) * 4;
+
+    private final SudokuType sudokuType;
+    private final MappedByteBuffer mappedBuffer;
+
+    /* The number of bytes used for a board of packed nibbles & for an entire record. */
+    private final int packedBoardSize;
+    private final int recordSize;
+
+    /**
+     * Creates a new PuzzleBank from a memory-mapped bank file.
+     *
+     * @param sudokuType   Whether the puzzles are 4x4, 6x6, or 9x9 boards.
+     * @param mappedBuffer The memory-mapped contents of the bank file.
+     */
+    private PuzzleBank(@NotNull SudokuType sudokuType, @NotNull MappedByteBuffer mappedBuffer) {
+        this.sudokuType = sudokuType;
+        this.mappedBuffer = mappedBuffer;
+
+        int sudokuBoardSize = sudokuType.getSudokuBoardSize();
+        this.packedBoardSize = (sudokuBoardSize * sudokuBoardSize + 1) / 2;
+        this.recordSize = 2 * this.packedBoardSize + 1;
+    }
+
+    /**
+     * Gets the default bank file for a {@link SudokuType} (e.g. "puzzles/puzzles-9x9.bank").
+     *
+     * @param sudokuType Whether the puzzles are 4x4, 6x6, or 9x9 boards.
+     * @return The bank file in the puzzle bank directory.
+     */
+    public static File getDefaultBankFile(@NotNull SudokuType sudokuType) {
+        int sudokuBoardSize = sudokuType.getSudokuBoardSize();
+        return new File(PUZZLE_BANK_DIRECTORY, String.format("puzzles-%dx%d.bank", sudokuBoardSize, sudokuBoardSize));
+    }
+
+    /**
+     * Opens the default bank file for a {@link SudokuType} (see {@link #getDefaultBankFile(SudokuType)}).
+     *
+     * @param sudokuType Whether the puzzles are 4x4, 6x6, or 9x9 boards.
+     * @return The opened PuzzleBank, or empty() if there is no (valid) bank file.
+     */
+    public static Optional<PuzzleBank> open(@NotNull SudokuType sudokuType) {
+        return open(getDefaultBankFile(sudokuType), sudokuType);
+    }
+
+    /**
+     * Memory-maps a bank file & checks its header.
+     *
+     * @param bankFile   The bank file to open.
+     * @param sudokuType Whether the puzzles should be 4x4, 6x6, or 9x9 boards.
+     * @return The opened PuzzleBank, or empty() if the file doesn't exist or isn't a bank for the {@link SudokuType}.
+     */
+    public static Optional<PuzzleBank> open(@NotNull File bankFile, @NotNull SudokuType sudokuType) {
+        if (!bankFile.isFile()) {
+            return Optional.empty();
+        }
+
+        // The mapping stays valid after the channel is closed.
+        MappedByteBuffer mappedBuffer;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(bankFile, "r");
+             FileChannel fileChannel = randomAccessFile.getChannel()) {
+            mappedBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+
+        PuzzleBank puzzleBank = new PuzzleBank(sudokuType, mappedBuffer);
+        if (mappedBuffer.capacity() < HEADER_SIZE
+                || mappedBuffer.getInt(0) != MAGIC_NUMBER
+                || mappedBuffer.get(4) != sudokuType.getSudokuBoardSize()
+                || mappedBuffer.capacity() != puzzleBank.getExpectedFileSize()) {
+            System.err.println("Not a valid puzzle bank for " + sudokuType + ": " + bankFile);
+            return Optional.empty();
+        }
+
+        return Optional.of(puzzleBank);
+    }
+
+    /**
+     * Writes a bank file. The puzzles are graded & sorted by difficulty.
+     *
+     * @param bankFile   The bank file to write.
+     * @param sudokuType Whether the puzzles are 4x4, 6x6, or 9x9 boards.
+     * @param puzzles    The puzzles to write (each must have a solution).
+     * @throws IOException If the file couldn't be written.
+     */
+    public static void write(
+            @NotNull File bankFile, @NotNull SudokuType sudokuType, @NotNull List<OriginalSudokuGrid> puzzles
+    ) throws IOException {
+        Grader grader = new Grader(sudokuType);
+        int[] difficulties = new int[puzzles.size()];
+        for (int i = 0; i < puzzles.size(); i++) {
+            difficulties[i] = grader.grade(Grid.of(puzzles.get(i).getGrid(), sudokuType)).ordinal();
+        }
+
+        // The order of the records (sorted by difficulty).
+        List<Integer> recordOrder = new ArrayList<>();
+        for (int i = 0; i < puzzles.size(); i++) {
+            recordOrder.add(i);
+        }
+        recordOrder.sort(Comparator.comparingInt(i -> difficulties[i]));
+
+        int sudokuBoardSize = sudokuType.getSudokuBoardSize();
+        int packedBoardSize = (sudokuBoardSize * sudokuBoardSize + 1) / 2;
+        int recordSize = 2 * packedBoardSize + 1;
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + puzzles.size() * recordSize);
+        buffer.putInt(MAGIC_NUMBER).put((byte) sudokuBoardSize).put(new byte[3]).putInt(puzzles.size());
+
+        // The difficulty index: the first record with a difficulty of at least d.
+        int recordIndex = 0;
+        for (int difficulty = 0; difficulty <= NUMBER_OF_DIFFICULTIES; difficulty++) {
+            while (recordIndex < puzzles.size() && difficulties[recordOrder.get(recordIndex)] < difficulty) {
+                recordIndex++;
+            }
+            buffer.putInt(recordIndex);
+        }
+
+        for (int puzzleIndex : recordOrder) {
+            OriginalSudokuGrid puzzle = puzzles.get(puzzleIndex);
+            putPackedBoard(buffer, puzzle.getGrid(), packedBoardSize);
+            putPackedBoard(buffer, Objects.requireNonNull(puzzle.getSolution()), packedBoardSize);
+            buffer.put((byte) difficulties[puzzleIndex]);
+        }
+
+        File bankDirectory = bankFile.getAbsoluteFile().getParentFile();
+        if (bankDirectory != null && !bankDirectory.exists() && !bankDirectory.mkdirs()) {
+            throw new IOException("Could not create the puzzle bank directory: " + bankDirectory);
+        }
+
+        buffer.flip();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(bankFile, "rw");
+             FileChannel fileChannel = randomAccessFile.getChannel()) {
+            fileChannel.truncate(0);
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Writes a board as packed nibbles (the first square in the high nibble).
+     *
+     * @param buffer          Where the packed board is written to.
+     * @param board           The 2D array of ints representing the board.
+     * @param packedBoardSize The number of bytes that the packed board takes up.
+     */
+    private static void putPackedBoard(@NotNull ByteBuffer buffer, @NotNull int[][] board, int packedBoardSize) {
+        byte[] packedBoard = new byte[packedBoardSize];
+        int sudokuBoardSize = board.length;
+        for (int index = 0; index < sudokuBoardSize * sudokuBoardSize; index++) {
+            int value = board[index / sudokuBoardSize][index % sudokuBoardSize];
+            packedBoard[index / 2] |= (index % 2 == 0) ? value << 4 : value;
+        }
+        buffer.put(packedBoard);
+    }
+
+    /**
+     * Gets the total number of puzzles in the bank.
+     *
+     * @return The number of records in the bank file.
+     */
+    public int getNumberOfPuzzles() {
+        return this.mappedBuffer.getInt(8);
+    }
+
+    /**
+     * Gets the number of puzzles with the given difficulty.
+     *
+     * @param sudokuDifficulty The difficulty of the puzzles.
+     * @return The number of puzzles in the bank with this difficulty.
+     */
+    public int getNumberOfPuzzles(@NotNull SudokuDifficulty sudokuDifficulty) {
+        int difficulty = sudokuDifficulty.ordinal();
+        return this.getFirstRecordIndex(difficulty + 1) - this.getFirstRecordIndex(difficulty);
+    }
+
+    /**
+     * Picks a random puzzle with the given difficulty.
+     *
+     * @param sudokuDifficulty The difficulty of the puzzle.
+     * @param random           Decides which puzzle is picked.
+     * @return A random puzzle of this difficulty, or empty() if the bank has none.
+     */
+    public Optional<OriginalSudokuGrid> getRandomPuzzle(
+            @NotNull SudokuDifficulty sudokuDifficulty, @NotNull Random random
+    ) {
+        int difficulty = sudokuDifficulty.ordinal();
+        int numberOfPuzzles = this.getNumberOfPuzzles(sudokuDifficulty);
+        if (numberOfPuzzles == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(this.getPuzzle(this.getFirstRecordIndex(difficulty) + random.nextInt(numberOfPuzzles)));
+    }
+
+    /**
+     * Reads a puzzle (along with its solution) from the bank. The result can be used wherever a logged
+     * {@link OriginalSudokuGrid} is used (e.g. to seed the first board with "-i", see {@link SudokuPuzzlePool}).
+     *
+     * @param recordIndex The index of the record (0 to the number of puzzles - 1).
+     * @return The puzzle along with its solution.
+     */
+    public OriginalSudokuGrid getPuzzle(int recordIndex) {
+        if (recordIndex < 0 || recordIndex >= this.getNumberOfPuzzles()) {
+            throw new IndexOutOfBoundsException("No puzzle " + recordIndex + " in the " + this.sudokuType + " bank");
+        }
+
+        int recordOffset = HEADER_SIZE + recordIndex * this.recordSize;
+        return OriginalSudokuGrid.of(
+                this.getPackedBoard(recordOffset),
+                this.getPackedBoard(recordOffset + this.packedBoardSize)
+        );
+    }
+
+    /**
+     * Gets the size that the bank file should have, based on the number of records in its header.
+     *
+     * @return The expected size of the bank file in bytes.
+     */
+    private long getExpectedFileSize() {
+        return HEADER_SIZE + (long) this.getNumberOfPuzzles() * this.recordSize;
+    }
+
+    /**
+     * Gets the index of the first record with (at least) the given difficulty.
+     *
+     * @param difficulty The difficulty (0-256, where 256 gives the number of records).
+     * @return The index of the first record with this difficulty.
+     */
+    private int getFirstRecordIndex(int difficulty) {
+        return this.mappedBuffer.getInt(12 + difficulty * 4);
+    }
+
+    /**
+     * Reads a board of packed nibbles (uses absolute reads, so it is safe to call from multiple threads).
+     *
+     * @param offset The offset of the packed board in the bank file.
+     * @return The 2D array of ints representing the board.
+     */
+    private int[][] getPackedBoard(int offset) {
+        int sudokuBoardSize = this.sudokuType.getSudokuBoardSize();
+        int[][] board = new int[sudokuBoardSize][sudokuBoardSize];
+        for (int index = 0; index < sudokuBoardSize * sudokuBoardSize; index++) {
+            int packedByte = this.mappedBuffer.get(offset + index / 2);
+            board[index / sudokuBoardSize][index % sudokuBoardSize] =
+                    (index % 2 == 0) ? (packedByte >> 4) & 0xF : packedByte & 0xF;
+        }
+        return board;
+    }
+}
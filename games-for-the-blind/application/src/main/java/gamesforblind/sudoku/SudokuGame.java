@@ -9,9 +9,11 @@ import gamesforblind.sudoku.action.*;
 import gamesforblind.sudoku.gui.SudokuFrame;
 import gamesforblind.synthesizer.AudioPlayerExecutor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
 import java.util.Map;
+import java.util.Objects;
 
 import static util.MapUtil.entry;
 import static util.MapUtil.map;
@@ -35,13 +37,15 @@ public class SudokuGame {
      * @param audioPlayerExecutor Class used to execute the threaded audio player.
      * @param logFactory          Where all of the logs are stored or read from (depending on whether in playback mode).
      * @param programArgs         The program arguments that were passed.
+     * @param sudokuPuzzlePool    Where new boards are taken from (null if the program is in playback mode).
      */
     public SudokuGame(
             @NotNull GameLoader gameLoader,
             @NotNull SudokuType sudokuType,
             @NotNull AudioPlayerExecutor audioPlayerExecutor,
             @NotNull LogFactory logFactory,
-            @NotNull ProgramArgs programArgs
+            @NotNull ProgramArgs programArgs,
+            @Nullable SudokuPuzzlePool sudokuPuzzlePool
     ) {
         this.gameLoader = gameLoader;
         this.programArgs = programArgs;
@@ -55,7 +59,9 @@ public class SudokuGame {
             );
         } else {
             // Case 2: the program is not in playback mode (set the log factory's original Sudoku state).
-            this.sudokuState = new SudokuState(selectedInterfaceType, sudokuType, audioPlayerExecutor);
+            this.sudokuState = new SudokuState(
+                    selectedInterfaceType, sudokuType, audioPlayerExecutor, Objects.requireNonNull(sudokuPuzzlePool)
+            );
             this.logFactory.addOriginalSudokuGrid(this.sudokuState.getOriginalGrid());
         }
 
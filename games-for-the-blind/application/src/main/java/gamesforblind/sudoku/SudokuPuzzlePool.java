@@ -0,0 +1,261 @@
+package gamesforblind.sudoku;
+
+import gamesforblind.enums.SudokuDifficulty;
+import gamesforblind.enums.SudokuType;
+import gamesforblind.sudoku.generator.Generator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static gamesforblind.Constants.EMPTY_SUDOKU_SQUARE;
+
+/**
+ * Holds a few ready-to-play Sudoku puzzles for each {@link SudokuType}, so that starting or restarting
+ * a board doesn't have to wait for the {@link Generator}. The pool is refilled on a background thread.
+ * If a {@link PuzzleBank} file exists for a {@link SudokuType}, the puzzles are read from it instead.
+ * <p>
+ * Either way, every puzzle has a unique solution & a third of its squares empty: bank puzzles have as many squares
+ * erased as their difficulty allows, so squares are filled back in from their solution until a third are empty.
+ * <p>
+ * The first board can also be a specific bank puzzle (see {@link #SudokuPuzzlePool(Integer)}), which is played as it
+ * was stored. Like every board, it's logged as an {@link OriginalSudokuGrid}, so its playback needs no bank.
+ */
+public class SudokuPuzzlePool {
+    /**
+     * The maximum number of ready puzzles that are kept for each {@link SudokuType}.
+     */
+    private static final int PUZZLES_PER_SUDOKU_TYPE = 3;
+
+    /**
+     * The difficulty of the puzzles that are picked from a {@link PuzzleBank} (before squares are filled back in,
+     * which can only make a puzzle easier).
+     */
+    private static final SudokuDifficulty PUZZLE_BANK_DIFFICULTY = SudokuDifficulty.EASY;
+
+    /**
+     * The ready puzzles (along with their solutions) for each {@link SudokuType}.
+     */
+    private final Map<SudokuType, BlockingQueue<OriginalSudokuGrid>> sudokuTypeToPuzzles =
+            new EnumMap<>(SudokuType.class);
+
+    /**
+     * The puzzle banks that were found on disk (not every {@link SudokuType} needs to have one). Only the banks with
+     * puzzles of PUZZLE_BANK_DIFFICULTY are used for random puzzles.
+     */
+    private final Map<SudokuType, PuzzleBank> sudokuTypeToPuzzleBank = new EnumMap<>(SudokuType.class);
+
+    /**
+     * The index of the bank puzzle that the first board is seeded with (null if the first board was taken already,
+     * or if it should be picked like any other board).
+     */
+    @Nullable
+    private Integer firstBankPuzzleIndex;
+
+    /**
+     * Decides which puzzle is picked from a {@link PuzzleBank}.
+     */
+    private final Random random = new Random();
+
+    /**
+     * Whether a refill is already scheduled for each {@link SudokuType} (prevents piling up refill tasks).
+     */
+    private final Map<SudokuType, AtomicBoolean> sudokuTypeToRefillScheduled = new EnumMap<>(SudokuType.class);
+
+    /**
+     * Generates the puzzles in the background (a daemon thread, so that it doesn't keep the program alive).
+     */
+    private final ExecutorService refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread refillThread = new Thread(runnable, "sudoku-puzzle-pool");
+        refillThread.setDaemon(true);
+        refillThread.setPriority(Thread.MIN_PRIORITY);
+        return refillThread;
+    });
+
+    /**
+     * Creates a new SudokuPuzzlePool & starts filling it for every {@link SudokuType} that has no {@link PuzzleBank}
+     * (with puzzles of PUZZLE_BANK_DIFFICULTY).
+     *
+     * @param firstBankPuzzleIndex The index of the {@link PuzzleBank} puzzle that the first board is seeded with
+     *                             (null if the first board should be picked like any other board).
+     */
+    public SudokuPuzzlePool(@Nullable Integer firstBankPuzzleIndex) {
+        this.firstBankPuzzleIndex = firstBankPuzzleIndex;
+
+        for (SudokuType sudokuType : SudokuType.values()) {
+            this.sudokuTypeToPuzzles.put(sudokuType, new ArrayBlockingQueue<>(PUZZLES_PER_SUDOKU_TYPE));
+            this.sudokuTypeToRefillScheduled.put(sudokuType, new AtomicBoolean(false));
+
+            Optional<PuzzleBank> maybePuzzleBank = PuzzleBank.open(sudokuType);
+            maybePuzzleBank.ifPresent(puzzleBank -> this.sudokuTypeToPuzzleBank.put(sudokuType, puzzleBank));
+            if (!maybePuzzleBank.filter(this::hasRandomPuzzles).isPresent()) {
+                this.scheduleRefill(sudokuType);
+            }
+        }
+    }
+
+    /**
+     * Checks if random puzzles can be picked from a {@link PuzzleBank}.
+     *
+     * @param puzzleBank The puzzle bank to check.
+     * @return true if the bank has puzzles of PUZZLE_BANK_DIFFICULTY (otherwise, false).
+     */
+    private boolean hasRandomPuzzles(@NotNull PuzzleBank puzzleBank) {
+        return puzzleBank.getNumberOfPuzzles(PUZZLE_BANK_DIFFICULTY) > 0;
+    }
+
+    /**
+     * Gets the number of empty cells that we initially want in a puzzle.
+     *
+     * @param sudokuType Whether the puzzle is a 4x4, 6x6, or 9x9 board.
+     * @return The number of initial empty cells that I want in the game.
+     */
+    private static int getInitialNumberOfEmptyCells(@NotNull SudokuType sudokuType) {
+        int sudokuBoardSize = sudokuType.getSudokuBoardSize();
+        return (sudokuBoardSize * sudokuBoardSize) / 3;
+    }
+
+    /**
+     * Generates a new puzzle with a unique solution.
+     *
+     * @param sudokuType Whether the puzzle is a 4x4, 6x6, or 9x9 board.
+     * @return The generated puzzle along with its solution.
+     */
+    private static OriginalSudokuGrid generatePuzzle(@NotNull SudokuType sudokuType) {
+        return new Generator(sudokuType).generateWithUniqueSolution(getInitialNumberOfEmptyCells(sudokuType));
+    }
+
+    /**
+     * Fills in squares of a puzzle from its solution (in a random order) until it has the initial number of empty
+     * cells, so that bank puzzles match generated puzzles. Filling in squares keeps the solution unique.
+     * A puzzle that already has fewer empty cells is returned as is.
+     *
+     * @param puzzle     The puzzle along with its solution (e.g. from a {@link PuzzleBank}).
+     * @param sudokuType Whether the puzzle is a 4x4, 6x6, or 9x9 board.
+     * @return The puzzle with the initial number of empty cells (along with its solution).
+     */
+    private OriginalSudokuGrid fillInToInitialNumberOfEmptyCells(
+            @NotNull OriginalSudokuGrid puzzle, @NotNull SudokuType sudokuType
+    ) {
+        int[][] solution = puzzle.getSolution();
+        if (solution == null) {
+            return puzzle;
+        }
+
+        int[][] grid = puzzle.getGrid();
+        List<Point> emptySquares = new ArrayList<>();
+        for (int row = 0; row < grid.length; row++) {
+            for (int column = 0; column < grid[row].length; column++) {
+                if (grid[row][column] == EMPTY_SUDOKU_SQUARE) {
+                    emptySquares.add(new Point(column, row));
+                }
+            }
+        }
+
+        Collections.shuffle(emptySquares, this.random);
+        int numberOfSquaresToFillIn = emptySquares.size() - getInitialNumberOfEmptyCells(sudokuType);
+        for (Point square : emptySquares.subList(0, Math.max(0, numberOfSquaresToFillIn))) {
+            grid[square.y][square.x] = solution[square.y][square.x];
+        }
+
+        return OriginalSudokuGrid.of(grid, solution);
+    }
+
+    /**
+     * Reads the bank puzzle that the first board is seeded with (only for the first board that is taken).
+     *
+     * @param sudokuType Whether the puzzle should be a 4x4, 6x6, or 9x9 board.
+     * @return The bank puzzle along with its solution, or empty() if it was taken already (or there is none).
+     */
+    private Optional<OriginalSudokuGrid> takeFirstBankPuzzle(@NotNull SudokuType sudokuType) {
+        Integer recordIndex = this.firstBankPuzzleIndex;
+        this.firstBankPuzzleIndex = null;
+        if (recordIndex == null) {
+            return Optional.empty();
+        }
+
+        PuzzleBank puzzleBank = this.sudokuTypeToPuzzleBank.get(sudokuType);
+        if (puzzleBank == null || recordIndex >= puzzleBank.getNumberOfPuzzles()) {
+            System.err.println("No puzzle " + recordIndex + " in a " + sudokuType + " puzzle bank, so it was skipped!");
+            return Optional.empty();
+        }
+        return Optional.of(puzzleBank.getPuzzle(recordIndex));
+    }
+
+    /**
+     * Takes a ready puzzle from the pool & schedules a refill. If the pool is empty (e.g. many restarts
+     * in a row), the puzzle is generated on the calling thread instead.
+     * If there is a {@link PuzzleBank} for the {@link SudokuType}, a random puzzle is read from it.
+     * The first board that is taken can be a specific bank puzzle instead (see {@link #SudokuPuzzlePool(Integer)}).
+     *
+     * @param sudokuType Whether the puzzle should be a 4x4, 6x6, or 9x9 board.
+     * @return A puzzle along with its solution.
+     */
+    public OriginalSudokuGrid takePuzzle(@NotNull SudokuType sudokuType) {
+        Optional<OriginalSudokuGrid> maybeFirstBankPuzzle = this.takeFirstBankPuzzle(sudokuType);
+        if (maybeFirstBankPuzzle.isPresent()) {
+            return maybeFirstBankPuzzle.get();
+        }
+
+        PuzzleBank puzzleBank = this.sudokuTypeToPuzzleBank.get(sudokuType);
+        if (puzzleBank != null) {
+            Optional<OriginalSudokuGrid> maybePuzzle = puzzleBank.getRandomPuzzle(PUZZLE_BANK_DIFFICULTY, this.random);
+            if (maybePuzzle.isPresent()) {
+                return this.fillInToInitialNumberOfEmptyCells(maybePuzzle.get(), sudokuType);
+            }
+        }
+
+        OriginalSudokuGrid puzzle = this.sudokuTypeToPuzzles.get(sudokuType).poll();
+        this.scheduleRefill(sudokuType);
+
+        if (puzzle != null) {
+            return puzzle;
+        }
+        return generatePuzzle(sudokuType);
+    }
+
+    /**
+     * Fills the pool for the given {@link SudokuType} on the background thread (unless a refill is already scheduled).
+     *
+     * @param sudokuType Whether the puzzles are 4x4, 6x6, or 9x9 boards.
+     */
+    private void scheduleRefill(@NotNull SudokuType sudokuType) {
+        AtomicBoolean refillScheduled = this.sudokuTypeToRefillScheduled.get(sudokuType);
+        if (!refillScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        this.refillExecutor.execute(() -> {
+            BlockingQueue<OriginalSudokuGrid> puzzles = this.sudokuTypeToPuzzles.get(sudokuType);
+            try {
+                while (puzzles.remainingCapacity() > 0) {
+                    puzzles.offer(generatePuzzle(sudokuType));
+                }
+            } catch (RuntimeException e) {
+                // Don't retry (generation would most likely fail again); the next takePuzzle() schedules a refill.
+                e.printStackTrace();
+                refillScheduled.set(false);
+                return;
+            }
+            refillScheduled.set(false);
+
+            // A puzzle that was taken after the last check of the loop (but before the flag was cleared) could not
+            // schedule a refill, so check again now that it's cleared.
+            if (puzzles.remainingCapacity() > 0) {
+                this.scheduleRefill(sudokuType);
+            }
+        });
+    }
+}
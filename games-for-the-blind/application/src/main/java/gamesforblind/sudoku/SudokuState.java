@@ -4,9 +4,9 @@ import gamesforblind.enums.*;
 import gamesforblind.sudoku.action.SudokuHighlightAction;
 import gamesforblind.sudoku.action.SudokuHotKeyAction;
 import gamesforblind.sudoku.generator.Cell;
-import gamesforblind.sudoku.generator.Generator;
+import gamesforblind.sudoku.generator.DancingLinksSolver;
 import gamesforblind.sudoku.generator.Grid;
-import gamesforblind.sudoku.generator.Solver;
+import gamesforblind.sudoku.generator.SudokuSolver;
 import gamesforblind.sudoku.interfaces.SudokuArrowKeyInterface;
 import gamesforblind.sudoku.interfaces.SudokuBlockSelectionInterface;
 import gamesforblind.sudoku.interfaces.SudokuKeyboardInterface;
@@ -21,7 +21,9 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Optional;
+import java.util.Set;
 
 import static gamesforblind.Constants.EMPTY_SUDOKU_SQUARE;
 import static java.util.Arrays.*;
@@ -34,11 +36,21 @@ public class SudokuState {
     private final SudokuType sudokuType;
     private final SudokuKeyboardInterface sudokuKeyboardInterface;
     private final AudioPlayerExecutor audioPlayerExecutor;
+    private final SudokuSolver sudokuSolver;
+
+    /**
+     * Where new boards are taken from (null in playback mode, since the boards are restored from the log).
+     */
+    @Nullable
+    private final SudokuPuzzlePool sudokuPuzzlePool;
 
     private Instant startingInstant;
     private OriginalSudokuGrid originalGrid;
     private Grid sudokuGrid;
     private ArrayList<Point> originallyFilledSquares;
+    private int[][] solution;
+    private boolean hasUniqueSolution;
+    private boolean hasLoggedSolution;
 
     private int numberOfEmptyCells;
     private boolean gameOver;
@@ -62,11 +74,14 @@ public class SudokuState {
 
         this.sudokuType = sudokuType;
         this.audioPlayerExecutor = audioPlayerExecutor;
+        this.sudokuSolver = new DancingLinksSolver(sudokuType);
+        this.sudokuPuzzlePool = null;
 
-        this.numberOfEmptyCells = this.getInitialNumberOfEmptyCells(sudokuType.getSudokuBoardSize());
         this.sudokuGrid = Grid.of(originalGrid.getGrid(), sudokuType);
         this.originalGrid = originalGrid;
+        this.numberOfEmptyCells = this.countEmptyCells();
         this.originallyFilledSquares = this.initializeOriginallyFilledSquares();
+        this.initializeSolution();
 
         this.sudokuKeyboardInterface = this.initializeKeyboardInterface(interfaceType);
     }
@@ -77,22 +92,27 @@ public class SudokuState {
      * @param interfaceType       The keyboard interface type that is being used in the game.
      * @param sudokuType          Whether the Sudoku game is a 4x4, 6x6, or 9x9 variant.
      * @param audioPlayerExecutor Calls into the threaded audio player for the game.
+     * @param sudokuPuzzlePool    Where the (pre-generated) boards are taken from.
      */
     public SudokuState(
             @NotNull InterfaceType interfaceType,
             @NotNull SudokuType sudokuType,
-            @NotNull AudioPlayerExecutor audioPlayerExecutor
+            @NotNull AudioPlayerExecutor audioPlayerExecutor,
+            @NotNull SudokuPuzzlePool sudokuPuzzlePool
     ) {
         this.gameOver = false;
         this.startingInstant = Instant.now();
 
         this.sudokuType = sudokuType;
         this.audioPlayerExecutor = audioPlayerExecutor;
+        this.sudokuSolver = new DancingLinksSolver(sudokuType);
+        this.sudokuPuzzlePool = sudokuPuzzlePool;
 
-        this.numberOfEmptyCells = this.getInitialNumberOfEmptyCells(this.sudokuType.getSudokuBoardSize());
-        this.sudokuGrid = new Generator(this.sudokuType).generate(this.numberOfEmptyCells);
-        this.originalGrid = OriginalSudokuGrid.of(this.sudokuGrid.toIntArray());
+        this.originalGrid = sudokuPuzzlePool.takePuzzle(this.sudokuType);
+        this.sudokuGrid = Grid.of(this.originalGrid.getGrid(), this.sudokuType);
+        this.numberOfEmptyCells = this.countEmptyCells();
         this.originallyFilledSquares = this.initializeOriginallyFilledSquares();
+        this.initializeSolution();
 
         this.sudokuKeyboardInterface = this.initializeKeyboardInterface(interfaceType);
     }
@@ -105,19 +125,20 @@ public class SudokuState {
     public void resetSudokuState(@Nullable OriginalSudokuGrid originalGrid) {
         this.gameOver = false;
         this.startingInstant = Instant.now();
-        this.numberOfEmptyCells = this.getInitialNumberOfEmptyCells(this.sudokuType.getSudokuBoardSize());
 
         if (originalGrid != null) {
             // Case 1: we are in playback mode
             this.sudokuGrid = Grid.of(originalGrid.getGrid(), this.sudokuType);
             this.originalGrid = originalGrid;
         } else {
-            // Case 2: we are not in playback mode (just generate a new random Sudoku board).
-            this.sudokuGrid = new Generator(this.sudokuType).generate(this.numberOfEmptyCells);
-            this.originalGrid = OriginalSudokuGrid.of(this.sudokuGrid.toIntArray());
+            // Case 2: we are not in playback mode (just take a new random Sudoku board from the pool).
+            this.originalGrid = this.sudokuPuzzlePool.takePuzzle(this.sudokuType);
+            this.sudokuGrid = Grid.of(this.originalGrid.getGrid(), this.sudokuType);
         }
 
+        this.numberOfEmptyCells = this.countEmptyCells();
         this.originallyFilledSquares = this.initializeOriginallyFilledSquares();
+        this.initializeSolution();
     }
 
     /**
@@ -138,13 +159,44 @@ public class SudokuState {
     }
 
     /**
-     * Gets the number of empty cells that we initially want in the game.
+     * Counts the empty cells on the Sudoku board (a generated board may have fewer than requested).
      *
-     * @param sudokuBoardSize The number of squares on each side of the board (e.g. 9x9 board --> 9)
-     * @return The number of initial empty cells that I want in the game.
+     * @return The number of empty cells on the board.
+     */
+    private int countEmptyCells() {
+        int emptyCells = 0;
+
+        int sudokuBoardSize = this.sudokuType.getSudokuBoardSize();
+        for (int rowIdx = 0; rowIdx < sudokuBoardSize; rowIdx++) {
+            for (int columnIdx = 0; columnIdx < sudokuBoardSize; columnIdx++) {
+                if (this.sudokuGrid.getCell(rowIdx, columnIdx).isEmpty()) {
+                    emptyCells++;
+                }
+            }
+        }
+
+        return emptyCells;
+    }
+
+    /**
+     * Gets the solution of the Sudoku board, so that hints & placements can be checked against it in constant time.
+     * Generated boards carry their (unique) solution. Boards that were loaded from an older log file are solved once
+     * here; they might have more than one solution, in which case placements are still checked with the solver.
+     * Their hints keep giving the first value that fits (see giveHint()). This should be called in the constructor.
      */
-    private int getInitialNumberOfEmptyCells(int sudokuBoardSize) {
-        return (sudokuBoardSize * sudokuBoardSize) / 3;
+    private void initializeSolution() {
+        int[][] loggedSolution = this.originalGrid.getSolution();
+        this.hasLoggedSolution = loggedSolution != null;
+        if (loggedSolution != null) {
+            this.solution = loggedSolution;
+            this.hasUniqueSolution = true;
+            return;
+        }
+
+        Grid solvedGrid = new Grid(this.sudokuGrid);
+        this.hasUniqueSolution = this.sudokuSolver.countSolutions(solvedGrid, 2) == 1;
+        this.sudokuSolver.solve(solvedGrid);
+        this.solution = solvedGrid.toIntArray();
     }
 
     /**
@@ -297,9 +349,12 @@ public class SudokuState {
         cellToSet.setValue(numberToFill);
 
         // Case 8: the board would not be solvable from this new state (only 4x4 version).
+        // A unique puzzle is only solvable if the value matches the solution (so there is no need to re-solve).
         if (this.sudokuType == SudokuType.FOUR_BY_FOUR) {
-            Solver solver = new Solver(sudokuBoardSize);
-            if (!solver.isSolvable(new Grid(this.sudokuGrid))) {
+            boolean isSolvable = this.hasUniqueSolution
+                    ? this.solution[pointToSet.y][pointToSet.x] == numberToFill
+                    : this.sudokuSolver.isSolvable(this.sudokuGrid);
+            if (!isSolvable) {
                 cellToSet.setValue(EMPTY_SUDOKU_SQUARE);
                 this.numberOfEmptyCells++;
                 this.audioPlayerExecutor.replacePhraseAndPrint(Phrase.SUDOKU_PLACED_UNSOLVABLE);
@@ -346,6 +401,21 @@ public class SudokuState {
         this.audioPlayerExecutor.replacePhraseAndPrint(phrasesToRead);
     }
 
+    /**
+     * Gets the smallest value that fits in a square (i.e. that is not in its row, column or box yet).
+     *
+     * @param cell The square.
+     * @return The smallest value that fits, or EMPTY_SUDOKU_SQUARE if no value fits.
+     */
+    private int getFirstValidValue(@NotNull Cell cell) {
+        for (int cellValue = 1; cellValue <= this.sudokuType.getSudokuBoardSize(); cellValue++) {
+            if (this.sudokuGrid.isValidValueForCell(cell, cellValue)) {
+                return cellValue;
+            }
+        }
+        return EMPTY_SUDOKU_SQUARE;
+    }
+
     /**
      * Fills the currently selected square on the board with a valid value (gives the user a hint).
      */
@@ -367,15 +437,17 @@ public class SudokuState {
         Cell cellToSet = this.sudokuGrid.getCell(pointToSet.y, pointToSet.x);
 
         // Case 3: the user has selected a square & it is not an originally filled square.
-        for (int cellValue = 1; cellValue <= this.sudokuType.getSudokuBoardSize(); cellValue++) {
-            if (this.sudokuGrid.isValidValueForCell(cellToSet, cellValue)) {
-                if (cellToSet.getValue() == EMPTY_SUDOKU_SQUARE) {
-                    this.numberOfEmptyCells--;
-                }
-
-                cellToSet.setValue(cellValue);
-                break;
+        // Boards from older log files (without a solution) were played with the first value that fits as the hint,
+        // so their playback keeps giving that value (the solver's solution could lead to a different board).
+        int hintValue = this.hasLoggedSolution
+                ? this.solution[pointToSet.y][pointToSet.x]
+                : this.getFirstValidValue(cellToSet);
+        if (hintValue != EMPTY_SUDOKU_SQUARE) {
+            if (cellToSet.getValue() == EMPTY_SUDOKU_SQUARE) {
+                this.numberOfEmptyCells--;
             }
+
+            cellToSet.setValue(hintValue);
         }
 
         // Read out the new value of this cell along with the amount of cells left to fill.
@@ -486,6 +558,48 @@ public class SudokuState {
     public void processHotKey(@NotNull SudokuHotKeyAction sudokuHotKeyAction) {
         this.setHighlightedPoint(sudokuHotKeyAction.getArrowKeyDirection());
         this.getSelectedSquarePhrase().ifPresent(this.audioPlayerExecutor::replacePhraseAndPrint);
+        this.prefetchPhrasesAroundSelectedPoint();
+    }
+
+    /**
+     * Lets the audio player decode the Phrases that the next move will probably read. The location Phrases aren't
+     * pinned by the audio player, so the location of the selected square (read by the location key) comes first,
+     * followed by the locations & values of the neighboring squares & the boundary Phrases of the squares that are
+     * on an edge of the board.
+     */
+    private void prefetchPhrasesAroundSelectedPoint() {
+        this.sudokuKeyboardInterface.getSelectedPoint().ifPresent(selectedPoint -> {
+            final int maxIndex = this.sudokuType.getSudokuBoardSize() - 1;
+            final Set<Phrase> phrasesToPrefetch = new LinkedHashSet<>();
+            phrasesToPrefetch.add(Phrase.convertPointToLocationPhrase(selectedPoint));
+
+            // The neighbor in every arrow key direction (left, right, up & down).
+            final int[][] offsets = new int[][]{{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+            for (int[] offset : offsets) {
+                final Point neighbor = new Point(selectedPoint.x + offset[0], selectedPoint.y + offset[1]);
+                if (neighbor.x < 0 || neighbor.x > maxIndex || neighbor.y < 0 || neighbor.y > maxIndex) {
+                    continue;
+                }
+
+                phrasesToPrefetch.add(
+                        Phrase.convertIntegerToPhrase(this.sudokuGrid.getCell(neighbor.y, neighbor.x).getValue())
+                );
+                phrasesToPrefetch.add(Phrase.convertPointToLocationPhrase(neighbor));
+
+                if (neighbor.x == 0) {
+                    phrasesToPrefetch.add(Phrase.GENERAL_FIRST_COLUMN);
+                } else if (neighbor.x == maxIndex) {
+                    phrasesToPrefetch.add(Phrase.GENERAL_LAST_COLUMN);
+                }
+                if (neighbor.y == 0) {
+                    phrasesToPrefetch.add(Phrase.GENERAL_FIRST_ROW);
+                } else if (neighbor.y == maxIndex) {
+                    phrasesToPrefetch.add(Phrase.GENERAL_LAST_ROW);
+                }
+            }
+
+            this.audioPlayerExecutor.prefetchPhrases(new ArrayList<>(phrasesToPrefetch));
+        });
     }
 
     /**
@@ -518,6 +632,7 @@ public class SudokuState {
             });
             this.audioPlayerExecutor.replacePhraseAndPrint(phrases);
         });
+        this.prefetchPhrasesAroundSelectedPoint();
     }
 
     public Optional<Phrase> getSelectedSquarePhrase() {
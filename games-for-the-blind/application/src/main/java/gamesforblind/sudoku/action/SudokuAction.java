@@ -4,10 +4,28 @@ import gamesforblind.ProgramAction;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlSeeAlso;
 
 /**
  * The abstract class that all actions in the Sudoku game inherit from.
+ * Every action has to be listed in @XmlSeeAlso, so that it can be logged (see the logger's JAXBContext), & needs
+ * a format in the logger's BinaryLogFormat (BinaryLogTest checks that every listed action has one).
  */
+@XmlSeeAlso({
+        SudokuExitAction.class,
+        SudokuFillAction.class,
+        SudokuHighlightAction.class,
+        SudokuHintKeyAction.class,
+        SudokuHotKeyAction.class,
+        SudokuInstructionsAction.class,
+        SudokuLocationAction.class,
+        SudokuMainMenuAction.class,
+        SudokuReadPositionAction.class,
+        SudokuReadRemainingAction.class,
+        SudokuRestartAction.class,
+        SudokuStopReadingAction.class,
+        SudokuUnrecognizedKeyAction.class
+})
 @XmlAccessorType(XmlAccessType.NONE)
 public abstract class SudokuAction extends ProgramAction {
 }
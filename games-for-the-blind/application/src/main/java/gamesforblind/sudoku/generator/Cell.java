@@ -2,27 +2,36 @@ package gamesforblind.sudoku.generator;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
 
 import static gamesforblind.Constants.EMPTY_SUDOKU_SQUARE;
 
 /**
  * This class represents a Cell within a Sudoku {@link Grid}. It features a couple of convenient methods.
+ * <p>
+ * A Cell holds no state of its own. It is a thin view over one square of the {@link Grid} that created it.
  */
 public class Cell {
-    private int value;
-    private Collection<Cell> rowNeighbors;
-    private Collection<Cell> columnNeighbors;
-    private Collection<Cell> boxNeighbors;
-    private Cell nextCell;
+    /**
+     * The {@link Grid} that this Cell is a view of.
+     */
+    private final Grid grid;
+
+    /**
+     * The (row-major) index of the square within the {@link Grid}.
+     */
+    private final int index;
 
     /**
      * Creates a new Cell.
      *
-     * @param value The numeric value of the Cell.
+     * @param grid  The {@link Grid} that this Cell is a view of.
+     * @param index The (row-major) index of the square within the {@link Grid}.
      */
-    public Cell(int value) {
-        this.value = value;
+    Cell(@NotNull Grid grid, int index) {
+        this.grid = grid;
+        this.index = index;
     }
 
     /**
@@ -31,7 +40,7 @@ public class Cell {
      * @return the value of the Cell.
      */
     public int getValue() {
-        return this.value;
+        return this.grid.getValue(this.index);
     }
 
     /**
@@ -40,7 +49,7 @@ public class Cell {
      * @param value the new value of the Cell
      */
     public void setValue(int value) {
-        this.value = value;
+        this.grid.setValue(this.index, value);
     }
 
     /**
@@ -49,25 +58,25 @@ public class Cell {
      * @return true if the Cell is empty, false otherwise
      */
     public boolean isEmpty() {
-        return this.value == EMPTY_SUDOKU_SQUARE;
+        return this.getValue() == EMPTY_SUDOKU_SQUARE;
     }
 
     /**
-     * Returns a {@link Collection} of all other Cells in the same row than this Cell.
+     * Returns the (row-major) index of the square within the {@link Grid}.
      *
-     * @return a {@link Collection} of row neighbors
+     * @return the index of the Cell.
      */
-    public Collection<Cell> getRowNeighbors() {
-        return this.rowNeighbors;
+    int getIndex() {
+        return this.index;
     }
 
     /**
-     * Allows to set a {@link Collection} of Cells, which are interpreted to be in the same row.
+     * Returns a {@link Collection} of all other Cells in the same row than this Cell.
      *
-     * @param rowNeighbors a {@link Collection} of row neighbors
+     * @return a {@link Collection} of row neighbors
      */
-    public void setRowNeighbors(@NotNull Collection<Cell> rowNeighbors) {
-        this.rowNeighbors = rowNeighbors;
+    public Collection<Cell> getRowNeighbors() {
+        return this.getCells(this.grid.getGeometry().rowPeers[this.index]);
     }
 
     /**
@@ -76,16 +85,7 @@ public class Cell {
      * @return a {@link Collection} of column neighbors
      */
     public Collection<Cell> getColumnNeighbors() {
-        return this.columnNeighbors;
-    }
-
-    /**
-     * Allows to set a {@link Collection} of Cells, which are interpreted to be in the same column.
-     *
-     * @param columnNeighbors a {@link Collection} of column neighbors
-     */
-    public void setColumnNeighbors(@NotNull Collection<Cell> columnNeighbors) {
-        this.columnNeighbors = columnNeighbors;
+        return this.getCells(this.grid.getGeometry().columnPeers[this.index]);
     }
 
     /**
@@ -94,16 +94,7 @@ public class Cell {
      * @return a {@link Collection} of box neighbors
      */
     public Collection<Cell> getBoxNeighbors() {
-        return this.boxNeighbors;
-    }
-
-    /**
-     * Allows to set a {@link Collection} of Cells, which are interpreted to be in the same box.
-     *
-     * @param boxNeighbors a {@link Collection} of box neighbors
-     */
-    public void setBoxNeighbors(@NotNull Collection<Cell> boxNeighbors) {
-        this.boxNeighbors = boxNeighbors;
+        return this.getCells(this.grid.getGeometry().boxPeers[this.index]);
     }
 
     /**
@@ -115,15 +106,21 @@ public class Cell {
      * @return the next Cell consecutive to this Cell or null if it is the last Cell.
      */
     public Cell getNextCell() {
-        return this.nextCell;
+        int nextIndex = this.index + 1;
+        return nextIndex < this.grid.getGeometry().cellCount ? this.grid.getCell(nextIndex) : null;
     }
 
     /**
-     * Allows to set a Cell which is interpreted to be the next Cell consecutive to this Cell.
+     * Maps an array of square indices to the corresponding Cells of the same {@link Grid}.
      *
-     * @param nextCell the next Cell consecutive to this Cell.
+     * @param indices The (row-major) indices of the squares.
+     * @return A {@link Collection} of the Cells at the given indices.
      */
-    public void setNextCell(@NotNull Cell nextCell) {
-        this.nextCell = nextCell;
+    private Collection<Cell> getCells(@NotNull int[] indices) {
+        Collection<Cell> cells = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            cells.add(this.grid.getCell(index));
+        }
+        return cells;
     }
 }
@@ -0,0 +1,379 @@
+package gamesforblind.sudoku.generator;
+
+import gamesforblind.enums.SudokuType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A solver that models a Sudoku board as an exact cover problem & solves it with Knuth's
+ * Algorithm X using Dancing Links (DLX). Works for all {@link SudokuType}s, including the 2x3 blocks of a 6x6.
+ * <p>
+ * Every candidate (a value in a square) is a row of the exact cover matrix. It covers four constraint columns:
+ * the square is filled, the value is in the row, the value is in the column & the value is in the box.
+ * The linked structure is built once per instance & restored after every call.
+ * <p>
+ * Note: an instance is not thread-safe (each thread should use its own DancingLinksSolver).
+ */
+public class DancingLinksSolver implements SudokuSolver {
+    /**
+     * The index of the root node (all column headers are linked to it horizontally).
+     */
+    private static final int ROOT = 0;
+
+    /**
+     * Whether the solver handles a 4x4, 6x6, or 9x9 board.
+     */
+    private final SudokuType sudokuType;
+
+    /**
+     * The number of squares on each side of the Sudoku board (e.g. 6x6 --> 6).
+     */
+    private final int sudokuBoardSize;
+
+    /* The four links of every node (column headers are nodes 1 to the number of columns). */
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+
+    /**
+     * The column header of every node.
+     */
+    private final int[] columnOf;
+
+    /**
+     * The candidate (square index * board size + value - 1) that a row node belongs to.
+     */
+    private final int[] candidateOf;
+
+    /**
+     * The number of nodes that are currently in each column (indexed by column header).
+     */
+    private final int[] columnSize;
+
+    /**
+     * The first node of the row for every candidate.
+     */
+    private final int[] candidateFirstNode;
+
+    /* The rows that are currently selected by the search & the rows of the first solution that was found. */
+    private final int[] selectedRows;
+    private final int[] firstSolutionRows;
+    private boolean firstSolutionRecorded;
+
+    /**
+     * Constructs a new DancingLinksSolver instance.
+     *
+     * @param sudokuType Whether the Sudoku board is a 4x4, 6x6, or 9x9 board.
+     */
+    public DancingLinksSolver(@NotNull SudokuType sudokuType) {
+        this(sudokuType, new Random());
+    }
+
+    /**
+     * Constructs a new DancingLinksSolver instance.
+     *
+     * @param sudokuType Whether the Sudoku board is a 4x4, 6x6, or 9x9 board.
+     * @param random     Used to shuffle the order in which the candidates are tried (so generated boards vary).
+     */
+    public DancingLinksSolver(@NotNull SudokuType sudokuType, @NotNull Random random) {
+        this.sudokuType = sudokuType;
+        this.sudokuBoardSize = sudokuType.getSudokuBoardSize();
+
+        GridGeometry geometry = GridGeometry.of(sudokuType);
+        final int cellCount = geometry.cellCount;
+        final int numberOfColumns = 4 * cellCount;
+        final int numberOfCandidates = cellCount * this.sudokuBoardSize;
+        final int numberOfNodes = 1 + numberOfColumns + 4 * numberOfCandidates;
+
+        this.left = new int[numberOfNodes];
+        this.right = new int[numberOfNodes];
+        this.up = new int[numberOfNodes];
+        this.down = new int[numberOfNodes];
+        this.columnOf = new int[numberOfNodes];
+        this.candidateOf = new int[numberOfNodes];
+        this.columnSize = new int[1 + numberOfColumns];
+        this.candidateFirstNode = new int[numberOfCandidates];
+        this.selectedRows = new int[cellCount];
+        this.firstSolutionRows = new int[cellCount];
+
+        // Step 1: link the root & all column headers into a horizontal ring.
+        for (int header = ROOT; header <= numberOfColumns; header++) {
+            this.left[header] = header == ROOT ? numberOfColumns : header - 1;
+            this.right[header] = header == numberOfColumns ? ROOT : header + 1;
+            this.up[header] = header;
+            this.down[header] = header;
+            this.columnOf[header] = header;
+        }
+
+        // Step 2: add a row for every candidate (in random order, so the search order is random as well).
+        int[] candidates = new int[numberOfCandidates];
+        for (int i = 0; i < numberOfCandidates; i++) {
+            candidates[i] = i;
+        }
+        for (int i = numberOfCandidates - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1), tmp = candidates[i];
+            candidates[i] = candidates[j];
+            candidates[j] = tmp;
+        }
+
+        int nextNode = 1 + numberOfColumns;
+        for (int candidate : candidates) {
+            int index = candidate / this.sudokuBoardSize, valueOffset = candidate % this.sudokuBoardSize;
+            int[] headers = new int[]{
+                    1 + index,
+                    1 + cellCount + geometry.rowOf[index] * this.sudokuBoardSize + valueOffset,
+                    1 + 2 * cellCount + geometry.columnOf[index] * this.sudokuBoardSize + valueOffset,
+                    1 + 3 * cellCount + geometry.boxOf[index] * this.sudokuBoardSize + valueOffset
+            };
+
+            int firstNode = nextNode;
+            this.candidateFirstNode[candidate] = firstNode;
+            for (int i = 0; i < headers.length; i++) {
+                int node = nextNode++, header = headers[i];
+
+                // Append the node to the bottom of its column.
+                this.columnOf[node] = header;
+                this.candidateOf[node] = candidate;
+                this.up[node] = this.up[header];
+                this.down[node] = header;
+                this.down[this.up[header]] = node;
+                this.up[header] = node;
+                this.columnSize[header]++;
+
+                // Link the node into the horizontal ring of its row.
+                this.left[node] = i == 0 ? firstNode + headers.length - 1 : node - 1;
+                this.right[node] = i == headers.length - 1 ? firstNode : node + 1;
+            }
+        }
+    }
+
+    /**
+     * Solves a given {@link Grid} using Dancing Links.
+     *
+     * @param grid the {@link Grid} to solve
+     * @throws IllegalStateException in case the provided {@link Grid} is not solvable.
+     */
+    @Override
+    public void solve(@NotNull Grid grid) {
+        if (this.search(grid, 1, true) == 0) {
+            throw new IllegalStateException("The provided grid is not solvable.");
+        }
+
+        for (int depth = 0; depth < grid.getGeometry().cellCount; depth++) {
+            int row = this.firstSolutionRows[depth];
+            if (row == 0) {
+                break;
+            }
+
+            int candidate = this.candidateOf[row];
+            grid.setValue(candidate / this.sudokuBoardSize, candidate % this.sudokuBoardSize + 1);
+        }
+    }
+
+    /**
+     * Used for checking if the passed {@link Grid} is solvable. The passed {@link Grid} is left unchanged.
+     *
+     * @param grid The {@link Grid} to check.
+     * @return true if the given Grid is solvable (otherwise false).
+     */
+    @Override
+    public boolean isSolvable(@NotNull Grid grid) {
+        return this.search(grid, 1, false) > 0;
+    }
+
+    /**
+     * Counts the solutions of the passed {@link Grid}. The passed {@link Grid} is left unchanged.
+     *
+     * @param grid  The {@link Grid} to check.
+     * @param limit The number of solutions after which counting stops (e.g. 2 to check for a unique solution).
+     * @return The number of solutions, but never more than the given limit.
+     */
+    @Override
+    public int countSolutions(@NotNull Grid grid, int limit) {
+        return this.search(grid, limit, false);
+    }
+
+    /**
+     * Selects the rows for all filled squares of the {@link Grid}, searches for solutions & restores the matrix.
+     * A Grid whose filled squares already contradict each other has no solutions.
+     *
+     * @param grid           The {@link Grid} to search.
+     * @param limit          The number of solutions after which the search stops.
+     * @param recordSolution If true, the rows of the first solution are stored in firstSolutionRows.
+     * @return The number of solutions that were found, but never more than the given limit.
+     */
+    private int search(@NotNull Grid grid, int limit, boolean recordSolution) {
+        if (grid.getSudokuType() != this.sudokuType) {
+            throw new IllegalArgumentException("Solver for " + this.sudokuType + " got a " + grid.getSudokuType());
+        }
+
+        final int cellCount = grid.getGeometry().cellCount;
+        int[] givenRows = new int[cellCount];
+        int numberOfGivenRows = 0;
+        boolean contradiction = false;
+
+        // Step 1: select the row of every filled square (as if the search had chosen it).
+        for (int index = 0; index < cellCount; index++) {
+            int value = grid.getValue(index);
+            if (value == 0) {
+                continue;
+            }
+
+            int row = this.candidateFirstNode[index * this.sudokuBoardSize + value - 1];
+            if (!this.isRowAvailable(row)) {
+                contradiction = true;
+                break;
+            }
+
+            this.selectRow(row);
+            givenRows[numberOfGivenRows++] = row;
+        }
+
+        // Step 2: search for the solutions of the remaining (uncovered) constraints.
+        int numberOfSolutions = 0;
+        if (!contradiction) {
+            this.firstSolutionRecorded = !recordSolution;
+            Arrays.fill(this.firstSolutionRows, 0);
+            numberOfSolutions = this.search(0, limit);
+        }
+
+        // Step 3: restore the matrix (in reverse order).
+        for (int i = numberOfGivenRows - 1; i >= 0; i--) {
+            this.deselectRow(givenRows[i]);
+        }
+
+        return numberOfSolutions;
+    }
+
+    /**
+     * Algorithm X: recursively searches for exact covers of the remaining columns.
+     *
+     * @param depth The number of rows that the search has selected so far.
+     * @param limit The number of solutions after which the search stops.
+     * @return The number of solutions that were found, but never more than the given limit.
+     */
+    private int search(int depth, int limit) {
+        // All constraints are covered, so a solution has been found.
+        if (this.right[ROOT] == ROOT) {
+            if (!this.firstSolutionRecorded) {
+                System.arraycopy(this.selectedRows, 0, this.firstSolutionRows, 0, depth);
+                this.firstSolutionRecorded = true;
+            }
+            return 1;
+        }
+
+        // Choose the column with the fewest remaining rows (fails fast on dead ends).
+        int chosenColumn = this.right[ROOT];
+        for (int header = this.right[chosenColumn]; header != ROOT; header = this.right[header]) {
+            if (this.columnSize[header] < this.columnSize[chosenColumn]) {
+                chosenColumn = header;
+            }
+        }
+
+        if (this.columnSize[chosenColumn] == 0) {
+            return 0;
+        }
+
+        int numberOfSolutions = 0;
+        this.cover(chosenColumn);
+        for (int row = this.down[chosenColumn]; row != chosenColumn && numberOfSolutions < limit; row = this.down[row]) {
+            this.selectedRows[depth] = row;
+
+            for (int node = this.right[row]; node != row; node = this.right[node]) {
+                this.cover(this.columnOf[node]);
+            }
+
+            numberOfSolutions += this.search(depth + 1, limit - numberOfSolutions);
+
+            for (int node = this.left[row]; node != row; node = this.left[node]) {
+                this.uncover(this.columnOf[node]);
+            }
+        }
+        this.uncover(chosenColumn);
+
+        return numberOfSolutions;
+    }
+
+    /**
+     * Checks that none of the columns of the given row have been covered yet.
+     *
+     * @param row The first node of the row.
+     * @return true if the row can still be selected.
+     */
+    private boolean isRowAvailable(int row) {
+        int node = row;
+        do {
+            int header = this.columnOf[node];
+            if (this.right[this.left[header]] != header) {
+                return false;
+            }
+            node = this.right[node];
+        } while (node != row);
+        return true;
+    }
+
+    /**
+     * Covers all columns of the given row.
+     *
+     * @param row The first node of the row.
+     */
+    private void selectRow(int row) {
+        int node = row;
+        do {
+            this.cover(this.columnOf[node]);
+            node = this.right[node];
+        } while (node != row);
+    }
+
+    /**
+     * Uncovers all columns of the given row (the inverse of {@link #selectRow(int)}).
+     *
+     * @param row The first node of the row.
+     */
+    private void deselectRow(int row) {
+        int node = this.left[row];
+        do {
+            this.uncover(this.columnOf[node]);
+            node = this.left[node];
+        } while (node != this.left[row]);
+    }
+
+    /**
+     * Removes a column from the header list & removes all rows of that column from the other columns.
+     *
+     * @param header The header of the column to cover.
+     */
+    private void cover(int header) {
+        this.left[this.right[header]] = this.left[header];
+        this.right[this.left[header]] = this.right[header];
+
+        for (int row = this.down[header]; row != header; row = this.down[row]) {
+            for (int node = this.right[row]; node != row; node = this.right[node]) {
+                this.up[this.down[node]] = this.up[node];
+                this.down[this.up[node]] = this.down[node];
+                this.columnSize[this.columnOf[node]]--;
+            }
+        }
+    }
+
+    /**
+     * Restores a column that was covered (the inverse of {@link #cover(int)}).
+     *
+     * @param header The header of the column to uncover.
+     */
+    private void uncover(int header) {
+        for (int row = this.up[header]; row != header; row = this.up[row]) {
+            for (int node = this.left[row]; node != row; node = this.left[node]) {
+                this.columnSize[this.columnOf[node]]++;
+                this.up[this.down[node]] = node;
+                this.down[this.up[node]] = node;
+            }
+        }
+
+        this.left[this.right[header]] = header;
+        this.right[this.left[header]] = header;
+    }
+}
@@ -1,8 +1,11 @@
 package gamesforblind.sudoku.generator;
 
+import gamesforblind.enums.SudokuDifficulty;
 import gamesforblind.enums.SudokuType;
+import gamesforblind.sudoku.OriginalSudokuGrid;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Optional;
 import java.util.Random;
 
 import static gamesforblind.Constants.EMPTY_SUDOKU_SQUARE;
@@ -11,17 +14,65 @@ import static gamesforblind.Constants.EMPTY_SUDOKU_SQUARE;
  * A Generator to generate random Sudoku {@link Grid} instances.
  */
 public class Generator {
+    /**
+     * The number of solved {@link Grid}s to try before settling for the puzzle with the most empty cells.
+     */
+    private static final int MAX_UNIQUE_PUZZLE_ATTEMPTS = 10;
+
+    /**
+     * The number of solved {@link Grid}s to try before giving up on reaching the minimum difficulty.
+     */
+    private static final int MAX_DIFFICULTY_ATTEMPTS = 50;
+
     private final SudokuType sudokuType;
-    private final Solver solver;
+    private final SudokuSolver solver;
 
     /**
-     * Constructs a new Generator instance.
+     * Decides which cells are erased.
+     */
+    private final Random random;
+
+    /**
+     * Constructs a new Generator instance (which fills its boards with a {@link DancingLinksSolver}).
      *
      * @param sudokuType Whether the Sudoku game is a 4x4, 6x6, or 9x9.
      */
     public Generator(@NotNull SudokuType sudokuType) {
-        this.solver = new Solver(sudokuType.getSudokuBoardSize());
+        this(sudokuType, new Random());
+    }
+
+    /**
+     * Constructs a new Generator instance that takes all of its random decisions from the given {@link Random}.
+     * Two Generators with equally seeded Randoms generate the same puzzles.
+     *
+     * @param sudokuType Whether the Sudoku game is a 4x4, 6x6, or 9x9.
+     * @param random     The source of randomness for both filling the board & erasing cells.
+     */
+    public Generator(@NotNull SudokuType sudokuType, @NotNull Random random) {
+        this(sudokuType, new DancingLinksSolver(sudokuType, random), random);
+    }
+
+    /**
+     * Constructs a new Generator instance.
+     *
+     * @param sudokuType Whether the Sudoku game is a 4x4, 6x6, or 9x9.
+     * @param solver     The solver that is used to fill an empty {@link Grid}. Should try values in a random order.
+     */
+    public Generator(@NotNull SudokuType sudokuType, @NotNull SudokuSolver solver) {
+        this(sudokuType, solver, new Random());
+    }
+
+    /**
+     * Constructs a new Generator instance.
+     *
+     * @param sudokuType Whether the Sudoku game is a 4x4, 6x6, or 9x9.
+     * @param solver     The solver that is used to fill an empty {@link Grid}. Should try values in a random order.
+     * @param random     Decides which cells are erased.
+     */
+    private Generator(@NotNull SudokuType sudokuType, @NotNull SudokuSolver solver, @NotNull Random random) {
+        this.solver = solver;
         this.sudokuType = sudokuType;
+        this.random = random;
     }
 
     /**
@@ -39,6 +90,169 @@ public class Generator {
         return grid;
     }
 
+    /**
+     * Generates a random Sudoku puzzle that has exactly one solution. Cells are only erased while the
+     * solver confirms that the puzzle is still unique, so the requested number of empty cells is a target.
+     * If it cannot be reached, the unique puzzle with the most empty cells that was found is returned.
+     *
+     * @param numberOfEmptyCells the number of empty cells that the puzzle should have
+     * @return an {@link OriginalSudokuGrid} with the random puzzle along with its solution
+     */
+    public OriginalSudokuGrid generateWithUniqueSolution(int numberOfEmptyCells) {
+        Grid bestPuzzle = null, bestSolution = null;
+        int bestNumberOfEmptyCells = -1;
+
+        for (int attempt = 0; attempt < MAX_UNIQUE_PUZZLE_ATTEMPTS; attempt++) {
+            Grid solution = this.generate();
+            Grid puzzle = new Grid(solution);
+
+            int numberOfErasedCells = this.eraseCellsKeepingUniqueSolution(puzzle, numberOfEmptyCells);
+            if (numberOfErasedCells > bestNumberOfEmptyCells) {
+                bestPuzzle = puzzle;
+                bestSolution = solution;
+                bestNumberOfEmptyCells = numberOfErasedCells;
+            }
+
+            if (numberOfErasedCells == numberOfEmptyCells) {
+                break;
+            }
+        }
+
+        return OriginalSudokuGrid.of(bestPuzzle.toIntArray(), bestSolution.toIntArray());
+    }
+
+    /**
+     * Generates a random Sudoku puzzle with a unique solution whose difficulty is within the given band (see
+     * {@link Grader}). As many cells as possible are erased, as long as the puzzle stays unique & doesn't get harder
+     * than the maximum difficulty. Hard difficulties are rare among random puzzles, so the minimum difficulty may not
+     * be reached within MAX_DIFFICULTY_ATTEMPTS solved {@link Grid}s; then, empty() is returned.
+     *
+     * @param minDifficulty the easiest difficulty that the puzzle may have
+     * @param maxDifficulty the hardest difficulty that the puzzle may have
+     * @return an {@link OriginalSudokuGrid} with the random puzzle along with its solution, or empty() if no puzzle
+     * within the band was found
+     * @throws IllegalArgumentException Thrown when the minimum difficulty is harder than the maximum difficulty.
+     */
+    public Optional<OriginalSudokuGrid> generateWithDifficulty(
+            @NotNull SudokuDifficulty minDifficulty, @NotNull SudokuDifficulty maxDifficulty
+    ) {
+        if (minDifficulty.compareTo(maxDifficulty) > 0) {
+            throw new IllegalArgumentException(String.format(
+                    "The minimum difficulty %s is harder than the maximum difficulty %s!", minDifficulty, maxDifficulty
+            ));
+        }
+
+        Grader grader = new Grader(this.sudokuType);
+        for (int attempt = 0; attempt < MAX_DIFFICULTY_ATTEMPTS; attempt++) {
+            Grid solution = this.generate();
+            Grid puzzle = new Grid(solution);
+
+            SudokuDifficulty difficulty = this.eraseCellsUpToDifficulty(puzzle, grader, maxDifficulty);
+            if (difficulty.compareTo(minDifficulty) >= 0) {
+                return Optional.of(OriginalSudokuGrid.of(puzzle.toIntArray(), solution.toIntArray()));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Erases cell values from the specified (solved) {@link Grid} in a random order. A cell value is put back
+     * if erasing it would give the puzzle a second solution or make it harder than the maximum difficulty.
+     * <p>
+     * The {@link Grader} keeps the candidates of the puzzle between removals & only updates the erased (or restored)
+     * cell & its peers. An erased naked single needs no grading at all. Otherwise, the grader's techniques are run
+     * from these candidates, & grading stops as soon as a technique that is too hard is needed. The solution count is
+     * only needed for puzzles that the techniques cannot finish, since a puzzle that the {@link Grader} solves with
+     * its (sound) techniques has exactly one solution.
+     *
+     * @param grid          The solved Grid to delete cell values from.
+     * @param grader        Grades the puzzle after a cell value was erased.
+     * @param maxDifficulty The maximum difficulty of the puzzle.
+     * @return The difficulty of the resulting puzzle.
+     */
+    private SudokuDifficulty eraseCellsUpToDifficulty(
+            @NotNull Grid grid, @NotNull Grader grader, @NotNull SudokuDifficulty maxDifficulty
+    ) {
+        SudokuDifficulty difficulty = SudokuDifficulty.EASY;
+        grader.loadPuzzle(grid);
+
+        for (int index : this.getShuffledIndices(grid)) {
+            int value = grader.eraseSquare(index);
+            grid.setValue(index, EMPTY_SUDOKU_SQUARE);
+
+            // If the erased value is the only value that still fits in the cell (a naked single), the puzzle
+            // stays unique & a player fills the cell in before anything else, so the difficulty can't change.
+            if (grader.isNakedSingle(index)) {
+                continue;
+            }
+
+            Optional<SudokuDifficulty> newDifficulty = grader.gradePuzzle(maxDifficulty);
+            boolean isNotUnique = newDifficulty.isPresent()
+                    && newDifficulty.get() == SudokuDifficulty.BEYOND_TECHNIQUES
+                    && this.solver.countSolutions(grid, 2) != 1;
+
+            if (!newDifficulty.isPresent() || isNotUnique) {
+                grader.restoreSquare(index, value);
+                grid.setValue(index, value);
+            } else {
+                difficulty = newDifficulty.get();
+            }
+        }
+
+        return difficulty;
+    }
+
+    /**
+     * Gets the indices of all squares of the specified {@link Grid} in a random order.
+     *
+     * @param grid The Grid whose squares are shuffled.
+     * @return The shuffled (row-major) indices.
+     */
+    private int[] getShuffledIndices(@NotNull Grid grid) {
+        final int cellCount = grid.getGeometry().cellCount;
+
+        int[] indices = new int[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            indices[i] = i;
+        }
+
+        for (int i = cellCount - 1; i > 0; i--) {
+            int j = this.random.nextInt(i + 1), tmp = indices[i];
+            indices[i] = indices[j];
+            indices[j] = tmp;
+        }
+
+        return indices;
+    }
+
+    /**
+     * Erases up to the given amount of cell values from the specified (solved) {@link Grid}, in a random order.
+     * A cell value is put back if erasing it would give the puzzle a second solution.
+     *
+     * @param grid               The solved Grid to delete cell values from.
+     * @param numberOfEmptyCells The number of cell values to erase.
+     * @return The number of cell values that were actually erased.
+     */
+    private int eraseCellsKeepingUniqueSolution(@NotNull Grid grid, int numberOfEmptyCells) {
+        final int cellCount = grid.getGeometry().cellCount;
+        int[] indices = this.getShuffledIndices(grid);
+
+        int numberOfErasedCells = 0;
+        for (int i = 0; i < cellCount && numberOfErasedCells < numberOfEmptyCells; i++) {
+            int index = indices[i], value = grid.getValue(index);
+
+            grid.setValue(index, EMPTY_SUDOKU_SQUARE);
+            if (this.solver.countSolutions(grid, 2) == 1) {
+                numberOfErasedCells++;
+            } else {
+                grid.setValue(index, value);
+            }
+        }
+
+        return numberOfErasedCells;
+    }
+
     /**
      * Erases the given amount of cell values from the specified {@link Grid}.
      *
@@ -46,10 +260,9 @@ public class Generator {
      * @param numberOfEmptyCells The number of cell values to erase.
      */
     private void eraseCells(@NotNull Grid grid, int numberOfEmptyCells) {
-        Random random = new Random();
         for (int i = 0; i < numberOfEmptyCells; i++) {
-            int randomRow = random.nextInt(this.sudokuType.getSudokuBoardSize());
-            int randomColumn = random.nextInt(this.sudokuType.getSudokuBoardSize());
+            int randomRow = this.random.nextInt(this.sudokuType.getSudokuBoardSize());
+            int randomColumn = this.random.nextInt(this.sudokuType.getSudokuBoardSize());
 
             Cell cell = grid.getCell(randomRow, randomColumn);
             if (!cell.isEmpty()) {
@@ -68,6 +281,22 @@ public class Generator {
     private Grid generate() {
         Grid grid = Grid.emptyGrid(this.sudokuType);
 
+        // A solver with a fixed search order always completes an empty grid the same way,
+        // so start from a random permutation in the first row (which can always be completed).
+        final int sudokuBoardSize = this.sudokuType.getSudokuBoardSize();
+        int[] firstRow = new int[sudokuBoardSize];
+        for (int column = 0; column < sudokuBoardSize; column++) {
+            firstRow[column] = column + 1;
+        }
+        for (int column = sudokuBoardSize - 1; column > 0; column--) {
+            int j = this.random.nextInt(column + 1), tmp = firstRow[column];
+            firstRow[column] = firstRow[j];
+            firstRow[j] = tmp;
+        }
+        for (int column = 0; column < sudokuBoardSize; column++) {
+            grid.setValue(column, firstRow[column]);
+        }
+
         this.solver.solve(grid);
 
         return grid;
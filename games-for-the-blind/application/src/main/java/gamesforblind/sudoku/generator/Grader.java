@@ -0,0 +1,544 @@
+package gamesforblind.sudoku.generator;
+
+import gamesforblind.enums.SudokuDifficulty;
+import gamesforblind.enums.SudokuTechnique;
+import gamesforblind.enums.SudokuType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Optional;
+
+import static gamesforblind.Constants.EMPTY_SUDOKU_SQUARE;
+
+/**
+ * Grades a Sudoku {@link Grid} by solving it the way a human player would: the easiest {@link SudokuTechnique}
+ * that makes progress is always applied first. The difficulty is based on the hardest technique that was needed.
+ * <p>
+ * A {@link Generator} loads its puzzle once (see loadPuzzle()) & then erases it square by square. The candidates of
+ * the loaded puzzle are kept between gradings & only the erased (or restored) square & its peers are updated.
+ * <p>
+ * Note: an instance is not thread-safe (each thread should use its own Grader).
+ */
+public class Grader {
+    private final GridGeometry geometry;
+
+    /**
+     * A bitmask with a bit for every value (bit 1 to bit size, like the occupancy bitmasks of the {@link Grid}).
+     */
+    private final int allValuesMask;
+
+    /**
+     * All rows, columns & boxes of the board (each as the indices of its squares).
+     */
+    private final int[][] units;
+
+    /* The values & remaining candidates (as bitmasks) of the squares, while grading. */
+    private final int[] values;
+    private final int[] candidates;
+    private int numberOfEmptySquares;
+
+    /*
+     * The puzzle that is loaded with loadPuzzle(): its values, the candidates of its squares (as bitmasks) & the
+     * occupancy bitmask of every row, column & box. They are kept between gradings & updated when a square is erased
+     * or restored, so a Generator never rebuilds them from its Grid.
+     */
+    private final int[] puzzleValues;
+    private final int[] puzzleCandidates;
+    private final int[] puzzleRowMasks;
+    private final int[] puzzleColumnMasks;
+    private final int[] puzzleBoxMasks;
+    private int puzzleNumberOfEmptySquares;
+
+    /**
+     * Constructs a new Grader instance.
+     *
+     * @param sudokuType Whether the Sudoku board is a 4x4, 6x6, or 9x9 board.
+     */
+    public Grader(@NotNull SudokuType sudokuType) {
+        this.geometry = GridGeometry.of(sudokuType);
+        this.allValuesMask = (1 << (this.geometry.size + 1)) - 2;
+
+        this.units = new int[3 * this.geometry.size][];
+        for (int i = 0; i < this.geometry.size; i++) {
+            this.units[i] = this.geometry.rowSquares[i];
+            this.units[this.geometry.size + i] = this.geometry.columnSquares[i];
+            this.units[2 * this.geometry.size + i] = this.geometry.boxSquares[i];
+        }
+
+        this.values = new int[this.geometry.cellCount];
+        this.candidates = new int[this.geometry.cellCount];
+
+        this.puzzleValues = new int[this.geometry.cellCount];
+        this.puzzleCandidates = new int[this.geometry.cellCount];
+        this.puzzleRowMasks = new int[this.geometry.size];
+        this.puzzleColumnMasks = new int[this.geometry.size];
+        this.puzzleBoxMasks = new int[this.geometry.size];
+    }
+
+    /**
+     * Grades the passed {@link Grid}. The passed {@link Grid} is left unchanged.
+     *
+     * @param grid The {@link Grid} to grade.
+     * @return The difficulty of the puzzle.
+     */
+    public SudokuDifficulty grade(@NotNull Grid grid) {
+        return this.getRequiredTechniques(grid)
+                .map(Grader::getDifficulty)
+                .orElse(SudokuDifficulty.BEYOND_TECHNIQUES);
+    }
+
+    /**
+     * Solves the passed {@link Grid} with the supported techniques & records which ones were needed.
+     * The passed {@link Grid} is left unchanged.
+     *
+     * @param grid The {@link Grid} to solve.
+     * @return The techniques that were needed, or empty() if the techniques are not enough to solve the Grid.
+     */
+    public Optional<EnumSet<SudokuTechnique>> getRequiredTechniques(@NotNull Grid grid) {
+        this.numberOfEmptySquares = 0;
+        for (int index = 0; index < this.geometry.cellCount; index++) {
+            this.values[index] = grid.getValue(index);
+            if (this.values[index] == EMPTY_SUDOKU_SQUARE) {
+                this.candidates[index] = this.allValuesMask & ~grid.getOccupiedMask(index);
+                this.numberOfEmptySquares++;
+            } else {
+                this.candidates[index] = 0;
+            }
+        }
+
+        return this.solve(SudokuDifficulty.BEYOND_TECHNIQUES);
+    }
+
+    /**
+     * Loads a puzzle, so that it can be erased square by square & graded after every erased square (without reading
+     * the whole board again). The passed {@link Grid} is left unchanged.
+     *
+     * @param grid The {@link Grid} with the puzzle.
+     */
+    public void loadPuzzle(@NotNull Grid grid) {
+        Arrays.fill(this.puzzleRowMasks, 0);
+        Arrays.fill(this.puzzleColumnMasks, 0);
+        Arrays.fill(this.puzzleBoxMasks, 0);
+        this.puzzleNumberOfEmptySquares = 0;
+
+        for (int index = 0; index < this.geometry.cellCount; index++) {
+            int value = grid.getValue(index);
+            this.puzzleValues[index] = value;
+            if (value == EMPTY_SUDOKU_SQUARE) {
+                this.puzzleNumberOfEmptySquares++;
+            } else {
+                this.puzzleRowMasks[this.geometry.rowOf[index]] |= 1 << value;
+                this.puzzleColumnMasks[this.geometry.columnOf[index]] |= 1 << value;
+                this.puzzleBoxMasks[this.geometry.boxOf[index]] |= 1 << value;
+            }
+        }
+
+        for (int index = 0; index < this.geometry.cellCount; index++) {
+            this.puzzleCandidates[index] = (this.puzzleValues[index] == EMPTY_SUDOKU_SQUARE)
+                    ? this.getPuzzleFreeMask(index)
+                    : 0;
+        }
+    }
+
+    /**
+     * Gets the values that occur in none of the row, column & box of a square of the loaded puzzle.
+     *
+     * @param index The index of the square.
+     * @return The values as a bitmask.
+     */
+    private int getPuzzleFreeMask(int index) {
+        return this.allValuesMask & ~(this.puzzleRowMasks[this.geometry.rowOf[index]]
+                | this.puzzleColumnMasks[this.geometry.columnOf[index]]
+                | this.puzzleBoxMasks[this.geometry.boxOf[index]]);
+    }
+
+    /**
+     * Erases a (filled) square of the loaded puzzle. Only the candidates of the square & of its peers are updated.
+     *
+     * @param index The index of the square.
+     * @return The value that was erased (to restore it with restoreSquare()).
+     */
+    public int eraseSquare(int index) {
+        int value = this.puzzleValues[index], valueBit = 1 << value;
+        this.puzzleValues[index] = EMPTY_SUDOKU_SQUARE;
+        this.puzzleNumberOfEmptySquares++;
+        this.puzzleRowMasks[this.geometry.rowOf[index]] &= ~valueBit;
+        this.puzzleColumnMasks[this.geometry.columnOf[index]] &= ~valueBit;
+        this.puzzleBoxMasks[this.geometry.boxOf[index]] &= ~valueBit;
+
+        this.puzzleCandidates[index] = this.getPuzzleFreeMask(index);
+        for (int[] peers : new int[][]{
+                this.geometry.rowPeers[index], this.geometry.columnPeers[index], this.geometry.boxPeers[index]
+        }) {
+            for (int peer : peers) {
+                // The value is a candidate again, unless the peer still sees it in another row, column or box.
+                if (this.puzzleValues[peer] == EMPTY_SUDOKU_SQUARE) {
+                    this.puzzleCandidates[peer] |= this.getPuzzleFreeMask(peer) & valueBit;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Puts a value back into an (empty) square of the loaded puzzle. Only the candidates of the square & of its peers
+     * are updated.
+     *
+     * @param index The index of the square.
+     * @param value The value to put back.
+     */
+    public void restoreSquare(int index, int value) {
+        int valueBit = 1 << value;
+        this.puzzleValues[index] = value;
+        this.puzzleCandidates[index] = 0;
+        this.puzzleNumberOfEmptySquares--;
+        this.puzzleRowMasks[this.geometry.rowOf[index]] |= valueBit;
+        this.puzzleColumnMasks[this.geometry.columnOf[index]] |= valueBit;
+        this.puzzleBoxMasks[this.geometry.boxOf[index]] |= valueBit;
+
+        for (int[] peers : new int[][]{
+                this.geometry.rowPeers[index], this.geometry.columnPeers[index], this.geometry.boxPeers[index]
+        }) {
+            for (int peer : peers) {
+                this.puzzleCandidates[peer] &= ~valueBit;
+            }
+        }
+    }
+
+    /**
+     * Checks if a square of the loaded puzzle is empty & has only one candidate (a naked single).
+     *
+     * @param index The index of the square.
+     * @return true if the square is a naked single.
+     */
+    public boolean isNakedSingle(int index) {
+        return this.puzzleValues[index] == EMPTY_SUDOKU_SQUARE && Integer.bitCount(this.puzzleCandidates[index]) == 1;
+    }
+
+    /**
+     * Grades the loaded puzzle, starting from its kept candidates. Grading stops as soon as the puzzle needs a
+     * technique that is harder than the maximum difficulty, so a puzzle that is too hard costs the least work.
+     *
+     * @param maxDifficulty The hardest difficulty that is of interest.
+     * @return The difficulty of the puzzle, or empty() if it is harder than the maximum difficulty.
+     */
+    public Optional<SudokuDifficulty> gradePuzzle(@NotNull SudokuDifficulty maxDifficulty) {
+        System.arraycopy(this.puzzleValues, 0, this.values, 0, this.geometry.cellCount);
+        System.arraycopy(this.puzzleCandidates, 0, this.candidates, 0, this.geometry.cellCount);
+        this.numberOfEmptySquares = this.puzzleNumberOfEmptySquares;
+
+        Optional<EnumSet<SudokuTechnique>> maybeTechniques = this.solve(maxDifficulty);
+        if (!maybeTechniques.isPresent()) {
+            return (maxDifficulty == SudokuDifficulty.BEYOND_TECHNIQUES)
+                    ? Optional.of(SudokuDifficulty.BEYOND_TECHNIQUES)
+                    : Optional.empty();
+        }
+        return Optional.of(getDifficulty(maybeTechniques.get()));
+    }
+
+    /**
+     * Gets the difficulty of a puzzle that needs the given techniques.
+     *
+     * @param techniques The techniques that the puzzle needs.
+     * @return The difficulty of the hardest technique (EASY if no technique is needed).
+     */
+    private static SudokuDifficulty getDifficulty(@NotNull EnumSet<SudokuTechnique> techniques) {
+        return techniques.stream()
+                .map(SudokuTechnique::getSudokuDifficulty)
+                .max(Comparator.naturalOrder())
+                .orElse(SudokuDifficulty.EASY);
+    }
+
+    /**
+     * Checks if a technique may be used when grading up to a maximum difficulty.
+     *
+     * @param technique     The technique.
+     * @param maxDifficulty The hardest difficulty that is of interest.
+     * @return true if the technique isn't harder than the maximum difficulty.
+     */
+    private static boolean isAllowed(@NotNull SudokuTechnique technique, @NotNull SudokuDifficulty maxDifficulty) {
+        return technique.getSudokuDifficulty().compareTo(maxDifficulty) <= 0;
+    }
+
+    /**
+     * Solves the board in the values & candidates with the techniques that aren't harder than the maximum difficulty.
+     * The easiest technique that makes progress is always applied first, so giving up when only harder techniques
+     * are left gives the same result as grading the whole board & comparing its difficulty afterwards.
+     *
+     * @param maxDifficulty The hardest difficulty that is of interest.
+     * @return The techniques that were needed, or empty() if the allowed techniques are not enough to solve the board.
+     */
+    private Optional<EnumSet<SudokuTechnique>> solve(@NotNull SudokuDifficulty maxDifficulty) {
+        EnumSet<SudokuTechnique> requiredTechniques = EnumSet.noneOf(SudokuTechnique.class);
+        while (this.numberOfEmptySquares > 0) {
+            if (this.hasContradiction()) {
+                return Optional.empty();
+            }
+
+            // Always apply the easiest technique that makes progress.
+            if (this.applyNakedSingle()) {
+                requiredTechniques.add(SudokuTechnique.NAKED_SINGLE);
+            } else if (this.applyHiddenSingle()) {
+                requiredTechniques.add(SudokuTechnique.HIDDEN_SINGLE);
+            } else if (isAllowed(SudokuTechnique.NAKED_PAIR, maxDifficulty) && this.applyNakedPairs()) {
+                requiredTechniques.add(SudokuTechnique.NAKED_PAIR);
+            } else if (isAllowed(SudokuTechnique.POINTING, maxDifficulty) && this.applyPointing()) {
+                requiredTechniques.add(SudokuTechnique.POINTING);
+            } else if (isAllowed(SudokuTechnique.X_WING, maxDifficulty) && this.applyXWing()) {
+                requiredTechniques.add(SudokuTechnique.X_WING);
+            } else {
+                return Optional.empty();
+            }
+        }
+
+        return Optional.of(requiredTechniques);
+    }
+
+    /**
+     * Checks if an empty square has no candidates left (only happens for invalid boards).
+     *
+     * @return true if an empty square has no candidates left.
+     */
+    private boolean hasContradiction() {
+        for (int index = 0; index < this.geometry.cellCount; index++) {
+            if (this.values[index] == EMPTY_SUDOKU_SQUARE && this.candidates[index] == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fills in a square & removes its value from the candidates of its row, column & box.
+     *
+     * @param index The index of the square.
+     * @param value The value to fill in.
+     */
+    private void place(int index, int value) {
+        this.values[index] = value;
+        this.candidates[index] = 0;
+        this.numberOfEmptySquares--;
+
+        int valueBit = 1 << value;
+        for (int[] peers : new int[][]{
+                this.geometry.rowPeers[index], this.geometry.columnPeers[index], this.geometry.boxPeers[index]
+        }) {
+            for (int peer : peers) {
+                this.candidates[peer] &= ~valueBit;
+            }
+        }
+    }
+
+    /**
+     * Removes candidates from a square.
+     *
+     * @param index The index of the square.
+     * @param mask  The candidates to remove (as a bitmask).
+     * @return true if any candidates were removed.
+     */
+    private boolean eliminate(int index, int mask) {
+        if ((this.candidates[index] & mask) == 0) {
+            return false;
+        }
+        this.candidates[index] &= ~mask;
+        return true;
+    }
+
+    /**
+     * Fills in the first square that has only one candidate left.
+     *
+     * @return true if a square was filled in.
+     */
+    private boolean applyNakedSingle() {
+        for (int index = 0; index < this.geometry.cellCount; index++) {
+            int candidateMask = this.candidates[index];
+            if (candidateMask != 0 && Integer.bitCount(candidateMask) == 1) {
+                this.place(index, Integer.numberOfTrailingZeros(candidateMask));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fills in the first value that fits in only one square of a row, column or box.
+     *
+     * @return true if a square was filled in.
+     */
+    private boolean applyHiddenSingle() {
+        for (int[] unit : this.units) {
+            for (int value = 1; value <= this.geometry.size; value++) {
+                int valueBit = 1 << value, onlySquare = -1, numberOfSquares = 0;
+                for (int index : unit) {
+                    if ((this.candidates[index] & valueBit) != 0) {
+                        onlySquare = index;
+                        numberOfSquares++;
+                    }
+                }
+
+                if (numberOfSquares == 1) {
+                    this.place(onlySquare, value);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds two squares of a row, column or box with the same two candidates & removes these
+     * candidates from the other squares of the row, column or box.
+     *
+     * @return true if any candidates were removed.
+     */
+    private boolean applyNakedPairs() {
+        boolean progress = false;
+        for (int[] unit : this.units) {
+            for (int i = 0; i < unit.length; i++) {
+                int pairMask = this.candidates[unit[i]];
+                if (Integer.bitCount(pairMask) != 2) {
+                    continue;
+                }
+
+                for (int j = i + 1; j < unit.length; j++) {
+                    if (this.candidates[unit[j]] != pairMask) {
+                        continue;
+                    }
+
+                    for (int index : unit) {
+                        if (index != unit[i] && index != unit[j]) {
+                            progress |= this.eliminate(index, pairMask);
+                        }
+                    }
+                }
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Finds values that are confined to one row or column of a box & removes them from the rest of that row or column.
+     *
+     * @return true if any candidates were removed.
+     */
+    private boolean applyPointing() {
+        boolean progress = false;
+        for (int[] box : this.geometry.boxSquares) {
+            for (int value = 1; value <= this.geometry.size; value++) {
+                int valueBit = 1 << value, row = -1, column = -1;
+                boolean sameRow = true, sameColumn = true, found = false;
+
+                for (int index : box) {
+                    if ((this.candidates[index] & valueBit) == 0) {
+                        continue;
+                    }
+
+                    if (!found) {
+                        row = this.geometry.rowOf[index];
+                        column = this.geometry.columnOf[index];
+                        found = true;
+                    }
+                    sameRow &= this.geometry.rowOf[index] == row;
+                    sameColumn &= this.geometry.columnOf[index] == column;
+                }
+
+                if (!found) {
+                    continue;
+                }
+
+                int boxIndex = this.geometry.boxOf[box[0]];
+                if (sameRow) {
+                    progress |= this.eliminateOutsideBox(this.geometry.rowSquares[row], boxIndex, valueBit);
+                }
+                if (sameColumn) {
+                    progress |= this.eliminateOutsideBox(this.geometry.columnSquares[column], boxIndex, valueBit);
+                }
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Removes a candidate from the squares of a row or column that are not in the given box.
+     *
+     * @param line     The indices of the squares in the row or column.
+     * @param boxIndex The box whose squares are skipped.
+     * @param valueBit The candidate to remove (as a bitmask).
+     * @return true if any candidates were removed.
+     */
+    private boolean eliminateOutsideBox(@NotNull int[] line, int boxIndex, int valueBit) {
+        boolean progress = false;
+        for (int index : line) {
+            if (this.geometry.boxOf[index] != boxIndex) {
+                progress |= this.eliminate(index, valueBit);
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Finds an X-wing in the rows or in the columns of the board.
+     *
+     * @return true if any candidates were removed.
+     */
+    private boolean applyXWing() {
+        return this.applyXWing(this.geometry.rowSquares) || this.applyXWing(this.geometry.columnSquares);
+    }
+
+    /**
+     * Finds a value that is confined to the same two positions in two lines (rows or columns) & removes it from
+     * the crossing lines at these positions. Position k of every line lies in the same crossing line.
+     * Stops after the first X-wing that removes candidates.
+     *
+     * @param lines The indices of the squares of every row (or of every column).
+     * @return true if any candidates were removed.
+     */
+    private boolean applyXWing(@NotNull int[][] lines) {
+        for (int value = 1; value <= this.geometry.size; value++) {
+            int valueBit = 1 << value;
+
+            // For every line, a bitmask of the positions where the value is a candidate.
+            int[] positionMasks = new int[lines.length];
+            for (int line = 0; line < lines.length; line++) {
+                for (int position = 0; position < lines[line].length; position++) {
+                    if ((this.candidates[lines[line][position]] & valueBit) != 0) {
+                        positionMasks[line] |= 1 << position;
+                    }
+                }
+            }
+
+            for (int firstLine = 0; firstLine < lines.length; firstLine++) {
+                if (Integer.bitCount(positionMasks[firstLine]) != 2) {
+                    continue;
+                }
+
+                for (int secondLine = firstLine + 1; secondLine < lines.length; secondLine++) {
+                    if (positionMasks[secondLine] != positionMasks[firstLine]) {
+                        continue;
+                    }
+
+                    boolean progress = false;
+                    for (int line = 0; line < lines.length; line++) {
+                        if (line == firstLine || line == secondLine) {
+                            continue;
+                        }
+
+                        for (int position = 0; position < lines[line].length; position++) {
+                            if ((positionMasks[firstLine] & (1 << position)) != 0) {
+                                progress |= this.eliminate(lines[line][position], valueBit);
+                            }
+                        }
+                    }
+
+                    // The position masks of the other lines are outdated now.
+                    if (progress) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
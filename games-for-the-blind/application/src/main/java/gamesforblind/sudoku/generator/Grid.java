@@ -3,13 +3,15 @@ package gamesforblind.sudoku.generator;
 import gamesforblind.enums.SudokuType;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
 import java.util.Optional;
 
+import static gamesforblind.Constants.EMPTY_SUDOKU_SQUARE;
+
 /**
  * This class represents a Sudoku Grid consisting of a NxN matrix containing blocks of {@link Cell}s.
+ * <p>
+ * The whole board is stored in a single flat int array (see {@link #state}), using the precomputed index tables
+ * in {@link GridGeometry}. The {@link Cell}s that are handed out are only thin views over this array.
  */
 public class Grid {
     /**
@@ -17,17 +19,54 @@ public class Grid {
      */
     private final SudokuType sudokuType;
 
-    private final Cell[][] grid;
+    /**
+     * The shared index tables for the {@link SudokuType} of this Grid.
+     */
+    private final GridGeometry geometry;
+
+    /**
+     * The complete state of the board, laid out as follows:
+     * <ol>
+     * <li>The value of each square (in row-major order).</li>
+     * <li>The occupancy bitmasks of each row, column & box. Bit n is set when the value n is present in that unit.</li>
+     * <li>The number of times each value occurs in each row, column & box. Needed since the player may place
+     * duplicate values on the board, in which case a bit can only be cleared once the last duplicate is removed.</li>
+     * </ol>
+     * Keeping everything in one array means that copying a Grid is a single array copy.
+     */
+    private final int[] state;
+
+    /* Offsets of the various sections within the state array. */
+    private final int rowMaskOffset;
+    private final int columnMaskOffset;
+    private final int boxMaskOffset;
+    private final int rowCountOffset;
+    private final int columnCountOffset;
+    private final int boxCountOffset;
+
+    /**
+     * Lazily created {@link Cell} views (one per square), so that repeated lookups don't allocate.
+     */
+    private Cell[] cellViews;
 
     /**
      * Creates a new Grid
      *
-     * @param grid       The {@link Cell}s that represent the Sudoku board.
+     * @param state      The state array that backs the Grid (see {@link #state}).
      * @param sudokuType Whether the Grid represents a 4x4, 6x6, or 9x9 board.
      */
-    private Grid(@NotNull Cell[][] grid, @NotNull SudokuType sudokuType) {
-        this.grid = grid;
+    private Grid(@NotNull int[] state, @NotNull SudokuType sudokuType) {
         this.sudokuType = sudokuType;
+        this.geometry = GridGeometry.of(sudokuType);
+        this.state = state;
+
+        int size = this.geometry.size;
+        this.rowMaskOffset = this.geometry.cellCount;
+        this.columnMaskOffset = this.rowMaskOffset + size;
+        this.boxMaskOffset = this.columnMaskOffset + size;
+        this.rowCountOffset = this.boxMaskOffset + size;
+        this.columnCountOffset = this.rowCountOffset + size * (size + 1);
+        this.boxCountOffset = this.columnCountOffset + size * (size + 1);
     }
 
     /**
@@ -36,18 +75,7 @@ public class Grid {
      * @param originalGrid The original Grid that needs to be copied over.
      */
     public Grid(@NotNull Grid originalGrid) {
-        int[][] gridNumbers = new int[originalGrid.grid.length][];
-        for (int i = 0; i < gridNumbers.length; i++) {
-            gridNumbers[i] = new int[originalGrid.grid[i].length];
-            for (int j = 0; j < gridNumbers[0].length; j++) {
-                gridNumbers[i][j] = originalGrid.grid[i][j].getValue();
-            }
-        }
-
-        Grid newGrid = Grid.of(gridNumbers, originalGrid.sudokuType);
-
-        this.sudokuType = newGrid.sudokuType;
-        this.grid = newGrid.grid;
+        this(originalGrid.state.clone(), originalGrid.sudokuType);
     }
 
     /**
@@ -63,66 +91,14 @@ public class Grid {
         // Just checks a few things (null, etc.) & throws null if any are true.
         verifyGrid(grid, sudokuBoardSize);
 
-        Cell[][] cells = new Cell[sudokuBoardSize][sudokuBoardSize];
-        List<List<Cell>> rows = new ArrayList<>();
-        List<List<Cell>> columns = new ArrayList<>();
-        List<List<Cell>> boxes = new ArrayList<>();
-
-        for (int i = 0; i < sudokuBoardSize; i++) {
-            rows.add(new ArrayList<>());
-            columns.add(new ArrayList<>());
-            boxes.add(new ArrayList<>());
-        }
-
-        Cell lastCell = null;
-        for (int row = 0; row < grid.length; row++) {
-            for (int column = 0; column < grid[row].length; column++) {
-                Cell cell = new Cell(grid[row][column]);
-                cells[row][column] = cell;
-
-                rows.get(row).add(cell);
-                columns.get(column).add(cell);
-
-                // Modified this to support generation of 6x6 boards. Needed modification
-                // since the blocks are rectangles (2x3), which is unlike 3x3 or 2x2 blocks.
-                int blockHeight = sudokuType.getBlockHeight();
-                boxes.get((row / blockHeight) * blockHeight + column / sudokuType.getBlockWidth()).add(cell);
-
-                if (lastCell != null) {
-                    lastCell.setNextCell(cell);
-                }
-
-                lastCell = cell;
+        Grid newGrid = new Grid(new int[getStateLength(sudokuBoardSize)], sudokuType);
+        for (int row = 0; row < sudokuBoardSize; row++) {
+            for (int column = 0; column < sudokuBoardSize; column++) {
+                newGrid.setValue(row * sudokuBoardSize + column, grid[row][column]);
             }
         }
 
-        for (int i = 0; i < sudokuBoardSize; i++) {
-            List<Cell> row = rows.get(i);
-            for (Cell cell : row) {
-                List<Cell> rowNeighbors = new ArrayList<>(row);
-                rowNeighbors.remove(cell);
-
-                cell.setRowNeighbors(rowNeighbors);
-            }
-
-            List<Cell> column = columns.get(i);
-            for (Cell cell : column) {
-                List<Cell> columnNeighbors = new ArrayList<>(column);
-                columnNeighbors.remove(cell);
-
-                cell.setColumnNeighbors(columnNeighbors);
-            }
-
-            List<Cell> box = boxes.get(i);
-            for (Cell cell : box) {
-                List<Cell> boxNeighbors = new ArrayList<>(box);
-                boxNeighbors.remove(cell);
-
-                cell.setBoxNeighbors(boxNeighbors);
-            }
-        }
-
-        return new Grid(cells, sudokuType);
+        return newGrid;
     }
 
     /**
@@ -132,8 +108,17 @@ public class Grid {
      * @return an empty Grid
      */
     public static Grid emptyGrid(@NotNull SudokuType sudokuType) {
-        int[][] emptyGrid = new int[sudokuType.getSudokuBoardSize()][sudokuType.getSudokuBoardSize()];
-        return Grid.of(emptyGrid, sudokuType);
+        return new Grid(new int[getStateLength(sudokuType.getSudokuBoardSize())], sudokuType);
+    }
+
+    /**
+     * Gets the length of the state array that backs a Grid of the given size.
+     *
+     * @param sudokuBoardSize The number of squares on each dimension of the given Sudoku board (e.g. 9x9 --> 9).
+     * @return The length of the state array (values, bitmasks & value counts).
+     */
+    private static int getStateLength(int sudokuBoardSize) {
+        return sudokuBoardSize * sudokuBoardSize + 3 * sudokuBoardSize + 3 * sudokuBoardSize * (sudokuBoardSize + 1);
     }
 
     /**
@@ -170,12 +155,10 @@ public class Grid {
      * @return A 2D array of ints representing the current Sudoku grid.
      */
     public int[][] toIntArray() {
-        int[][] mappedGrid = new int[this.grid.length][];
-        for (int i = 0; i < this.grid.length; i++) {
-            mappedGrid[i] = new int[this.grid[i].length];
-            for (int j = 0; j < this.grid[i].length; j++) {
-                mappedGrid[i][j] = this.grid[i][j].getValue();
-            }
+        int size = this.geometry.size;
+        int[][] mappedGrid = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(this.state, i * size, mappedGrid[i], 0, size);
         }
         return mappedGrid;
     }
@@ -188,7 +171,25 @@ public class Grid {
      * @return the size of this Grid
      */
     int getSize() {
-        return this.grid.length;
+        return this.geometry.size;
+    }
+
+    /**
+     * Getter for sudokuType
+     *
+     * @return Whether the Grid represents a 4x4, 6x6, or 9x9 board.
+     */
+    SudokuType getSudokuType() {
+        return this.sudokuType;
+    }
+
+    /**
+     * Getter for geometry
+     *
+     * @return The shared index tables for the {@link SudokuType} of this Grid.
+     */
+    GridGeometry getGeometry() {
+        return this.geometry;
     }
 
     /**
@@ -200,94 +201,150 @@ public class Grid {
      * @return the {@link Cell} at the given position
      */
     public Cell getCell(int row, int column) {
-        return this.grid[row][column];
+        return this.getCell(row * this.geometry.size + column);
     }
 
     /**
-     * Checks if a given value is valid for a certain {@link Cell}.
-     * A value is valid if it does not already exist in the same row, column and box.
+     * Returns the {@link Cell} view of the square at the given (row-major) index.
      *
-     * @param cell  the {@link Cell} to check
-     * @param value the value to validate
-     * @return true if the given value is valid or false otherwise
+     * @param index The index of the square.
+     * @return the {@link Cell} at the given index
      */
-    public boolean isValidValueForCell(@NotNull Cell cell, int value) {
-        return this.isValidInRow(cell, value) && this.isValidInColumn(cell, value) && this.isValidInBox(cell, value);
+    Cell getCell(int index) {
+        if (this.cellViews == null) {
+            this.cellViews = new Cell[this.geometry.cellCount];
+        }
+
+        Cell cell = this.cellViews[index];
+        if (cell == null) {
+            cell = new Cell(this, index);
+            this.cellViews[index] = cell;
+        }
+        return cell;
     }
 
     /**
-     * Checks to see whether the number would be valid in the {@link Cell}'s row.
+     * Gets the value of the square at the given index.
      *
-     * @param cell  The {@link Cell} to validate.
-     * @param value The value of the cell to check.
-     * @return true if the number would be valid in the current row (otherwise, false).
+     * @param index The (row-major) index of the square.
+     * @return The value of the square (or {@link gamesforblind.Constants#EMPTY_SUDOKU_SQUARE} if it is empty).
      */
-    private boolean isValidInRow(@NotNull Cell cell, int value) {
-        return !this.getRowValuesOf(cell).contains(value);
+    int getValue(int index) {
+        return this.state[index];
     }
 
     /**
-     * Checks to see whether the number would be valid in the {@link Cell}'s column.
+     * Sets the value of the square at the given index & updates the occupancy bitmasks.
      *
-     * @param cell  The {@link Cell} to validate.
-     * @param value The value of the cell to check.
-     * @return true if the number would be valid in the current column (otherwise, false).
+     * @param index The (row-major) index of the square.
+     * @param value The new value of the square.
      */
-    private boolean isValidInColumn(@NotNull Cell cell, int value) {
-        return !this.getColumnValuesOf(cell).contains(value);
+    void setValue(int index, int value) {
+        int previousValue = this.state[index];
+        if (previousValue == value) {
+            return;
+        }
+
+        this.state[index] = value;
+
+        int row = this.geometry.rowOf[index], column = this.geometry.columnOf[index], box = this.geometry.boxOf[index];
+        this.removeValue(row, column, box, previousValue);
+        this.addValue(row, column, box, value);
     }
 
     /**
-     * Checks to see whether the number would be valid in the {@link Cell}'s block.
+     * Checks if a given value is valid for a certain {@link Cell}.
+     * A value is valid if it does not already exist in the same row, column and box.
      *
-     * @param cell  The {@link Cell} to validate.
-     * @param value The value of the cell to check.
-     * @return true if the number would be valid in the current block (otherwise, false).
+     * @param cell  the {@link Cell} to check
+     * @param value the value to validate
+     * @return true if the given value is valid or false otherwise
      */
-    private boolean isValidInBox(@NotNull Cell cell, int value) {
-        return !this.getBoxValuesOf(cell).contains(value);
+    public boolean isValidValueForCell(@NotNull Cell cell, int value) {
+        return this.isValidValueAt(cell.getIndex(), value);
     }
 
     /**
-     * Gets all values for the given {@link Cell}'s row.
+     * Checks if a given value is valid for the square at the given index.
      *
-     * @param cell The {@link Cell} to check.
-     * @return A Collection of Integers that represents all of the values in the passed {@link Cell}'s row.
+     * @param index The (row-major) index of the square to check.
+     * @param value The value to validate.
+     * @return true if the given value is valid or false otherwise
      */
-    private Collection<Integer> getRowValuesOf(@NotNull Cell cell) {
-        List<Integer> rowValues = new ArrayList<>();
-        for (Cell neighbor : cell.getRowNeighbors()) {
-            rowValues.add(neighbor.getValue());
+    boolean isValidValueAt(int index, int value) {
+        int row = this.geometry.rowOf[index], column = this.geometry.columnOf[index], box = this.geometry.boxOf[index];
+
+        // The square itself is not one of its own neighbors, so its current value must be discounted.
+        if (this.state[index] == value) {
+            int countsPerUnit = this.geometry.size + 1;
+            return this.state[this.rowCountOffset + row * countsPerUnit + value] == 1
+                    && this.state[this.columnCountOffset + column * countsPerUnit + value] == 1
+                    && this.state[this.boxCountOffset + box * countsPerUnit + value] == 1;
         }
-        return rowValues;
+
+        return (this.getOccupiedMask(index) & (1 << value)) == 0;
+    }
+
+    /**
+     * Gets the bitmask of all values that occur in the row, column or box of the square at the given index.
+     *
+     * @param index The (row-major) index of the square.
+     * @return The union of the occupancy bitmasks (bit n is set when the value n is present).
+     */
+    int getOccupiedMask(int index) {
+        return this.state[this.rowMaskOffset + this.geometry.rowOf[index]]
+                | this.state[this.columnMaskOffset + this.geometry.columnOf[index]]
+                | this.state[this.boxMaskOffset + this.geometry.boxOf[index]];
     }
 
     /**
-     * Gets all values for the given {@link Cell}'s column.
+     * Records that the given value now occupies a square in the given row, column & box.
      *
-     * @param cell The {@link Cell} to check.
-     * @return A Collection of Integers that represents all of the values in the passed {@link Cell}'s column.
+     * @param row    The row index.
+     * @param column The column index.
+     * @param box    The box index.
+     * @param value  The value to add (empty squares are not tracked).
      */
-    private Collection<Integer> getColumnValuesOf(@NotNull Cell cell) {
-        List<Integer> columnValues = new ArrayList<>();
-        for (Cell neighbor : cell.getColumnNeighbors()) {
-            columnValues.add(neighbor.getValue());
+    private void addValue(int row, int column, int box, int value) {
+        if (value == EMPTY_SUDOKU_SQUARE) {
+            return;
+        }
+
+        int bit = 1 << value, countsPerUnit = this.geometry.size + 1;
+        if (this.state[this.rowCountOffset + row * countsPerUnit + value]++ == 0) {
+            this.state[this.rowMaskOffset + row] |= bit;
+        }
+        if (this.state[this.columnCountOffset + column * countsPerUnit + value]++ == 0) {
+            this.state[this.columnMaskOffset + column] |= bit;
+        }
+        if (this.state[this.boxCountOffset + box * countsPerUnit + value]++ == 0) {
+            this.state[this.boxMaskOffset + box] |= bit;
         }
-        return columnValues;
     }
 
     /**
-     * Gets all values for the given {@link Cell}'s block.
+     * Records that the given value no longer occupies a square in the given row, column & box.
      *
-     * @param cell The {@link Cell} to check.
-     * @return A Collection of Integers that represents all of the values in the passed {@link Cell}'s block.
+     * @param row    The row index.
+     * @param column The column index.
+     * @param box    The box index.
+     * @param value  The value to remove (empty squares are not tracked).
      */
-    private Collection<Integer> getBoxValuesOf(@NotNull Cell cell) {
-        List<Integer> boxValues = new ArrayList<>();
-        for (Cell neighbor : cell.getBoxNeighbors()) {
-            boxValues.add(neighbor.getValue());
+    private void removeValue(int row, int column, int box, int value) {
+        if (value == EMPTY_SUDOKU_SQUARE) {
+            return;
+        }
+
+        int bit = 1 << value, countsPerUnit = this.geometry.size + 1;
+        if (--this.state[this.rowCountOffset + row * countsPerUnit + value] == 0) {
+            this.state[this.rowMaskOffset + row] &= ~bit;
+        }
+        if (--this.state[this.columnCountOffset + column * countsPerUnit + value] == 0) {
+            this.state[this.columnMaskOffset + column] &= ~bit;
+        }
+        if (--this.state[this.boxCountOffset + box * countsPerUnit + value] == 0) {
+            this.state[this.boxMaskOffset + box] &= ~bit;
         }
-        return boxValues;
     }
 
     /**
@@ -296,12 +353,8 @@ public class Grid {
      * @return a non-null value containing the first empty {@link Cell} if present
      */
     public Optional<Cell> getFirstEmptyCell() {
-        Cell firstCell = this.grid[0][0];
-        if (firstCell.isEmpty()) {
-            return Optional.of(firstCell);
-        }
-
-        return this.getNextEmptyCellOf(firstCell);
+        int index = this.getNextEmptyIndex(0);
+        return index != -1 ? Optional.of(this.getCell(index)) : Optional.empty();
     }
 
     /**
@@ -312,18 +365,23 @@ public class Grid {
      * @return a non-null value containing the next empty {@link Cell} if present
      */
     Optional<Cell> getNextEmptyCellOf(@NotNull Cell cell) {
-        Cell nextEmptyCell = null;
+        int index = this.getNextEmptyIndex(cell.getIndex() + 1);
+        return index != -1 ? Optional.of(this.getCell(index)) : Optional.empty();
+    }
 
-        while ((cell = cell.getNextCell()) != null) {
-            if (!cell.isEmpty()) {
-                continue;
+    /**
+     * Returns the index of the first empty square at or after the given index.
+     *
+     * @param fromIndex The (row-major) index to start searching from.
+     * @return The index of the next empty square, or -1 if there are no empty squares left.
+     */
+    int getNextEmptyIndex(int fromIndex) {
+        for (int index = fromIndex; index < this.geometry.cellCount; index++) {
+            if (this.state[index] == EMPTY_SUDOKU_SQUARE) {
+                return index;
             }
-
-            nextEmptyCell = cell;
-            break;
         }
-
-        return Optional.ofNullable(nextEmptyCell);
+        return -1;
     }
 
     /**
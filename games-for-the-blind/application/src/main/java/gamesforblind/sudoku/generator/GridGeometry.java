@@ -0,0 +1,123 @@
+package gamesforblind.sudoku.generator;
+
+import gamesforblind.enums.SudokuType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Precomputed index tables for each {@link SudokuType}. Squares are numbered in row-major order
+ * (index = row * size + column), so that a {@link Grid} can be stored as a flat array of values.
+ */
+class GridGeometry {
+    /**
+     * One shared (immutable) instance per {@link SudokuType}.
+     */
+    private static final Map<SudokuType, GridGeometry> SUDOKU_TYPE_TO_GEOMETRY = new EnumMap<>(SudokuType.class);
+
+    static {
+        for (SudokuType sudokuType : SudokuType.values()) {
+            SUDOKU_TYPE_TO_GEOMETRY.put(sudokuType, new GridGeometry(sudokuType));
+        }
+    }
+
+    /**
+     * The number of squares on each side of the board (e.g. 9x9 --> 9).
+     */
+    final int size;
+
+    /**
+     * The total number of squares on the board (e.g. 9x9 --> 81).
+     */
+    final int cellCount;
+
+    /* The row, column & box index of each square. */
+    final int[] rowOf;
+    final int[] columnOf;
+    final int[] boxOf;
+
+    /* For each square, the indices of all OTHER squares in the same row, column & box. */
+    final int[][] rowPeers;
+    final int[][] columnPeers;
+    final int[][] boxPeers;
+
+    /* For each row, column & box, the indices of all of its squares. */
+    final int[][] rowSquares;
+    final int[][] columnSquares;
+    final int[][] boxSquares;
+
+    /**
+     * Creates the index tables for the given {@link SudokuType}.
+     *
+     * @param sudokuType Whether the board is a 4x4, 6x6, or 9x9 board.
+     */
+    private GridGeometry(@NotNull SudokuType sudokuType) {
+        this.size = sudokuType.getSudokuBoardSize();
+        this.cellCount = this.size * this.size;
+
+        this.rowOf = new int[this.cellCount];
+        this.columnOf = new int[this.cellCount];
+        this.boxOf = new int[this.cellCount];
+
+        this.rowSquares = new int[this.size][this.size];
+        this.columnSquares = new int[this.size][this.size];
+        this.boxSquares = new int[this.size][this.size];
+
+        int[] rowFill = new int[this.size], columnFill = new int[this.size], boxFill = new int[this.size];
+        for (int index = 0; index < this.cellCount; index++) {
+            int row = index / this.size;
+            int column = index % this.size;
+
+            // Modified this to support generation of 6x6 boards. Needed modification
+            // since the blocks are rectangles (2x3), which is unlike 3x3 or 2x2 blocks.
+            int blockHeight = sudokuType.getBlockHeight();
+            int box = (row / blockHeight) * blockHeight + column / sudokuType.getBlockWidth();
+
+            this.rowOf[index] = row;
+            this.columnOf[index] = column;
+            this.boxOf[index] = box;
+
+            this.rowSquares[row][rowFill[row]++] = index;
+            this.columnSquares[column][columnFill[column]++] = index;
+            this.boxSquares[box][boxFill[box]++] = index;
+        }
+
+        this.rowPeers = new int[this.cellCount][];
+        this.columnPeers = new int[this.cellCount][];
+        this.boxPeers = new int[this.cellCount][];
+        for (int index = 0; index < this.cellCount; index++) {
+            this.rowPeers[index] = withoutIndex(this.rowSquares[this.rowOf[index]], index);
+            this.columnPeers[index] = withoutIndex(this.columnSquares[this.columnOf[index]], index);
+            this.boxPeers[index] = withoutIndex(this.boxSquares[this.boxOf[index]], index);
+        }
+    }
+
+    /**
+     * Gets the shared GridGeometry for a {@link SudokuType}.
+     *
+     * @param sudokuType Whether the board is a 4x4, 6x6, or 9x9 board.
+     * @return The precomputed index tables for the given {@link SudokuType}.
+     */
+    static GridGeometry of(@NotNull SudokuType sudokuType) {
+        return SUDOKU_TYPE_TO_GEOMETRY.get(sudokuType);
+    }
+
+    /**
+     * Copies the given unit of squares, leaving out one of the squares.
+     *
+     * @param unitSquares The indices of the squares in a row, column or box.
+     * @param index       The index to leave out.
+     * @return The indices of the unit, excluding the given index.
+     */
+    private static int[] withoutIndex(@NotNull int[] unitSquares, int index) {
+        int[] peers = new int[unitSquares.length - 1];
+        int peerIndex = 0;
+        for (int square : unitSquares) {
+            if (square != index) {
+                peers[peerIndex++] = square;
+            }
+        }
+        return peers;
+    }
+}
@@ -1,7 +1,7 @@
 package gamesforblind.sudoku.generator;
 
+import gamesforblind.enums.SolverMode;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -10,9 +10,9 @@ import java.util.Random;
 import static gamesforblind.Constants.EMPTY_SUDOKU_SQUARE;
 
 /**
- * A Solver is capable of solving a given Sudoku {@link Grid}.
+ * A Solver is capable of solving a given Sudoku {@link Grid} using backtracking.
  */
-public class Solver {
+public class Solver implements SudokuSolver {
     /**
      * The number of squares on each side of the Sudoku board (e.g. 6x6 --> 6).
      */
@@ -21,12 +21,28 @@ public class Solver {
     private final int[] values;
 
     /**
-     * Constructs a new Solver instance.
+     * The order in which the empty squares of the board are filled in.
+     */
+    private final SolverMode solverMode;
+
+    /**
+     * Constructs a new Solver instance that fills the board in row-major order.
      *
      * @param sudokuBoardSize The number of squares on each side of the Sudoku board (e.g. 6x6 --> 6).
      */
     public Solver(int sudokuBoardSize) {
+        this(sudokuBoardSize, SolverMode.ROW_MAJOR);
+    }
+
+    /**
+     * Constructs a new Solver instance.
+     *
+     * @param sudokuBoardSize The number of squares on each side of the Sudoku board (e.g. 6x6 --> 6).
+     * @param solverMode      The order in which the empty squares of the board are filled in.
+     */
+    public Solver(int sudokuBoardSize, @NotNull SolverMode solverMode) {
         this.sudokuBoardSize = sudokuBoardSize;
+        this.solverMode = solverMode;
         this.values = this.generateRandomValues();
     }
 
@@ -36,8 +52,9 @@ public class Solver {
      * @param grid the {@link Grid} to solve
      * @throws IllegalStateException in case the provided {@link Grid} is invalid.
      */
+    @Override
     public void solve(@NotNull Grid grid) {
-        boolean solvable = this.solve(grid, grid.getFirstEmptyCell().orElse(null));
+        boolean solvable = this.isSolvable(grid);
         if (!solvable) {
             throw new IllegalStateException("The provided grid is not solvable.");
         }
@@ -49,37 +66,172 @@ public class Solver {
      * @param grid The {@link Grid} to check.
      * @return true if the given Grid is solvable (otherwise false).
      */
+    @Override
     public boolean isSolvable(@NotNull Grid grid) {
-        return this.solve(grid, grid.getFirstEmptyCell().orElse(null));
+        if (this.solverMode == SolverMode.MOST_CONSTRAINED_CELL) {
+            return this.solveMostConstrainedFirst(grid, new int[grid.getGeometry().cellCount], 0);
+        }
+
+        return this.solve(grid, grid.getNextEmptyIndex(0));
+    }
+
+    /**
+     * Counts the solutions of the passed {@link Grid} using backtracking (in row-major order).
+     *
+     * @param grid  The {@link Grid} to check.
+     * @param limit The number of solutions after which counting stops (e.g. 2 to check for a unique solution).
+     * @return The number of solutions, but never more than the given limit.
+     */
+    @Override
+    public int countSolutions(@NotNull Grid grid, int limit) {
+        return this.countSolutions(grid, grid.getNextEmptyIndex(0), limit);
+    }
+
+    /**
+     * Helper method to count the solutions of the given Sudoku grid using backtracking.
+     *
+     * @param grid  The Sudoku grid to check (restored to its original state before returning).
+     * @param index The index of the {@link Cell} on the Sudoku grid that needs to be filled (-1 if none are left).
+     * @param limit The number of solutions after which counting stops.
+     * @return The number of solutions that were found, but never more than the given limit.
+     */
+    private int countSolutions(@NotNull Grid grid, int index, int limit) {
+        if (index == -1) {
+            return 1;
+        }
+
+        int numberOfSolutions = 0;
+        for (int value = 1; value <= this.sudokuBoardSize && numberOfSolutions < limit; value++) {
+            if (grid.isValidValueAt(index, value)) {
+                grid.setValue(index, value);
+                numberOfSolutions += this.countSolutions(grid, grid.getNextEmptyIndex(index + 1), limit - numberOfSolutions);
+                grid.setValue(index, EMPTY_SUDOKU_SQUARE);
+            }
+        }
+
+        return numberOfSolutions;
     }
 
     /**
      * Helper method to solve a {@link Cell} of the given Sudoku grid using backtracking.
      *
-     * @param grid The Sudoku grid to solve.
-     * @param cell The {@link Cell} on the Sudoku grid that needs to be solved.
+     * @param grid  The Sudoku grid to solve.
+     * @param index The index of the {@link Cell} on the Sudoku grid that needs to be solved (-1 if none are left).
      * @return true if the Grid is solvable, otherwise false.
      */
-    private boolean solve(@NotNull Grid grid, @Nullable Cell cell) {
-        if (cell == null) {
+    private boolean solve(@NotNull Grid grid, int index) {
+        if (index == -1) {
             return true;
         }
 
         for (int value : this.values) {
-            if (grid.isValidValueForCell(cell, value)) {
-                cell.setValue(value);
+            if (grid.isValidValueAt(index, value)) {
+                grid.setValue(index, value);
 
-                if (this.solve(grid, grid.getNextEmptyCellOf(cell).orElse(null))) {
+                if (this.solve(grid, grid.getNextEmptyIndex(index + 1))) {
                     return true;
                 }
 
-                cell.setValue(EMPTY_SUDOKU_SQUARE);
+                grid.setValue(index, EMPTY_SUDOKU_SQUARE);
             }
         }
 
         return false;
     }
 
+    /**
+     * Helper method to solve the given Sudoku grid by always branching on the most constrained empty square.
+     * Before branching, all squares that have exactly one candidate left (naked singles) are filled in.
+     *
+     * @param grid        The Sudoku grid to solve.
+     * @param filledStack Records the indices of the squares that were filled in, so they can be undone on failure.
+     * @param stackSize   The number of entries that are currently in the filledStack.
+     * @return true if the Grid is solvable, otherwise false (the Grid is left unchanged in that case).
+     */
+    private boolean solveMostConstrainedFirst(@NotNull Grid grid, @NotNull int[] filledStack, int stackSize) {
+        final int allValuesMask = ((1 << (this.sudokuBoardSize + 1)) - 1) & ~1;
+        final int cellCount = grid.getGeometry().cellCount;
+        final int stackStart = stackSize;
+
+        int branchIndex;
+        int branchCandidates;
+        while (true) {
+            boolean filledSingle = false;
+            branchIndex = -1;
+            branchCandidates = 0;
+            int fewestCandidates = Integer.MAX_VALUE;
+
+            for (int index = 0; index < cellCount; index++) {
+                if (grid.getValue(index) != EMPTY_SUDOKU_SQUARE) {
+                    continue;
+                }
+
+                int candidates = allValuesMask & ~grid.getOccupiedMask(index);
+                int numberOfCandidates = Integer.bitCount(candidates);
+
+                // Case 1: a dead end (this square can't be filled anymore).
+                if (numberOfCandidates == 0) {
+                    this.undoFilledSquares(grid, filledStack, stackStart, stackSize);
+                    return false;
+                }
+
+                // Case 2: a naked single (fill it in right away).
+                if (numberOfCandidates == 1) {
+                    grid.setValue(index, Integer.numberOfTrailingZeros(candidates));
+                    filledStack[stackSize++] = index;
+                    filledSingle = true;
+                    continue;
+                }
+
+                // Case 3: remember the square with the fewest candidates.
+                if (numberOfCandidates < fewestCandidates) {
+                    fewestCandidates = numberOfCandidates;
+                    branchIndex = index;
+                    branchCandidates = candidates;
+                }
+            }
+
+            // Keep propagating until no more naked singles are found.
+            if (!filledSingle) {
+                break;
+            }
+        }
+
+        // No empty squares are left, so the Grid is solved.
+        if (branchIndex == -1) {
+            return true;
+        }
+
+        for (int value : this.values) {
+            if ((branchCandidates & (1 << value)) == 0) {
+                continue;
+            }
+
+            grid.setValue(branchIndex, value);
+            if (this.solveMostConstrainedFirst(grid, filledStack, stackSize)) {
+                return true;
+            }
+            grid.setValue(branchIndex, EMPTY_SUDOKU_SQUARE);
+        }
+
+        this.undoFilledSquares(grid, filledStack, stackStart, stackSize);
+        return false;
+    }
+
+    /**
+     * Empties the squares that were recorded in the given part of the filled stack.
+     *
+     * @param grid        The Sudoku grid to modify.
+     * @param filledStack The indices of the squares that were filled in.
+     * @param fromIndex   The first entry of the stack to undo.
+     * @param toIndex     One past the last entry of the stack to undo.
+     */
+    private void undoFilledSquares(@NotNull Grid grid, @NotNull int[] filledStack, int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            grid.setValue(filledStack[i], EMPTY_SUDOKU_SQUARE);
+        }
+    }
+
     /**
      * Generates an array of random values between 1 and {@link #sudokuBoardSize}.
      *
@@ -0,0 +1,36 @@
+package gamesforblind.sudoku.generator;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interface that all Sudoku solvers implement. Allows the {@link Generator} & the game
+ * to use either the backtracking {@link Solver} or the {@link DancingLinksSolver}.
+ */
+public interface SudokuSolver {
+    /**
+     * Solves a given {@link Grid} (fills in all of its empty {@link Cell}s).
+     *
+     * @param grid the {@link Grid} to solve
+     * @throws IllegalStateException in case the provided {@link Grid} is not solvable.
+     */
+    void solve(@NotNull Grid grid);
+
+    /**
+     * Used for checking if the passed {@link Grid} is solvable.
+     * Note: implementations may fill in the passed {@link Grid}, so pass a copy if it needs to stay unchanged.
+     *
+     * @param grid The {@link Grid} to check.
+     * @return true if the given Grid is solvable (otherwise false).
+     */
+    boolean isSolvable(@NotNull Grid grid);
+
+    /**
+     * Counts the number of solutions of the passed {@link Grid}, stopping once the given limit is reached.
+     * The passed {@link Grid} is left unchanged.
+     *
+     * @param grid  The {@link Grid} to check.
+     * @param limit The number of solutions after which counting stops (e.g. 2 to check for a unique solution).
+     * @return The number of solutions, but never more than the given limit.
+     */
+    int countSolutions(@NotNull Grid grid, int limit);
+}
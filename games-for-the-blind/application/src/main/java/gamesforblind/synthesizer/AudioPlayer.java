@@ -3,115 +3,178 @@ package gamesforblind.synthesizer;
 import org.jetbrains.annotations.NotNull;
 import phrase.Phrase;
 
-import javax.sound.sampled.*;
-import java.io.BufferedInputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Optional;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Audio player for the program. Run on a separate thread to prevent audio from blocking the main program thread.
+ * All Phrases are streamed through a single {@link SourceDataLine}, from the decoded audio in a
+ * {@link PhraseAudioCache}. The phrases to play are spliced into one sentence, which is played without gaps.
  */
 public class AudioPlayer implements Runnable {
     /**
-     * A Map between a Phrase in the game & an OPENED audio Clip. This prevents pauses in the
-     * game that previously occurred due to File IO taking a considerable amount of time.
+     * The format that all Phrases are played in (the format of the text-to-speech audio files: 16-bit mono PCM).
+     * Audio files in another format are converted when they are decoded.
      */
-    private final HashMap<Phrase, Clip> phraseToClip;
+    public static final AudioFormat PHRASE_AUDIO_FORMAT = new AudioFormat(24_000f, 16, 1, true, false);
+
+    /**
+     * The number of bytes that are written to the line at once (10 ms of audio).
+     * A replacement of the phrases to play is noticed between two writes.
+     */
+    private static final int WRITE_CHUNK_SIZE = 480;
+
+    /**
+     * The size of the line's buffer in bytes (50 ms of audio).
+     */
+    private static final int LINE_BUFFER_SIZE = 2400;
+
+    /**
+     * The only line that the program plays audio through (stays opened until the audio player terminates).
+     */
+    private final SourceDataLine sourceDataLine;
+
+    /**
+     * The decoded audio of the Phrases.
+     */
+    private final PhraseAudioCache phraseAudioCache = new PhraseAudioCache();
 
     /**
      * When this is set to false, the audio player is terminated.
      */
-    private boolean isActive = true;
+    private volatile boolean isActive = true;
 
     /**
-     * The Clip that is currently playing or was the last Clip that played in the game.
+     * The latest phrases to play, handed over from the game thread without locking. Every replacement is a new
+     * immutable list, so the list instance itself tells the audio player thread that the phrases were replaced.
      */
-    private Clip activeClip;
+    private final AtomicReference<List<Phrase>> phrasesToPlay = new AtomicReference<>(Collections.emptyList());
 
     /**
-     * The remaining phrases that need to be played in the game.
+     * The latest phrases that will probably be played next (e.g. around the selected square), handed over from the
+     * game thread without locking. The audio player thread takes the list & decodes it while it is idle.
      */
-    private ArrayList<Phrase> phrasesToPlay = new ArrayList<>();
+    private final AtomicReference<List<Phrase>> phrasesToPrefetch = new AtomicReference<>();
+
+    /**
+     * The audio player thread (unparked when there is something new to play or prefetch).
+     */
+    private volatile Thread audioPlayerThread;
+
+    /**
+     * The phrases that the audio player thread is playing (only used on the audio player thread).
+     */
+    private List<Phrase> playingPhrases = this.phrasesToPlay.get();
+
+    /**
+     * The spliced audio of the playingPhrases that is being written to the line (null if nothing is playing).
+     */
+    private byte[] activeSentenceAudio;
+
+    /**
+     * The position in activeSentenceAudio of the next byte to write.
+     */
+    private int activeSentenceAudioPosition;
+
+    /**
+     * The remaining phrases to prefetch (only used on the audio player thread).
+     */
+    private Iterator<Phrase> prefetchingPhrases = Collections.emptyIterator();
 
     /**
      * Creates a new AudioPlayer
      *
-     * @throws LineUnavailableException Thrown when the {@link Clip} in the audio player cannot be started.
+     * @throws LineUnavailableException Thrown when the {@link SourceDataLine} in the audio player cannot be opened.
      */
     public AudioPlayer() throws LineUnavailableException {
-        // Initialize the active Clip to an empty Clip object (prevents the need to check for null)
-        this.activeClip = AudioSystem.getClip();
-
-        this.phraseToClip = this.getInitializedClipHashMap();
+        this.sourceDataLine = AudioSystem.getSourceDataLine(PHRASE_AUDIO_FORMAT);
+        this.sourceDataLine.open(PHRASE_AUDIO_FORMAT, LINE_BUFFER_SIZE);
+        this.sourceDataLine.start();
     }
 
     /**
-     * Get the Clip associated with a particular Phrase. If an error occurs, return Optional.empty().
-     *
-     * @param phrase The Phrase to get the associated Clip from.
-     * @return An Optional containing the Clip if no error occurred (otherwise, empty()).
+     * If the phrases to play were replaced, discards the queued audio & starts playing the new phrases.
      */
-    private Optional<Clip> getPhraseClip(@NotNull Phrase phrase) {
-        try {
-            Clip phraseClip = AudioSystem.getClip();
+    private void startReplacedPhrases() {
+        List<Phrase> phrasesToPlay = this.phrasesToPlay.get();
+        if (phrasesToPlay == this.playingPhrases) {
+            return;
+        }
 
-            Optional<InputStream> maybePhraseAudioStream = phrase.getPhraseInputStream();
+        // Discarding the audio in the line cuts the old sentence off right away (instead of after its buffer).
+        this.sourceDataLine.flush();
+        this.playingPhrases = phrasesToPlay;
 
-            if (!maybePhraseAudioStream.isPresent()) {
-                System.err.println(String.format("Failed to find phrase audio file: %s!", phrase));
-                return Optional.empty();
-            }
+        byte[] sentenceAudio = this.phraseAudioCache.getSentenceAudio(phrasesToPlay);
+        this.activeSentenceAudio = (sentenceAudio.length > 0) ? sentenceAudio : null;
+        this.activeSentenceAudioPosition = 0;
+    }
 
-            BufferedInputStream bufferedInputStream = new BufferedInputStream(maybePhraseAudioStream.get());
-            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(bufferedInputStream);
+    /**
+     * Checks if anything is left to play (a sentence that is being written, or phrases that weren't started yet).
+     *
+     * @return true if the audio player still has audio to play.
+     */
+    private boolean hasPhrasesToPlay() {
+        return this.activeSentenceAudio != null || this.phrasesToPlay.get() != this.playingPhrases;
+    }
 
-            // The Clip should be opened so that it can be immediately played.
-            phraseClip.open(audioInputStream);
+    /**
+     * Decodes the next phrase to prefetch (phrases that were handed over later replace the remaining ones,
+     * since they are closer to what the user is doing now).
+     *
+     * @return true if a phrase was prefetched, false if there is nothing (left) to prefetch.
+     */
+    private boolean prefetchNextPhrase() {
+        List<Phrase> phrasesToPrefetch = this.phrasesToPrefetch.getAndSet(null);
+        if (phrasesToPrefetch != null) {
+            this.prefetchingPhrases = phrasesToPrefetch.iterator();
+        }
 
-            return Optional.of(phraseClip);
-        } catch (IOException | LineUnavailableException | UnsupportedAudioFileException e) {
-            e.printStackTrace();
+        if (!this.prefetchingPhrases.hasNext()) {
+            return false;
         }
 
-        return Optional.empty();
+        this.phraseAudioCache.getPhraseAudio(this.prefetchingPhrases.next());
+        return true;
     }
 
     /**
-     * Loops over all of the stored Phrases and gets an opened Clip to play with each Phrase.
-     *
-     * @return A HashMap between a Phrase in the game and an opened audio Clip.
-     */
-    private HashMap<Phrase, Clip> getInitializedClipHashMap() {
-        HashMap<Phrase, Clip> phraseToClip = new HashMap<>();
-        for (Phrase phrase : Phrase.values()) {
-            // Only store in the HashMap if Optional.empty() wasn't returned
-            // (meaning an error occurred during initialization).
-            this.getPhraseClip(phrase).ifPresent(clip -> phraseToClip.put(phrase, clip));
+     * Blocks the audio player thread until the phrases to play are replaced, there are phrases to prefetch or the
+     * audio player is terminated (the thread doesn't use any CPU while there is nothing to do).
+     */
+    private void waitForPhrasesToPlay() {
+        while (this.isActive
+                && this.phrasesToPlay.get() == this.playingPhrases
+                && this.phrasesToPrefetch.get() == null) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                return;
+            }
         }
-        return phraseToClip;
     }
 
     /**
-     * Plays the first remaining Phrase in the phrasesToPlay instance variable.
+     * Writes the next chunk of the active sentence to the line (blocks while the line's buffer is full).
      */
-    private void playPhrase() {
-        if (this.phrasesToPlay.isEmpty()) {
-            return;
-        }
+    private void writeNextChunk() {
+        int chunkSize = Math.min(
+                WRITE_CHUNK_SIZE, this.activeSentenceAudio.length - this.activeSentenceAudioPosition
+        );
+        this.activeSentenceAudioPosition += this.sourceDataLine.write(
+                this.activeSentenceAudio, this.activeSentenceAudioPosition, chunkSize
+        );
 
-        // Resets the audio stream to the first remaining Phrase & start the clip.
-        synchronized (this) {
-            Phrase phraseToPlay = this.phrasesToPlay.remove(0);
-            Clip clipToPlay = this.phraseToClip.get(phraseToPlay);
-            if (clipToPlay != null) {
-                this.activeClip = clipToPlay;
-                clipToPlay.setMicrosecondPosition(0);
-                clipToPlay.start();
-            }
+        if (this.activeSentenceAudioPosition >= this.activeSentenceAudio.length) {
+            this.activeSentenceAudio = null;
         }
     }
 
@@ -121,14 +184,7 @@ public class AudioPlayer implements Runnable {
      * @param phrase The {@link Phrase} to replace the phrases to play with.
      */
     public void replacePhraseToPlay(@NotNull Phrase phrase) {
-        // Since I'm REPLACING the phrases to play, I need to first stop the running clip.
-        if (this.activeClip.isRunning()) {
-            this.activeClip.stop();
-        }
-
-        synchronized (this) {
-            this.phrasesToPlay = new ArrayList<>(Collections.singletonList(phrase));
-        }
+        this.replacePhraseToPlay(new ArrayList<>(Collections.singletonList(phrase)));
     }
 
     /**
@@ -137,13 +193,29 @@ public class AudioPlayer implements Runnable {
      * @param phrases The {@link ArrayList} of {@link Phrase}s to replace the phrases to play with.
      */
     public void replacePhraseToPlay(@NotNull ArrayList<Phrase> phrases) {
-        // Since I'm REPLACING the phrases to play, I need to first stop the running clip.
-        if (this.activeClip.isRunning()) {
-            this.activeClip.stop();
-        }
+        // Since I'm REPLACING the phrases to play, the playing Phrase is cut off by the audio player thread.
+        this.phrasesToPlay.set(Collections.unmodifiableList(new ArrayList<>(phrases)));
+        this.wakeUpAudioPlayerThread();
+    }
 
-        synchronized (this) {
-            this.phrasesToPlay = phrases;
+    /**
+     * Hands over the phrases that will probably be played next, so that the audio player thread decodes them while
+     * it is idle (replaces the phrases that were handed over before). Playing them later never waits for File IO.
+     *
+     * @param phrases The {@link Phrase}s to prefetch, most likely first.
+     */
+    public void prefetchPhrases(@NotNull List<Phrase> phrases) {
+        this.phrasesToPrefetch.set(Collections.unmodifiableList(new ArrayList<>(phrases)));
+        this.wakeUpAudioPlayerThread();
+    }
+
+    /**
+     * Wakes up the audio player thread if it is waiting for phrases to play (never blocks the calling thread).
+     */
+    private void wakeUpAudioPlayerThread() {
+        Thread audioPlayerThread = this.audioPlayerThread;
+        if (audioPlayerThread != null) {
+            LockSupport.unpark(audioPlayerThread);
         }
     }
 
@@ -152,33 +224,33 @@ public class AudioPlayer implements Runnable {
      */
     @Override
     public void run() {
-        // Checking for empty phrases to play makes sure the goodbye message plays.
-        while (this.isActive || !this.phrasesToPlay.isEmpty()) {
-            if (!this.activeClip.isRunning()) {
-                this.activeClip.stop();
-
-                synchronized (this) {
-                    this.playPhrase();
-                }
+        this.audioPlayerThread = Thread.currentThread();
+
+        // Checking for phrases to play makes sure the goodbye message plays.
+        while (this.isActive || this.hasPhrasesToPlay()) {
+            this.startReplacedPhrases();
+
+            if (this.activeSentenceAudio != null) {
+                this.writeNextChunk();
+                continue;
             }
 
-            // Sleep momentarily to prevent the audio player from skipping over phrases.
-            try {
-                Thread.sleep(10);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+            // Nothing to play: use the time to prefetch or decode a pinned Phrase, or wait for phrases to play.
+            if (!this.prefetchNextPhrase() && !this.phraseAudioCache.loadNextPinnedPhrase()) {
+                this.waitForPhrasesToPlay();
             }
         }
 
         // Ensures that the goodbye message plays in its entirety.
-        // noinspection StatementWithEmptyBody
-        while (this.activeClip.isRunning()) ;
+        this.sourceDataLine.drain();
+        this.sourceDataLine.close();
     }
 
     /**
-     * Terminate the audio player (sets the isActive flag to false).
+     * Terminate the audio player (sets the isActive flag to false & wakes up the audio player thread).
      */
     public void terminateAudioPlayer() {
         this.isActive = false;
+        this.wakeUpAudioPlayerThread();
     }
 }
@@ -4,6 +4,7 @@ import org.jetbrains.annotations.NotNull;
 import phrase.Phrase;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Class to call into the threaded audio player.
@@ -63,6 +64,17 @@ public class AudioPlayerExecutor {
         }
     }
 
+    /**
+     * Lets the audio player decode the Phrases that will probably be played next (nothing is played or printed).
+     *
+     * @param phrases The Phrases to prefetch, most likely first.
+     */
+    public void prefetchPhrases(@NotNull List<Phrase> phrases) {
+        if (this.audioPlayer != null) {
+            this.audioPlayer.prefetchPhrases(phrases);
+        }
+    }
+
     /**
      * Terminates the audio player by just calling into the same method in the audio player instance variable.
      */
@@ -0,0 +1,258 @@
+package gamesforblind.synthesizer;
+
+import org.jetbrains.annotations.NotNull;
+import phrase.Phrase;
+import phrase.PhrasePack;
+import util.PcmUtil;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Keeps the decoded PCM audio of the Phrases in the game (in the {@link AudioPlayer#PHRASE_AUDIO_FORMAT}),
+ * so that the {@link AudioPlayer} can write it straight to its line. The silence around every Phrase is trimmed,
+ * & a list of Phrases is spliced into a single sentence, so that the Phrases are spoken without pauses in between.
+ * If there is a {@link PhrasePack} on the classpath, the audio is decoded from it instead of the audio files.
+ * <p>
+ * Note: not thread-safe (only used on the audio player thread).
+ */
+class PhraseAudioCache {
+    /**
+     * The maximum number of decoded Phrases that are kept outside of the pinned set.
+     */
+    private static final int MAX_CACHED_PHRASES = 48;
+
+    /**
+     * The maximum number of spliced sentences that are kept (e.g. the instructions or a repeated peg report).
+     */
+    private static final int MAX_CACHED_SENTENCES = 16;
+
+    /**
+     * The largest digit that is pinned (the largest value on the 9x9 Sudoku board).
+     */
+    private static final int MAX_PINNED_DIGIT = 9;
+
+    /**
+     * The pack with the audio of all Phrases (null if there is no usable pack, then the audio files are read if they
+     * are on the classpath; the JAR file only has the pack).
+     */
+    private final PhrasePack phrasePack = PhrasePack.open().filter(pack -> {
+        if (pack.getSampleRate() != (int) AudioPlayer.PHRASE_AUDIO_FORMAT.getSampleRate()) {
+            System.err.println("Ignoring the phrase pack, its sample rate is " + pack.getSampleRate());
+            return false;
+        }
+        return true;
+    }).orElse(null);
+
+    /**
+     * Phrases that are spoken on almost every keystroke (digits, boundaries, "unrecognized key").
+     * They are decoded once & never evicted. The location phrases are not pinned (there are too many of them):
+     * the ones around the selected square are prefetched (see {@link AudioPlayer#prefetchPhrases}) into the cache.
+     */
+    private final Set<Phrase> pinnedPhrases = getPinnedPhrases();
+
+    /**
+     * A Map between a pinned Phrase & its decoded audio.
+     */
+    private final Map<Phrase, byte[]> pinnedPhraseToAudio = new EnumMap<>(Phrase.class);
+
+    /**
+     * The remaining pinned Phrases that still need to be decoded (they are decoded while the audio player is idle).
+     */
+    private final Iterator<Phrase> pinnedPhrasesToLoad = this.pinnedPhrases.iterator();
+
+    /**
+     * The decoded audio of the other Phrases, decoded on first use. In access order, so that the least
+     * recently played Phrase is dropped once there are more than MAX_CACHED_PHRASES.
+     */
+    private final Map<Phrase, byte[]> cachedPhraseToAudio = new LeastRecentlyUsedCache<>(MAX_CACHED_PHRASES);
+
+    /**
+     * The spliced audio of the last sentences (lists of more than one Phrase) that were played, in access order.
+     */
+    private final Map<List<Phrase>, byte[]> cachedSentenceToAudio = new LeastRecentlyUsedCache<>(MAX_CACHED_SENTENCES);
+
+    /**
+     * A map in access order that drops its least recently used entry once it holds more than maxSize entries.
+     *
+     * @param <K> The class of the keys.
+     * @param <V> The class of the values.
+     */
+    private static final class LeastRecentlyUsedCache<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The maximum number of entries that are kept.
+         */
+        private final int maxSize;
+
+        /**
+         * Creates a new (empty) LeastRecentlyUsedCache.
+         *
+         * @param maxSize The maximum number of entries that are kept.
+         */
+        private LeastRecentlyUsedCache(int maxSize) {
+            super(maxSize, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldestEntry) {
+            return this.size() > this.maxSize;
+        }
+    }
+
+    /**
+     * Gets the Phrases whose audio is kept for the whole program.
+     *
+     * @return The digits & the phrases that are spoken while navigating (e.g. the boundaries of the board).
+     */
+    private static Set<Phrase> getPinnedPhrases() {
+        Set<Phrase> pinnedPhrases = EnumSet.of(
+                Phrase.BLANK, Phrase.BLANK_VOICED, Phrase.GENERAL_UNRECOGNIZED_KEY,
+                Phrase.GENERAL_FIRST_ROW, Phrase.GENERAL_LAST_ROW,
+                Phrase.GENERAL_FIRST_COLUMN, Phrase.GENERAL_LAST_COLUMN,
+                Phrase.SUDOKU_YOU_ARE_IN, Phrase.SUDOKU_IN_ROW, Phrase.SUDOKU_IN_COLUMN, Phrase.SUDOKU_IN_BOX,
+                Phrase.SUDOKU_CURRENT_VALUE
+        );
+
+        for (int number = 0; number <= MAX_PINNED_DIGIT; number++) {
+            pinnedPhrases.add(Phrase.convertIntegerToPhrase(number, true));
+        }
+
+        return pinnedPhrases;
+    }
+
+    /**
+     * Decodes the audio of a Phrase (from the {@link PhrasePack} if it has the Phrase, otherwise from the Phrase's
+     * audio file) & trims its silence. If an error occurs, return Optional.empty().
+     *
+     * @param phrase The Phrase to decode the audio of.
+     * @return An Optional containing the trimmed PCM audio if no error occurred (otherwise, empty()).
+     */
+    private Optional<byte[]> readPhraseAudio(@NotNull Phrase phrase) {
+        if (this.phrasePack != null) {
+            Optional<byte[]> maybePackedAudio = this.phrasePack.getPhrasePcm(phrase);
+            if (maybePackedAudio.isPresent()) {
+                return maybePackedAudio.map(audio -> PcmUtil.trimSilence(
+                        audio, AudioPlayer.PHRASE_AUDIO_FORMAT.getSampleRate()
+                ));
+            }
+        }
+
+        return readPhraseAudioFile(phrase);
+    }
+
+    /**
+     * Reads & decodes the audio file of a Phrase & trims its silence. If an error occurs, return Optional.empty().
+     *
+     * @param phrase The Phrase to decode the audio file of.
+     * @return An Optional containing the trimmed PCM audio if no error occurred (otherwise, empty()).
+     */
+    private static Optional<byte[]> readPhraseAudioFile(@NotNull Phrase phrase) {
+        Optional<InputStream> maybePhraseAudioStream = phrase.getPhraseInputStream();
+        if (!maybePhraseAudioStream.isPresent()) {
+            System.err.println(String.format("Failed to find phrase audio file: %s!", phrase));
+            return Optional.empty();
+        }
+
+        try (AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(
+                new BufferedInputStream(maybePhraseAudioStream.get())
+        )) {
+            AudioFormat audioFormat = audioInputStream.getFormat();
+            AudioInputStream pcmInputStream = audioFormat.matches(AudioPlayer.PHRASE_AUDIO_FORMAT)
+                    ? audioInputStream
+                    : AudioSystem.getAudioInputStream(AudioPlayer.PHRASE_AUDIO_FORMAT, audioInputStream);
+
+            ByteArrayOutputStream phraseAudio = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int numberOfBytesRead;
+            while ((numberOfBytesRead = pcmInputStream.read(buffer)) != -1) {
+                phraseAudio.write(buffer, 0, numberOfBytesRead);
+            }
+            // Files that were processed by the audio builder are trimmed already (trimming again changes nothing).
+            return Optional.of(PcmUtil.trimSilence(
+                    phraseAudio.toByteArray(), AudioPlayer.PHRASE_AUDIO_FORMAT.getSampleRate()
+            ));
+        } catch (IOException | IllegalArgumentException | UnsupportedAudioFileException e) {
+            // IllegalArgumentException: the file can't be converted to the format of the audio player.
+            e.printStackTrace();
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the decoded audio of a Phrase (decoding it first if it isn't cached).
+     * If an error occurs, return Optional.empty() (the Phrase is retried next time).
+     *
+     * @param phrase The Phrase to get the audio of.
+     * @return An Optional containing the PCM audio if no error occurred (otherwise, empty()).
+     */
+    public Optional<byte[]> getPhraseAudio(@NotNull Phrase phrase) {
+        Map<Phrase, byte[]> phraseToAudio = this.pinnedPhrases.contains(phrase)
+                ? this.pinnedPhraseToAudio
+                : this.cachedPhraseToAudio;
+
+        byte[] phraseAudio = phraseToAudio.get(phrase);
+        if (phraseAudio != null) {
+            return Optional.of(phraseAudio);
+        }
+
+        Optional<byte[]> maybePhraseAudio = this.readPhraseAudio(phrase);
+        maybePhraseAudio.ifPresent(audio -> phraseToAudio.put(phrase, audio));
+        return maybePhraseAudio;
+    }
+
+    /**
+     * Gets the audio of a list of Phrases, spliced into one contiguous buffer (from the cache if the same
+     * sentence was played recently). A Phrase whose audio can't be decoded is left out.
+     *
+     * @param phrases The Phrases of the sentence, in the order they should be spoken.
+     * @return The PCM audio of the whole sentence.
+     */
+    public byte[] getSentenceAudio(@NotNull List<Phrase> phrases) {
+        if (phrases.size() == 1) {
+            return this.getPhraseAudio(phrases.get(0)).orElse(new byte[0]);
+        }
+
+        byte[] sentenceAudio = this.cachedSentenceToAudio.get(phrases);
+        if (sentenceAudio != null) {
+            return sentenceAudio;
+        }
+
+        List<byte[]> phraseAudios = new ArrayList<>(phrases.size());
+        for (Phrase phrase : phrases) {
+            this.getPhraseAudio(phrase).ifPresent(phraseAudios::add);
+        }
+        sentenceAudio = PcmUtil.concatenate(phraseAudios);
+
+        // Don't keep a sentence with missing Phrases (they are retried the next time it's played).
+        if (phraseAudios.size() == phrases.size()) {
+            this.cachedSentenceToAudio.put(phrases, sentenceAudio);
+        }
+        return sentenceAudio;
+    }
+
+    /**
+     * Decodes the next pinned Phrase that hasn't been decoded yet (called while no Phrase is playing, so
+     * that startup doesn't wait for all pinned Phrases).
+     *
+     * @return true if a pinned Phrase was decoded, false if all of them are decoded already.
+     */
+    public boolean loadNextPinnedPhrase() {
+        if (!this.pinnedPhrasesToLoad.hasNext()) {
+            return false;
+        }
+
+        this.getPhraseAudio(this.pinnedPhrasesToLoad.next());
+        return true;
+    }
+}
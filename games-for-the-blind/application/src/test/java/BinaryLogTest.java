@@ -0,0 +1,258 @@
+import gamesforblind.ProgramAction;
+import gamesforblind.codebreaker.action.CodebreakerAction;
+import gamesforblind.enums.InputType;
+import gamesforblind.enums.SudokuType;
+import gamesforblind.loader.action.LoaderAction;
+import gamesforblind.loader.action.LoaderSudokuSelectionAction;
+import gamesforblind.logger.BinaryLogWriter;
+import gamesforblind.logger.LogConverter;
+import gamesforblind.logger.LogFactory;
+import gamesforblind.logger.LogReader;
+import gamesforblind.logger.LogWriter;
+import gamesforblind.sudoku.OriginalSudokuGrid;
+import gamesforblind.sudoku.action.SudokuAction;
+import gamesforblind.sudoku.action.SudokuExitAction;
+import gamesforblind.sudoku.action.SudokuFillAction;
+import gamesforblind.sudoku.action.SudokuHighlightAction;
+import org.junit.Test;
+
+import javax.xml.bind.annotation.XmlSeeAlso;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for the binary log format ({@link BinaryLogWriter}, the binary log playback of {@link LogReader} &
+ * {@link LogConverter}).
+ */
+public class BinaryLogTest {
+    /**
+     * A 4x4 board & its solution.
+     */
+    private static final int[][] GRID = {{1, 0, 0, 4}, {0, 4, 1, 0}, {0, 1, 4, 0}, {4, 0, 0, 1}};
+    private static final int[][] SOLUTION = {{1, 2, 3, 4}, {3, 4, 1, 2}, {2, 1, 4, 3}, {4, 3, 2, 1}};
+
+    /**
+     * Creates a list of actions (timestamped when they are created) that covers every kind of payload field.
+     *
+     * @return The actions.
+     */
+    private static List<ProgramAction> createActions() {
+        List<ProgramAction> actions = new ArrayList<>();
+        actions.add(new LoaderSudokuSelectionAction(SudokuType.FOUR_BY_FOUR));
+        actions.add(new SudokuHighlightAction(new Point(-1, 3), InputType.KEYBOARD));
+        actions.add(new SudokuHighlightAction(null, InputType.MOUSE));
+        actions.add(new SudokuFillAction(9));
+        actions.add(new SudokuExitAction());
+        return actions;
+    }
+
+    /**
+     * Creates the path of a temporary log file that doesn't exist yet (a {@link LogWriter} only creates new files).
+     *
+     * @param extension The extension of the log file (e.g. ".xml").
+     * @return The path of the log file.
+     * @throws IOException Thrown when the temporary file cannot be created.
+     */
+    private static File createNewTempLogFile(String extension) throws IOException {
+        File logFile = File.createTempFile("binary-log-test", extension);
+        assertTrue(logFile.delete());
+        logFile.deleteOnExit();
+        return logFile;
+    }
+
+    /**
+     * Asserts that two actions are of the same class & have the same timestamp & payload fields (the fields of the
+     * action's class & of its superclasses).
+     *
+     * @param expectedAction The action that was logged.
+     * @param actualAction   The action that was read back.
+     */
+    private static void assertSameAction(ProgramAction expectedAction, ProgramAction actualAction) {
+        assertEquals(expectedAction.getClass(), actualAction.getClass());
+        assertEquals(expectedAction.getLocalDateTime(), actualAction.getLocalDateTime());
+
+        for (Class<?> actionClass = expectedAction.getClass(); actionClass != null;
+             actionClass = actionClass.getSuperclass()) {
+            for (Field field : actionClass.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                try {
+                    assertEquals(field.toString(), field.get(expectedAction), field.get(actualAction));
+                } catch (IllegalAccessException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the boards & actions to a new binary log file.
+     *
+     * @param actions The actions to write (after the boards).
+     * @return The binary log file.
+     * @throws IOException Thrown when the log file cannot be written.
+     */
+    private static File writeBinaryLog(List<ProgramAction> actions) throws IOException {
+        File logFile = File.createTempFile("binary-log-test", ".binlog");
+        logFile.deleteOnExit();
+
+        try (BinaryLogWriter binaryLogWriter = new BinaryLogWriter(logFile)) {
+            binaryLogWriter.appendOriginalSudokuGrid(OriginalSudokuGrid.of(GRID, SOLUTION));
+            binaryLogWriter.appendOriginalSudokuGrid(OriginalSudokuGrid.of(GRID));
+            for (ProgramAction action : actions) {
+                binaryLogWriter.appendProgramAction(action);
+            }
+        }
+        return logFile;
+    }
+
+    /**
+     * Tests that the boards, the timestamps & the payload fields are read back exactly as they were written.
+     */
+    @Test
+    public void binaryLogRoundTrip() throws IOException {
+        List<ProgramAction> actions = createActions();
+        LogFactory logFactory = new LogReader().restoreLoggedProgram(writeBinaryLog(actions).getPath());
+
+        List<OriginalSudokuGrid> originalGrids = logFactory.getOriginalSudokuGridList();
+        assertEquals(2, originalGrids.size());
+        assertArrayEquals(GRID, originalGrids.get(0).getGrid());
+        assertArrayEquals(SOLUTION, originalGrids.get(0).getSolution());
+        assertArrayEquals(GRID, originalGrids.get(1).getGrid());
+        assertNull(originalGrids.get(1).getSolution());
+
+        Iterator<ProgramAction> readActions = logFactory.getProgramActions();
+        for (ProgramAction action : actions) {
+            assertTrue(readActions.hasNext());
+            assertSameAction(action, readActions.next());
+        }
+        assertFalse(readActions.hasNext());
+
+        Iterator<ProgramAction> payloadActions = new LogReader().restoreLoggedProgram(
+                writeBinaryLog(actions).getPath()
+        ).getProgramActions();
+        assertEquals(SudokuType.FOUR_BY_FOUR, ((LoaderSudokuSelectionAction) payloadActions.next()).getSudokuType());
+        SudokuHighlightAction keyboardHighlight = (SudokuHighlightAction) payloadActions.next();
+        assertEquals(new Point(-1, 3), keyboardHighlight.getPointToHighlight());
+        assertEquals(InputType.KEYBOARD, keyboardHighlight.getInputType());
+        assertNull(((SudokuHighlightAction) payloadActions.next()).getPointToHighlight());
+        assertEquals(9, ((SudokuFillAction) payloadActions.next()).getNumberToFill());
+    }
+
+    /**
+     * Tests that a binary log file that was cut off is read up to the last complete entry.
+     */
+    @Test
+    public void truncatedBinaryLogIsReadUpToLastCompleteEntry() throws IOException {
+        File logFile = writeBinaryLog(createActions());
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(logFile, "rw")) {
+            // The last byte of the SudokuExitAction's delta is cut off (it has no payload), so it's incomplete.
+            randomAccessFile.setLength(randomAccessFile.length() - 1);
+        }
+
+        Iterator<ProgramAction> readActions = new LogReader().restoreLoggedProgram(logFile.getPath())
+                .getProgramActions();
+        int numberOfReadActions = 0;
+        while (readActions.hasNext()) {
+            readActions.next();
+            numberOfReadActions++;
+        }
+        assertEquals(4, numberOfReadActions);
+    }
+
+    /**
+     * Tests that every action that can be logged to a XML log file (every class in the @XmlSeeAlso lists of the
+     * abstract action classes) also has a binary format, & that it's read back as it was written.
+     */
+    @Test
+    public void everyLoggedActionHasBinaryFormat() throws IOException, ReflectiveOperationException {
+        List<ProgramAction> actions = new ArrayList<>();
+        for (Class<?> abstractActionClass : new Class<?>[]{
+                LoaderAction.class, SudokuAction.class, CodebreakerAction.class
+        }) {
+            for (Class<?> actionClass : abstractActionClass.getAnnotation(XmlSeeAlso.class).value()) {
+                // Every action has a zero-argument constructor for JAXB.
+                Constructor<?> constructor = actionClass.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                actions.add((ProgramAction) constructor.newInstance());
+            }
+        }
+
+        Iterator<ProgramAction> readActions = new LogReader().restoreLoggedProgram(writeBinaryLog(actions).getPath())
+                .getProgramActions();
+        for (ProgramAction action : actions) {
+            assertTrue(readActions.hasNext());
+            assertSameAction(action, readActions.next());
+        }
+        assertFalse(readActions.hasNext());
+    }
+
+    /**
+     * Tests that a truncated log file is not converted (& that no partial output log file is left behind).
+     */
+    @Test
+    public void truncatedBinaryLogIsNotConverted() throws IOException {
+        File logFile = writeBinaryLog(createActions());
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(logFile, "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 1);
+        }
+
+        File xmlLogFile = createNewTempLogFile(".xml");
+        assertFalse(LogConverter.convert(logFile, xmlLogFile));
+        assertFalse(xmlLogFile.exists());
+    }
+
+    /**
+     * Tests that a XML log file that is converted to a binary log file & back has the same boards & actions (classes,
+     * timestamps & payload fields) as the original one.
+     */
+    @Test
+    public void xmlToBinaryToXmlRoundTrip() throws IOException {
+        List<ProgramAction> actions = createActions();
+        File xmlLogFile = createNewTempLogFile(".xml");
+        try (LogWriter logWriter = new LogWriter(xmlLogFile)) {
+            logWriter.appendOriginalSudokuGrid(OriginalSudokuGrid.of(GRID, SOLUTION));
+            logWriter.appendOriginalSudokuGrid(OriginalSudokuGrid.of(GRID));
+            for (ProgramAction action : actions) {
+                logWriter.appendProgramAction(action);
+            }
+        }
+
+        File binaryLogFile = createNewTempLogFile(".binlog");
+        File convertedXmlLogFile = createNewTempLogFile(".xml");
+        LogConverter.convertXmlToBinary(xmlLogFile, binaryLogFile);
+        LogConverter.convertBinaryToXml(binaryLogFile, convertedXmlLogFile);
+
+        LogFactory logFactory = new LogReader().restoreLoggedProgram(convertedXmlLogFile.getPath());
+        List<OriginalSudokuGrid> originalGrids = logFactory.getOriginalSudokuGridList();
+        assertEquals(2, originalGrids.size());
+        assertArrayEquals(GRID, originalGrids.get(0).getGrid());
+        assertArrayEquals(SOLUTION, originalGrids.get(0).getSolution());
+        assertArrayEquals(GRID, originalGrids.get(1).getGrid());
+        assertNull(originalGrids.get(1).getSolution());
+
+        Iterator<ProgramAction> readActions = logFactory.getProgramActions();
+        for (ProgramAction action : actions) {
+            assertTrue(readActions.hasNext());
+            assertSameAction(action, readActions.next());
+        }
+        assertFalse(readActions.hasNext());
+    }
+}
@@ -1,10 +1,15 @@
 import gamesforblind.enums.SudokuType;
+import gamesforblind.sudoku.OriginalSudokuGrid;
 import gamesforblind.sudoku.generator.Cell;
+import gamesforblind.sudoku.generator.DancingLinksSolver;
 import gamesforblind.sudoku.generator.Generator;
 import gamesforblind.sudoku.generator.Grid;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test class for {@link Generator}.
@@ -32,4 +37,49 @@ public class GeneratorTest {
 
         assertEquals("Correct number of empty cells", NUMBER_OF_EMPTY_CELLS, actualNumberOfEmptyCells);
     }
+
+    /**
+     * Tests that every filled {@link Cell} of a generated 9x9 {@link Grid} holds a valid value.
+     */
+    @Test
+    public void generatedGridHasOnlyValidValues() {
+        final SudokuType SUDOKU_TYPE = SudokuType.NINE_BY_NINE;
+
+        Grid testGrid = new Generator(SUDOKU_TYPE).generate(0);
+
+        for (int rowIndex = 0; rowIndex < SUDOKU_TYPE.getSudokuBoardSize(); rowIndex++) {
+            for (int columnIndex = 0; columnIndex < SUDOKU_TYPE.getSudokuBoardSize(); columnIndex++) {
+                Cell currentCell = testGrid.getCell(rowIndex, columnIndex);
+                assertTrue("Valid value in filled cell", testGrid.isValidValueForCell(currentCell, currentCell.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Tests that a generated 9x9 puzzle reaches the requested number of empty {@link Cell}s & has one solution,
+     * which is returned along with the puzzle.
+     */
+    @Test
+    public void generatedPuzzleHasUniqueSolution() {
+        final SudokuType SUDOKU_TYPE = SudokuType.NINE_BY_NINE;
+        final int NUMBER_OF_EMPTY_CELLS = 45;
+
+        OriginalSudokuGrid puzzle = new Generator(SUDOKU_TYPE).generateWithUniqueSolution(NUMBER_OF_EMPTY_CELLS);
+        Grid testGrid = Grid.of(puzzle.getGrid(), SUDOKU_TYPE);
+
+        int actualNumberOfEmptyCells = 0;
+        for (int rowIndex = 0; rowIndex < SUDOKU_TYPE.getSudokuBoardSize(); rowIndex++) {
+            for (int columnIndex = 0; columnIndex < SUDOKU_TYPE.getSudokuBoardSize(); columnIndex++) {
+                if (testGrid.getCell(rowIndex, columnIndex).isEmpty()) {
+                    actualNumberOfEmptyCells++;
+                }
+            }
+        }
+
+        assertEquals("Correct number of empty cells", NUMBER_OF_EMPTY_CELLS, actualNumberOfEmptyCells);
+        assertEquals("Unique solution", 1, new DancingLinksSolver(SUDOKU_TYPE).countSolutions(testGrid, 2));
+
+        new DancingLinksSolver(SUDOKU_TYPE).solve(testGrid);
+        assertTrue("Solution is kept", Arrays.deepEquals(puzzle.getSolution(), testGrid.toIntArray()));
+    }
 }
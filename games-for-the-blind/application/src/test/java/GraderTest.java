@@ -0,0 +1,111 @@
+import gamesforblind.enums.SudokuDifficulty;
+import gamesforblind.enums.SudokuTechnique;
+import gamesforblind.enums.SudokuType;
+import gamesforblind.sudoku.OriginalSudokuGrid;
+import gamesforblind.sudoku.generator.Generator;
+import gamesforblind.sudoku.generator.Grader;
+import gamesforblind.sudoku.generator.Grid;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for {@link Grader}.
+ */
+public class GraderTest {
+    /**
+     * Converts a String of digits (0 for an empty square) to a 9x9 {@link Grid}.
+     *
+     * @param board The digits of the board in row-major order.
+     * @return The corresponding {@link Grid}.
+     */
+    private static Grid nineByNineGridOf(String board) {
+        int[][] values = new int[9][9];
+        for (int i = 0; i < board.length(); i++) {
+            values[i / 9][i % 9] = board.charAt(i) - '0';
+        }
+        return Grid.of(values, SudokuType.NINE_BY_NINE);
+    }
+
+    /**
+     * Tests that an easy board only needs singles & that a very hard board ("AI Escargot") can't be
+     * solved with the supported techniques.
+     */
+    @Test
+    public void gradesKnownBoards() {
+        Grader grader = new Grader(SudokuType.NINE_BY_NINE);
+
+        Grid easyGrid = nineByNineGridOf(
+                "003020600900305001001806400008102900700000008006708200002609500800203009005010300"
+        );
+        Optional<EnumSet<SudokuTechnique>> maybeTechniques = grader.getRequiredTechniques(easyGrid);
+        assertTrue("Easy board is solved", maybeTechniques.isPresent());
+        assertTrue("Only singles are needed", EnumSet.of(SudokuTechnique.NAKED_SINGLE, SudokuTechnique.HIDDEN_SINGLE)
+                .containsAll(maybeTechniques.get()));
+        assertEquals(SudokuDifficulty.EASY, grader.grade(easyGrid));
+
+        Grid hardGrid = nineByNineGridOf(
+                "100007090030020008009600500005300900010080002600004000300000010040000007007000300"
+        );
+        assertFalse("Hard board is not solved", grader.getRequiredTechniques(hardGrid).isPresent());
+        assertEquals(SudokuDifficulty.BEYOND_TECHNIQUES, grader.grade(hardGrid));
+    }
+
+    /**
+     * Tests that the {@link Generator} only generates puzzles within the requested difficulty band.
+     */
+    @Test
+    public void generatedPuzzleIsWithinDifficultyBand() {
+        final SudokuType SUDOKU_TYPE = SudokuType.NINE_BY_NINE;
+        final SudokuDifficulty SUDOKU_DIFFICULTY = SudokuDifficulty.MEDIUM;
+
+        Optional<OriginalSudokuGrid> maybePuzzle = new Generator(SUDOKU_TYPE, new Random(1))
+                .generateWithDifficulty(SUDOKU_DIFFICULTY, SUDOKU_DIFFICULTY);
+        assertTrue("A puzzle is found", maybePuzzle.isPresent());
+
+        Grid puzzleGrid = Grid.of(maybePuzzle.get().getGrid(), SUDOKU_TYPE);
+        assertEquals("Requested difficulty", SUDOKU_DIFFICULTY, new Grader(SUDOKU_TYPE).grade(puzzleGrid));
+    }
+
+    /**
+     * Tests that grading a loaded puzzle after erasing & restoring squares gives the same difficulty as grading the
+     * resulting board from scratch (the kept candidates are updated correctly).
+     */
+    @Test
+    public void gradingErasedPuzzleMatchesGradingFromScratch() {
+        final SudokuType SUDOKU_TYPE = SudokuType.NINE_BY_NINE;
+
+        final String SOLVED_BOARD =
+                "483921657967345821251876493548132976729564138136798245372689514814253769695417382";
+
+        // Every board of the test is the solved board with some squares erased.
+        int[][] solution = nineByNineGridOf(SOLVED_BOARD).toIntArray();
+        int[][] board = nineByNineGridOf(SOLVED_BOARD).toIntArray();
+        Grader grader = new Grader(SUDOKU_TYPE);
+        grader.loadPuzzle(Grid.of(board, SUDOKU_TYPE));
+
+        Random random = new Random(7);
+        for (int step = 0; step < 300; step++) {
+            int index = random.nextInt(81), row = index / 9, column = index % 9;
+            if (board[row][column] == 0) {
+                board[row][column] = solution[row][column];
+                grader.restoreSquare(index, board[row][column]);
+            } else {
+                board[row][column] = 0;
+                grader.eraseSquare(index);
+            }
+
+            assertEquals(
+                    "Same difficulty after step " + step,
+                    Optional.of(grader.grade(Grid.of(board, SUDOKU_TYPE))),
+                    grader.gradePuzzle(SudokuDifficulty.BEYOND_TECHNIQUES)
+            );
+        }
+    }
+}
@@ -0,0 +1,66 @@
+import org.junit.Test;
+import util.PcmUtil;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for {@link PcmUtil}.
+ */
+public class PcmUtilTest {
+    /**
+     * Creates 16-bit little-endian PCM audio from the passed samples.
+     *
+     * @param samples The samples of the audio.
+     * @return The PCM audio.
+     */
+    private static byte[] toPcm(int... samples) {
+        byte[] pcm = new byte[samples.length * PcmUtil.BYTES_PER_SAMPLE];
+        for (int i = 0; i < samples.length; i++) {
+            pcm[2 * i] = (byte) samples[i];
+            pcm[2 * i + 1] = (byte) (samples[i] >> 8);
+        }
+        return pcm;
+    }
+
+    /**
+     * Tests that the silence around the sound is removed, except for the requested padding.
+     */
+    @Test
+    public void silenceIsTrimmed() {
+        byte[] pcm = toPcm(0, 5, -7, 0, 1000, -20000, 0, 30000, 12, 0, -3, 0);
+
+        assertArrayEquals(toPcm(1000, -20000, 0, 30000), PcmUtil.trimSilence(pcm, 0, 0));
+        assertArrayEquals(toPcm(0, 1000, -20000, 0, 30000, 12, 0), PcmUtil.trimSilence(pcm, 1, 2));
+        assertArrayEquals(pcm, PcmUtil.trimSilence(pcm, 100, 100));
+        assertEquals(0, PcmUtil.trimSilence(toPcm(0, 3, -3, 0), 1, 1).length);
+        assertEquals(-20000, PcmUtil.getSample(pcm, 5));
+    }
+
+    /**
+     * Tests that pieces of audio are spliced back to back.
+     */
+    @Test
+    public void piecesAreConcatenated() {
+        byte[] spliced = PcmUtil.concatenate(Arrays.asList(toPcm(1, 2), new byte[0], toPcm(-3)));
+        assertArrayEquals(toPcm(1, 2, -3), spliced);
+    }
+
+    /**
+     * Tests that μ-law keeps every sample within its quantization step (finer for quiet samples).
+     */
+    @Test
+    public void muLawRoundTrip() {
+        int[] samples = new int[]{0, 1, -1, 100, -100, 1000, -1000, 12345, -12345, 32767, -32768};
+        byte[] decoded = PcmUtil.fromMuLaw(PcmUtil.toMuLaw(toPcm(samples)));
+
+        assertEquals(samples.length * PcmUtil.BYTES_PER_SAMPLE, decoded.length);
+        for (int i = 0; i < samples.length; i++) {
+            int error = Math.abs(PcmUtil.getSample(decoded, i) - samples[i]);
+            assertTrue("Sample " + samples[i], error <= Math.max(8, Math.abs(samples[i]) / 16));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+import org.junit.Test;
+import phrase.Phrase;
+import phrase.PhrasePack;
+import util.PcmUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for {@link PhrasePack}.
+ */
+public class PhrasePackTest {
+    /**
+     * Tests that the audio written to a pack is read back (as μ-law decodes it) & that missing Phrases are empty.
+     */
+    @Test
+    public void writtenPhrasesAreReadBack() throws IOException {
+        byte[] onePcm = new byte[]{0, 0, 16, 39, -16, -40, 0, 0};
+        byte[] twoPcm = new byte[]{1, 0};
+
+        Map<Phrase, byte[]> phraseToPcm = new EnumMap<>(Phrase.class);
+        phraseToPcm.put(Phrase.ONE, onePcm);
+        phraseToPcm.put(Phrase.TWO, twoPcm);
+
+        File packFile = File.createTempFile("phrases", ".pack");
+        packFile.deleteOnExit();
+        PhrasePack.write(packFile, 24_000, phraseToPcm);
+
+        Optional<PhrasePack> maybePhrasePack = PhrasePack.open(packFile);
+        assertTrue(maybePhrasePack.isPresent());
+
+        PhrasePack phrasePack = maybePhrasePack.get();
+        assertEquals(24_000, phrasePack.getSampleRate());
+        assertEquals(2, phrasePack.getNumberOfPhrases());
+        assertArrayEquals(PcmUtil.fromMuLaw(PcmUtil.toMuLaw(onePcm)), phrasePack.getPhrasePcm(Phrase.ONE).get());
+        assertArrayEquals(PcmUtil.fromMuLaw(PcmUtil.toMuLaw(twoPcm)), phrasePack.getPhrasePcm(Phrase.TWO).get());
+        assertFalse(phrasePack.getPhrasePcm(Phrase.THREE).isPresent());
+    }
+}
@@ -0,0 +1,59 @@
+import gamesforblind.enums.SudokuDifficulty;
+import gamesforblind.enums.SudokuType;
+import gamesforblind.sudoku.OriginalSudokuGrid;
+import gamesforblind.sudoku.PuzzleBank;
+import gamesforblind.sudoku.generator.Generator;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for {@link PuzzleBank}.
+ */
+public class PuzzleBankTest {
+    /**
+     * Tests that puzzles written to a bank file are read back unchanged & are indexed by their difficulty.
+     * A third of the board empty is always an easy puzzle.
+     */
+    @Test
+    public void writtenPuzzlesAreReadBack() throws IOException {
+        final SudokuType SUDOKU_TYPE = SudokuType.NINE_BY_NINE;
+        final int NUMBER_OF_EMPTY_CELLS = 27;
+
+        List<OriginalSudokuGrid> puzzles = new ArrayList<>();
+        for (int seed = 0; seed < 5; seed++) {
+            puzzles.add(new Generator(SUDOKU_TYPE, new Random(seed)).generateWithUniqueSolution(NUMBER_OF_EMPTY_CELLS));
+        }
+
+        File bankFile = File.createTempFile("puzzles", ".bank");
+        bankFile.deleteOnExit();
+        PuzzleBank.write(bankFile, SUDOKU_TYPE, puzzles);
+
+        Optional<PuzzleBank> maybePuzzleBank = PuzzleBank.open(bankFile, SUDOKU_TYPE);
+        assertTrue("Bank file is valid", maybePuzzleBank.isPresent());
+        assertFalse("Bank is for a different board size", PuzzleBank.open(bankFile, SudokuType.SIX_BY_SIX).isPresent());
+
+        PuzzleBank puzzleBank = maybePuzzleBank.get();
+        assertEquals(puzzles.size(), puzzleBank.getNumberOfPuzzles());
+        assertEquals(puzzles.size(), puzzleBank.getNumberOfPuzzles(SudokuDifficulty.EASY));
+        assertFalse(puzzleBank.getRandomPuzzle(SudokuDifficulty.MEDIUM, new Random()).isPresent());
+
+        for (int recordIndex = 0; recordIndex < puzzles.size(); recordIndex++) {
+            OriginalSudokuGrid readPuzzle = puzzleBank.getPuzzle(recordIndex);
+            assertTrue("Puzzle is read back", puzzles.stream().anyMatch(puzzle ->
+                    Arrays.deepEquals(puzzle.getGrid(), readPuzzle.getGrid())
+                            && Arrays.deepEquals(puzzle.getSolution(), readPuzzle.getSolution())
+            ));
+        }
+    }
+}
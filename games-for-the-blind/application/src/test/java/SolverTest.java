@@ -0,0 +1,124 @@
+import gamesforblind.enums.SolverMode;
+import gamesforblind.enums.SudokuType;
+import gamesforblind.sudoku.generator.Cell;
+import gamesforblind.sudoku.generator.DancingLinksSolver;
+import gamesforblind.sudoku.generator.Grid;
+import gamesforblind.sudoku.generator.Solver;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for {@link Solver} & {@link DancingLinksSolver}.
+ */
+public class SolverTest {
+    /**
+     * A 9x9 board that is known to be hard for naive backtracking ("AI Escargot").
+     */
+    private static final String HARD_NINE_BY_NINE_BOARD =
+            "100007090030020008009600500005300900010080002600004000300000010040000007007000300";
+
+    /**
+     * Converts a String of digits (0 for an empty square) to a {@link Grid}.
+     *
+     * @param board      The digits of the board in row-major order.
+     * @param sudokuType Whether the board is a 4x4, 6x6, or 9x9 board.
+     * @return The corresponding {@link Grid}.
+     */
+    private static Grid gridOf(String board, SudokuType sudokuType) {
+        int size = sudokuType.getSudokuBoardSize();
+        int[][] values = new int[size][size];
+        for (int i = 0; i < board.length(); i++) {
+            values[i / size][i % size] = board.charAt(i) - '0';
+        }
+        return Grid.of(values, sudokuType);
+    }
+
+    /**
+     * Checks that every square of the {@link Grid} is filled with a valid value.
+     *
+     * @param grid       The {@link Grid} to check.
+     * @param sudokuType Whether the board is a 4x4, 6x6, or 9x9 board.
+     * @return true if the {@link Grid} is completely & validly filled.
+     */
+    private static boolean isSolved(Grid grid, SudokuType sudokuType) {
+        for (int row = 0; row < sudokuType.getSudokuBoardSize(); row++) {
+            for (int column = 0; column < sudokuType.getSudokuBoardSize(); column++) {
+                Cell cell = grid.getCell(row, column);
+                if (cell.isEmpty() || !grid.isValidValueForCell(cell, cell.getValue())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests that the most constrained cell mode solves a hard 9x9 board.
+     */
+    @Test
+    public void mostConstrainedCellSolvesHardBoard() {
+        final SudokuType SUDOKU_TYPE = SudokuType.NINE_BY_NINE;
+        Grid grid = gridOf(HARD_NINE_BY_NINE_BOARD, SUDOKU_TYPE);
+
+        new Solver(SUDOKU_TYPE.getSudokuBoardSize(), SolverMode.MOST_CONSTRAINED_CELL).solve(grid);
+
+        assertTrue("Hard board is solved", isSolved(grid, SUDOKU_TYPE));
+    }
+
+    /**
+     * Tests that the most constrained cell mode detects an unsolvable board & leaves it unchanged.
+     */
+    @Test
+    public void mostConstrainedCellDetectsUnsolvableBoard() {
+        final SudokuType SUDOKU_TYPE = SudokuType.FOUR_BY_FOUR;
+        final String UNSOLVABLE_BOARD = "1200003000000000";
+        Grid grid = gridOf(UNSOLVABLE_BOARD, SUDOKU_TYPE);
+
+        Solver solver = new Solver(SUDOKU_TYPE.getSudokuBoardSize(), SolverMode.MOST_CONSTRAINED_CELL);
+
+        assertFalse("Board is not solvable", solver.isSolvable(grid));
+        assertTrue("Board is unchanged", grid.getCell(0, 2).isEmpty() && grid.getCell(0, 3).isEmpty());
+    }
+
+    /**
+     * Tests that the Dancing Links solver solves a hard 9x9 board & an empty 6x6 board (rectangular blocks).
+     */
+    @Test
+    public void dancingLinksSolvesAllBoardSizes() {
+        Grid nineByNineGrid = gridOf(HARD_NINE_BY_NINE_BOARD, SudokuType.NINE_BY_NINE);
+        new DancingLinksSolver(SudokuType.NINE_BY_NINE).solve(nineByNineGrid);
+        assertTrue("Hard board is solved", isSolved(nineByNineGrid, SudokuType.NINE_BY_NINE));
+
+        Grid sixBySixGrid = Grid.emptyGrid(SudokuType.SIX_BY_SIX);
+        new DancingLinksSolver(SudokuType.SIX_BY_SIX).solve(sixBySixGrid);
+        assertTrue("Empty 6x6 board is solved", isSolved(sixBySixGrid, SudokuType.SIX_BY_SIX));
+    }
+
+    /**
+     * Tests that both solvers count the same number of solutions (there are 288 different 4x4 boards).
+     */
+    @Test
+    public void solversCountSolutions() {
+        final SudokuType SUDOKU_TYPE = SudokuType.FOUR_BY_FOUR;
+        DancingLinksSolver dancingLinksSolver = new DancingLinksSolver(SUDOKU_TYPE);
+        Solver solver = new Solver(SUDOKU_TYPE.getSudokuBoardSize());
+
+        Grid emptyGrid = Grid.emptyGrid(SUDOKU_TYPE);
+        assertEquals(288, dancingLinksSolver.countSolutions(emptyGrid, Integer.MAX_VALUE));
+        assertEquals(288, solver.countSolutions(emptyGrid, Integer.MAX_VALUE));
+        assertEquals("Counting stops at the limit", 2, dancingLinksSolver.countSolutions(emptyGrid, 2));
+
+        Grid hardGrid = gridOf(HARD_NINE_BY_NINE_BOARD, SudokuType.NINE_BY_NINE);
+        assertEquals("Hard board has a unique solution",
+                1, new DancingLinksSolver(SudokuType.NINE_BY_NINE).countSolutions(hardGrid, 2));
+
+        Grid unsolvableGrid = gridOf("1200003000000000", SUDOKU_TYPE);
+        assertEquals(0, dancingLinksSolver.countSolutions(unsolvableGrid, 2));
+        assertEquals(0, solver.countSolutions(unsolvableGrid, 2));
+        assertEquals("Conflicting squares have no solution", 0,
+                dancingLinksSolver.countSolutions(gridOf("1100000000000000", SUDOKU_TYPE), 2));
+    }
+}
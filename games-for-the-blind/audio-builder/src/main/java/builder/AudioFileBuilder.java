@@ -1,20 +1,62 @@
 package builder;
 
-import com.google.cloud.texttospeech.v1.*;
-import com.google.protobuf.ByteString;
 import phrase.Phrase;
+import phrase.PhrasePack;
+import util.PcmUtil;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
-import java.util.ArrayList;
-import java.util.Arrays;
+import javax.sound.sampled.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
 
 /**
- * Logic to create & delete audio files using Google Cloud Text-to-Speech's Java API.
+ * Logic to create & delete audio files using a {@link SpeechSynthesizer} (Google Cloud Text-to-Speech by default).
+ * The audio files are synthesized in parallel, & a manifest records which voice every audio file was
+ * synthesized with, so that a rebuild only synthesizes new phrase values (or all of them after a voice change).
+ * The placeholder backend only fills in missing audio files, so it never replaces a real voice.
  */
 public class AudioFileBuilder {
+    /**
+     * Pass this argument to synthesize with the offline {@link PlaceholderSpeechSynthesizer} instead of Google Cloud.
+     */
+    private static final String PLACEHOLDER_ARGUMENT = "--placeholder";
+
+    /**
+     * The maximum number of synthesis requests that run at the same time.
+     */
+    private static final int MAX_CONCURRENT_REQUESTS = 8;
+
+    /**
+     * The number of times a failed synthesis request is tried before the phrase is skipped.
+     */
+    private static final int MAX_ATTEMPTS = 4;
+
+    /**
+     * The wait before the first retry (doubled before every following retry).
+     */
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+
+    /**
+     * The voice signature of audio files that were created before there was a manifest (they are always kept,
+     * since it's unknown which voice they were synthesized with).
+     */
+    private static final String UNKNOWN_VOICE_SIGNATURE = "unknown";
+
+    /**
+     * The manifest: one "file name=voice signature" line per audio file (in the audio builder's directory).
+     */
+    private static final Path PHRASE_MANIFEST_FILE = Paths.get(System.getProperty("user.dir"), "phrases.manifest");
+
+    /**
+     * Gains closer to 1.0 than this (about 0.5 dB, which can't be heard) are not applied, so that
+     * processing a file that was processed before leaves it untouched.
+     */
+    private static final double GAIN_TOLERANCE = 0.06;
+
     /**
      * The directory that contains all of the Phrases in the program.
      */
@@ -41,8 +83,16 @@ public class AudioFileBuilder {
         System.out.println("Generating & deleting audio files...");
 
         AudioFileBuilder audioFileBuilder = new AudioFileBuilder();
-        audioFileBuilder.createPhraseAudioFiles();
+        try (SpeechSynthesizer speechSynthesizer = Arrays.asList(args).contains(PLACEHOLDER_ARGUMENT)
+                ? new PlaceholderSpeechSynthesizer()
+                : new GoogleSpeechSynthesizer()) {
+            audioFileBuilder.createPhraseAudioFiles(speechSynthesizer);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        audioFileBuilder.processPhraseAudioFiles();
         audioFileBuilder.deleteOldPhraseAudioFiles();
+        audioFileBuilder.writePhrasePack();
 
         System.out.println("Completed audio file generation & deletion!");
     }
@@ -55,15 +105,15 @@ public class AudioFileBuilder {
         if (filesInDirectory == null) {
             return;
         }
-        ArrayList<File> audioFiles = new ArrayList<>(Arrays.asList(filesInDirectory));
+        Set<File> audioFiles = new LinkedHashSet<>(Arrays.asList(filesInDirectory));
 
         // If a given Phrase uses an audio file, I don't want to delete it
-        // (so remove it from the list of audio files to delete).
+        // (so remove it from the set of audio files to delete).
         for (Phrase phrase : Phrase.values()) {
             audioFiles.remove(phrase.getPhraseAudioFile());
         }
 
-        // All of the remaining audio files in the list need to be deleted.
+        // All of the remaining audio files in the set need to be deleted.
         for (File oldPhraseAudioFile : audioFiles) {
             if (!oldPhraseAudioFile.isDirectory()) {
                 String oldAudioFilePath = oldPhraseAudioFile.getPath();
@@ -77,45 +127,285 @@ public class AudioFileBuilder {
     }
 
     /**
-     * Creates Phrase audio files by calling into the Google Cloud Text-to-Speech Java API.
+     * Reads the manifest (empty if there is no manifest yet).
+     *
+     * @return A Map between the name of an audio file & the voice signature it was synthesized with.
+     */
+    private static Map<String, String> readManifest() {
+        Map<String, String> fileNameToVoiceSignature = new TreeMap<>();
+        if (!Files.exists(PHRASE_MANIFEST_FILE)) {
+            return fileNameToVoiceSignature;
+        }
+
+        try {
+            for (String line : Files.readAllLines(PHRASE_MANIFEST_FILE, StandardCharsets.UTF_8)) {
+                int separatorIndex = line.indexOf('=');
+                if (separatorIndex > 0) {
+                    fileNameToVoiceSignature.put(line.substring(0, separatorIndex), line.substring(separatorIndex + 1));
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return fileNameToVoiceSignature;
+    }
+
+    /**
+     * Writes the manifest. Entries of audio files that no Phrase uses anymore are left out.
+     *
+     * @param fileNameToVoiceSignature A Map between the name of an audio file & the voice signature it was
+     *                                 synthesized with.
+     */
+    private static void writeManifest(Map<String, String> fileNameToVoiceSignature) {
+        Set<String> usedFileNames = new HashSet<>();
+        for (Phrase phrase : Phrase.values()) {
+            usedFileNames.add(phrase.getPhraseAudioFile().getName());
+        }
+
+        List<String> lines = new ArrayList<>();
+        fileNameToVoiceSignature.forEach((fileName, voiceSignature) -> {
+            if (usedFileNames.contains(fileName)) {
+                lines.add(fileName + "=" + voiceSignature);
+            }
+        });
+
+        try {
+            Files.write(PHRASE_MANIFEST_FILE, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Synthesizes a phrase value, retrying with an exponential backoff (e.g. when the quota is exceeded).
+     *
+     * @param speechSynthesizer The backend to synthesize the speech with.
+     * @param text              The text to speak.
+     * @return The contents of the WAV file.
+     * @throws IOException          Thrown when the last attempt failed.
+     * @throws InterruptedException Thrown when the thread was interrupted while waiting for a retry.
+     */
+    private static byte[] synthesizeWithRetry(
+            SpeechSynthesizer speechSynthesizer, String text
+    ) throws IOException, InterruptedException {
+        long backoffMillis = INITIAL_BACKOFF_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return speechSynthesizer.synthesizeSpeech(text);
+            } catch (IOException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+
+                // Some jitter, so that the parallel requests don't all retry at the same moment.
+                long waitMillis = backoffMillis + ThreadLocalRandom.current().nextLong(backoffMillis / 2 + 1);
+                System.err.println(String.format(
+                        "Synthesizing \"%s\" failed (attempt %d), retrying in %d ms: %s",
+                        text, attempt, waitMillis, e.getMessage()
+                ));
+                Thread.sleep(waitMillis);
+                backoffMillis *= 2;
+            }
+        }
+    }
+
+    /**
+     * Checks if an existing audio file should be synthesized again with the given backend. Files of an unknown
+     * voice are kept, & a placeholder backend never replaces an existing file (e.g. a real voice with a beep).
+     *
+     * @param speechSynthesizer  The backend to synthesize the speech with.
+     * @param fileVoiceSignature The voice signature that the existing audio file was synthesized with.
+     * @return true if the audio file should be synthesized again (otherwise, false).
      */
-    private void createPhraseAudioFiles() {
-        try (TextToSpeechClient textToSpeechClient = TextToSpeechClient.create()) {
+    private static boolean isOutdated(SpeechSynthesizer speechSynthesizer, String fileVoiceSignature) {
+        if (speechSynthesizer.isPlaceholder() || UNKNOWN_VOICE_SIGNATURE.equals(fileVoiceSignature)) {
+            return false;
+        }
+        return !speechSynthesizer.getVoiceSignature().equals(fileVoiceSignature);
+    }
+
+    /**
+     * Creates the missing & outdated Phrase audio files (see the manifest) by calling into the
+     * {@link SpeechSynthesizer}, with up to MAX_CONCURRENT_REQUESTS requests at the same time.
+     *
+     * @param speechSynthesizer The backend to synthesize the speech with.
+     */
+    private void createPhraseAudioFiles(SpeechSynthesizer speechSynthesizer) {
+        final String voiceSignature = speechSynthesizer.getVoiceSignature();
+        Map<String, String> fileNameToVoiceSignature = readManifest();
+
+        // Phrases with the same phrase value share an audio file, so every file is synthesized once.
+        Map<File, Phrase> phraseFilesToCreate = new LinkedHashMap<>();
+        for (Phrase phrase : Phrase.values()) {
+            File phraseFile = phrase.getPhraseAudioFile();
+            String fileVoiceSignature = fileNameToVoiceSignature.get(phraseFile.getName());
+
+            if (phraseFile.exists() && fileVoiceSignature == null) {
+                // Created before there was a manifest: keep it (conserve Google Cloud quota).
+                fileNameToVoiceSignature.put(phraseFile.getName(), UNKNOWN_VOICE_SIGNATURE);
+            } else if (!phraseFile.exists() || isOutdated(speechSynthesizer, fileVoiceSignature)) {
+                phraseFilesToCreate.putIfAbsent(phraseFile, phrase);
+            }
+        }
+
+        ExecutorService requestExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS);
+        Map<File, Future<?>> phraseFileToRequest = new LinkedHashMap<>();
+        phraseFilesToCreate.forEach((phraseFile, phrase) -> phraseFileToRequest.put(
+                phraseFile,
+                requestExecutor.submit(() -> {
+                    byte[] audioContents = synthesizeWithRetry(speechSynthesizer, phrase.getPhraseValue());
+
+                    // Write the phrase audio file & print the saved phrase name to stdout.
+                    Files.write(phraseFile.toPath(), audioContents);
+                    System.out.println("Phrase audio file successfully saved: " + phrase);
+                    return null;
+                })
+        ));
+        requestExecutor.shutdown();
+
+        for (Map.Entry<File, Future<?>> request : phraseFileToRequest.entrySet()) {
+            try {
+                request.getValue().get();
+                fileNameToVoiceSignature.put(request.getKey().getName(), voiceSignature);
+            } catch (ExecutionException e) {
+                System.err.println("Could not create phrase audio file: " + phraseFilesToCreate.get(request.getKey()));
+                e.getCause().printStackTrace();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+                requestExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        writeManifest(fileNameToVoiceSignature);
+    }
+
+    /**
+     * Trims the silence around every Phrase audio file & normalizes its loudness (see {@link PcmUtil}).
+     * Files that were processed before are left untouched.
+     */
+    private void processPhraseAudioFiles() {
+        for (Phrase phrase : Phrase.values()) {
+            File phraseFile = phrase.getPhraseAudioFile();
+            if (!phraseFile.exists()) {
+                continue;
+            }
+
+            try {
+                if (processPhraseAudioFile(phraseFile)) {
+                    System.out.println("Phrase audio file successfully trimmed & normalized: " + phrase);
+                }
+            } catch (IOException | UnsupportedAudioFileException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Writes all of the Phrase audio files into a single {@link PhrasePack} (compressed with μ-law).
+     */
+    private void writePhrasePack() {
+        Map<Phrase, byte[]> phraseToPcm = new EnumMap<>(Phrase.class);
+        int sampleRate = -1;
+
+        try {
             for (Phrase phrase : Phrase.values()) {
                 File phraseFile = phrase.getPhraseAudioFile();
+                if (!phraseFile.exists()) {
+                    continue;
+                }
 
-                // Don't recreate any phrase audio file that already exists (conserve Google Cloud quota).
-                if (phraseFile.exists()) {
+                AudioFormat audioFormat = AudioSystem.getAudioFileFormat(phraseFile).getFormat();
+                if (sampleRate == -1) {
+                    sampleRate = (int) audioFormat.getSampleRate();
+                }
+                if (!isPcmFormat(audioFormat) || (int) audioFormat.getSampleRate() != sampleRate) {
+                    System.err.println("Phrase audio file can't be packed, skipping: " + phraseFile.getPath());
                     continue;
                 }
 
-                // Set the text of the constructed audio file to the current phrase value.
-                SynthesisInput input = SynthesisInput.newBuilder()
-                        .setText(phrase.getPhraseValue())
-                        .build();
+                phraseToPcm.put(phrase, readPcm(phraseFile));
+            }
 
-                // Neutral gender & US-based voice.
-                VoiceSelectionParams voice = VoiceSelectionParams.newBuilder()
-                        .setLanguageCode("en-US")
-                        .setSsmlGender(SsmlVoiceGender.NEUTRAL)
-                        .build();
+            if (phraseToPcm.isEmpty()) {
+                System.err.println("There are no phrase audio files to pack!");
+                return;
+            }
 
-                // Java only natively plays WAV audio files.
-                AudioConfig audioConfig = AudioConfig.newBuilder()
-                        .setAudioEncoding(AudioEncoding.LINEAR16)
-                        .build();
+            PhrasePack.write(PhrasePack.PHRASE_PACK_FILE.toFile(), sampleRate, phraseToPcm);
+            System.out.println(String.format(
+                    "Phrase pack successfully saved (%d phrases): %s", phraseToPcm.size(), PhrasePack.PHRASE_PACK_FILE
+            ));
+        } catch (IOException | UnsupportedAudioFileException e) {
+            e.printStackTrace();
+        }
+    }
 
-                SynthesizeSpeechResponse response = textToSpeechClient.synthesizeSpeech(input, voice, audioConfig);
-                ByteString audioContents = response.getAudioContent();
+    /**
+     * Checks if audio is in the format that the audio is processed & packed in.
+     *
+     * @param audioFormat The format of a Phrase audio file.
+     * @return true if the audio is 16-bit little-endian mono PCM (like LINEAR16 produces).
+     */
+    private static boolean isPcmFormat(AudioFormat audioFormat) {
+        return audioFormat.getEncoding() == AudioFormat.Encoding.PCM_SIGNED
+                && audioFormat.getSampleSizeInBits() == 16
+                && audioFormat.getChannels() == 1
+                && !audioFormat.isBigEndian();
+    }
 
-                // Write the phrase audio file & print the saved phrase name to stdout.
-                try (OutputStream out = new FileOutputStream(phraseFile)) {
-                    out.write(audioContents.toByteArray());
-                }
-                System.out.println("Phrase audio file successfully saved: " + phrase);
+    /**
+     * Reads the samples of a Phrase audio file.
+     *
+     * @param phraseFile The WAV file to read.
+     * @return The PCM audio.
+     * @throws IOException                   Thrown when the file can't be read.
+     * @throws UnsupportedAudioFileException Thrown when the file isn't a WAV file.
+     */
+    private static byte[] readPcm(File phraseFile) throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(phraseFile)) {
+            ByteArrayOutputStream pcmOutputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int numberOfBytesRead;
+            while ((numberOfBytesRead = audioInputStream.read(buffer)) != -1) {
+                pcmOutputStream.write(buffer, 0, numberOfBytesRead);
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+            return pcmOutputStream.toByteArray();
+        }
+    }
+
+    /**
+     * Trims the silence around a single Phrase audio file & normalizes its loudness, overwriting the file.
+     *
+     * @param phraseFile The WAV file to process (16-bit little-endian mono PCM, like LINEAR16 produces).
+     * @return true if the file was rewritten, false if it was processed already or isn't in the expected format.
+     * @throws IOException                   Thrown when the file can't be read or written.
+     * @throws UnsupportedAudioFileException Thrown when the file isn't a WAV file.
+     */
+    private static boolean processPhraseAudioFile(
+            File phraseFile
+    ) throws IOException, UnsupportedAudioFileException {
+        AudioFormat audioFormat = AudioSystem.getAudioFileFormat(phraseFile).getFormat();
+        if (!isPcmFormat(audioFormat)) {
+            System.err.println("Phrase audio file is not 16-bit mono PCM, skipping: " + phraseFile.getPath());
+            return false;
+        }
+        byte[] pcm = readPcm(phraseFile);
+
+        // Normalize before trimming: a gain below 1.0 turns the quietest samples into silence.
+        double gain = PcmUtil.getNormalizationGain(pcm);
+        byte[] normalizedPcm = (Math.abs(gain - 1.0) < GAIN_TOLERANCE) ? pcm : PcmUtil.applyGain(pcm, gain);
+        byte[] processedPcm = PcmUtil.trimSilence(normalizedPcm, audioFormat.getSampleRate());
+        if (normalizedPcm == pcm && processedPcm.length == pcm.length) {
+            return false;
+        }
+
+        try (AudioInputStream processedInputStream = new AudioInputStream(
+                new ByteArrayInputStream(processedPcm), audioFormat, processedPcm.length / audioFormat.getFrameSize()
+        )) {
+            AudioSystem.write(processedInputStream, AudioFileFormat.Type.WAVE, phraseFile);
         }
+        return true;
     }
 }
@@ -0,0 +1,66 @@
+package builder;
+
+import com.google.cloud.texttospeech.v1.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Synthesizes speech with Google Cloud Text-to-Speech's Java API (needs Google Cloud credentials).
+ */
+public class GoogleSpeechSynthesizer implements SpeechSynthesizer {
+    /**
+     * Neutral gender & US-based voice.
+     */
+    private static final VoiceSelectionParams VOICE = VoiceSelectionParams.newBuilder()
+            .setLanguageCode("en-US")
+            .setSsmlGender(SsmlVoiceGender.NEUTRAL)
+            .build();
+
+    /**
+     * Java only natively plays WAV audio files.
+     */
+    private static final AudioConfig AUDIO_CONFIG = AudioConfig.newBuilder()
+            .setAudioEncoding(AudioEncoding.LINEAR16)
+            .build();
+
+    /**
+     * The client for the Google Cloud API (thread-safe, so it is shared by all requests).
+     */
+    private final TextToSpeechClient textToSpeechClient;
+
+    /**
+     * Creates a new GoogleSpeechSynthesizer.
+     *
+     * @throws IOException Thrown when the Google Cloud client can't be created (e.g. missing credentials).
+     */
+    public GoogleSpeechSynthesizer() throws IOException {
+        this.textToSpeechClient = TextToSpeechClient.create();
+    }
+
+    @Override
+    public byte[] synthesizeSpeech(@NotNull String text) throws IOException {
+        // Set the text of the constructed audio file to the phrase value.
+        SynthesisInput input = SynthesisInput.newBuilder()
+                .setText(text)
+                .build();
+
+        try {
+            SynthesizeSpeechResponse response = this.textToSpeechClient.synthesizeSpeech(input, VOICE, AUDIO_CONFIG);
+            return response.getAudioContent().toByteArray();
+        } catch (RuntimeException e) {
+            // The client reports failed requests (quota, network, etc.) as unchecked exceptions.
+            throw new IOException("Google Cloud Text-to-Speech request failed: " + text, e);
+        }
+    }
+
+    @Override
+    public String getVoiceSignature() {
+        return "google:en-US:NEUTRAL:LINEAR16";
+    }
+
+    @Override
+    public void close() {
+        this.textToSpeechClient.close();
+    }
+}
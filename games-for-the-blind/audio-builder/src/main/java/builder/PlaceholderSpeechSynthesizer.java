@@ -0,0 +1,71 @@
+package builder;
+
+import org.jetbrains.annotations.NotNull;
+import util.PcmUtil;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * An offline stand-in for a real text-to-speech backend: every phrase becomes a short beep whose length grows
+ * with the length of the text. Used to build a complete phrase bank (e.g. for testing) without Google Cloud.
+ */
+public class PlaceholderSpeechSynthesizer implements SpeechSynthesizer {
+    /**
+     * The format of the generated audio (the same format as Google Cloud's LINEAR16 audio).
+     */
+    private static final AudioFormat AUDIO_FORMAT = new AudioFormat(24_000f, 16, 1, true, false);
+
+    /* The length of the beep: a base length plus a length per character of the text. */
+    private static final int BASE_MILLIS = 150;
+    private static final int MILLIS_PER_CHARACTER = 40;
+
+    /**
+     * The pitch of the beep (in Hz).
+     */
+    private static final double FREQUENCY = 440.0;
+
+    /**
+     * The peak amplitude of the beep (about -12 dBFS).
+     */
+    private static final double AMPLITUDE = 8192.0;
+
+    @Override
+    public byte[] synthesizeSpeech(@NotNull String text) throws IOException {
+        final float sampleRate = AUDIO_FORMAT.getSampleRate();
+        int numberOfSamples = (int) (sampleRate * (BASE_MILLIS + MILLIS_PER_CHARACTER * text.trim().length()) / 1000);
+
+        byte[] pcm = new byte[numberOfSamples * AUDIO_FORMAT.getFrameSize()];
+        for (int sampleIndex = 0; sampleIndex < numberOfSamples; sampleIndex++) {
+            double phase = 2 * Math.PI * FREQUENCY * sampleIndex / sampleRate;
+            PcmUtil.setSample(pcm, sampleIndex, (int) (AMPLITUDE * Math.sin(phase)));
+        }
+
+        ByteArrayOutputStream wavOutputStream = new ByteArrayOutputStream();
+        try (AudioInputStream audioInputStream = new AudioInputStream(
+                new ByteArrayInputStream(pcm), AUDIO_FORMAT, numberOfSamples
+        )) {
+            AudioSystem.write(audioInputStream, AudioFileFormat.Type.WAVE, wavOutputStream);
+        }
+        return wavOutputStream.toByteArray();
+    }
+
+    @Override
+    public String getVoiceSignature() {
+        return "placeholder:beep";
+    }
+
+    @Override
+    public boolean isPlaceholder() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,44 @@
+package builder;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * A text-to-speech backend that the {@link AudioFileBuilder} creates the Phrase audio files with.
+ * Implementations must be thread-safe (the audio files are synthesized in parallel).
+ */
+public interface SpeechSynthesizer extends AutoCloseable {
+    /**
+     * Synthesizes a phrase value.
+     *
+     * @param text The text to speak.
+     * @return The contents of a WAV file (16-bit little-endian mono PCM) that speaks the text.
+     * @throws IOException Thrown when the speech couldn't be synthesized (the request may be retried).
+     */
+    byte[] synthesizeSpeech(@NotNull String text) throws IOException;
+
+    /**
+     * Describes the backend & its voice settings. An audio file that was synthesized with a different
+     * signature is synthesized again (e.g. after switching to another voice).
+     *
+     * @return The signature of the backend & its voice settings.
+     */
+    String getVoiceSignature();
+
+    /**
+     * Tells if the backend only creates stand-ins for missing audio files (then it never replaces an existing
+     * audio file, whatever voice the file was synthesized with).
+     *
+     * @return true if the backend only fills in missing audio files (otherwise, false).
+     */
+    default boolean isPlaceholder() {
+        return false;
+    }
+
+    /**
+     * Releases the resources of the backend.
+     */
+    @Override
+    void close();
+}